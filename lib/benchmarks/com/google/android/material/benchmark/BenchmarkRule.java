@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * A JUnit rule which measures the time and memory taken by an operation, in the style of JMH.
+ *
+ * <p>The operation is first run repeatedly to warm up the JIT. It is then run in several rounds,
+ * and the median time per operation and the median number of bytes allocated per operation of
+ * the rounds are reported:
+ *
+ * <pre>
+ * {@literal @}Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+ *
+ * {@literal @}Test
+ * public void draw() {
+ *   benchmarkRule.measure(
+ *       new Runnable() {
+ *         {@literal @}Override
+ *         public void run() {
+ *           drawable.draw(canvas);
+ *         }
+ *       });
+ * }
+ * </pre>
+ *
+ * <p>Benchmarks run on the JVM under Robolectric, so their absolute numbers don't match a device.
+ * They are meant to be compared between commits, to make regressions in hot paths visible.
+ */
+public final class BenchmarkRule implements TestRule {
+
+  private static final long WARMUP_NANOS = 250_000_000L;
+  private static final long ROUND_NANOS = 100_000_000L;
+  private static final int ROUNDS = 5;
+
+  private String name = "benchmark";
+
+  @Override
+  public Statement apply(final Statement base, final Description description) {
+    return new Statement() {
+      @Override
+      public void evaluate() throws Throwable {
+        Class<?> testClass = description.getTestClass();
+        name =
+            (testClass != null ? testClass.getSimpleName() : description.getClassName())
+                + "."
+                + description.getMethodName();
+        base.evaluate();
+      }
+    };
+  }
+
+  /**
+   * Measures {@code operation}, prints the results, and returns them.
+   *
+   * @param operation the operation to measure. It's run many times, so it must leave any state it
+   *     changes ready to be run again.
+   */
+  public Result measure(Runnable operation) {
+    // Warm up, and find out how many operations fit in a single round.
+    long operationsPerRound = 1;
+    long start = System.nanoTime();
+    long elapsed;
+    do {
+      for (long i = 0; i < operationsPerRound; i++) {
+        operation.run();
+      }
+      elapsed = System.nanoTime() - start;
+      operationsPerRound *= 2;
+    } while (elapsed < WARMUP_NANOS);
+    operationsPerRound = Math.max(1, operationsPerRound * ROUND_NANOS / (2 * elapsed));
+
+    double[] nanosPerOperation = new double[ROUNDS];
+    double[] bytesPerOperation = new double[ROUNDS];
+    for (int round = 0; round < ROUNDS; round++) {
+      long allocatedBytes = AllocationCounter.getAllocatedBytes();
+      long roundStart = System.nanoTime();
+      for (long i = 0; i < operationsPerRound; i++) {
+        operation.run();
+      }
+      long roundNanos = System.nanoTime() - roundStart;
+      allocatedBytes = AllocationCounter.getAllocatedBytes() - allocatedBytes;
+      nanosPerOperation[round] = (double) roundNanos / operationsPerRound;
+      bytesPerOperation[round] = (double) allocatedBytes / operationsPerRound;
+    }
+
+    Result result = new Result(name, median(nanosPerOperation), median(bytesPerOperation));
+    System.out.println(result);
+    return result;
+  }
+
+  private static double median(double[] values) {
+    double[] sorted = values.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+
+  /** The time and memory taken by a measured operation. */
+  public static final class Result {
+
+    public final String name;
+    public final double nanosPerOperation;
+    public final double bytesPerOperation;
+
+    Result(String name, double nanosPerOperation, double bytesPerOperation) {
+      this.name = name;
+      this.nanosPerOperation = nanosPerOperation;
+      this.bytesPerOperation = bytesPerOperation;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          Locale.US, "%-70s %14.1f ns/op %12.1f B/op", name, nanosPerOperation, bytesPerOperation);
+    }
+  }
+
+  /** Reads the number of bytes allocated by the current thread. */
+  private static final class AllocationCounter {
+
+    private static final com.sun.management.ThreadMXBean threadMXBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    static long getAllocatedBytes() {
+      return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+  }
+}
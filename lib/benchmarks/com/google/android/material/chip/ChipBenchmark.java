@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.chip;
+
+import com.google.android.material.R;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View.MeasureSpec;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.benchmark.BenchmarkRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Benchmarks for {@link Chip}, {@link ChipDrawable} and {@link ChipGroup}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ChipBenchmark {
+
+  private static final int CHIP_GROUP_SIZE = 100;
+  private static final int CHIP_GROUP_WIDTH = 1080;
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private AppCompatActivity activity;
+
+  @Before
+  public void createActivity() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+  }
+
+  @Test
+  public void chipDrawable_draw() {
+    Chip chip = new Chip(activity);
+    chip.setText("Benchmark");
+    chip.setCloseIconVisible(true);
+    chip.measure(
+        MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED),
+        MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+    chip.layout(0, 0, chip.getMeasuredWidth(), chip.getMeasuredHeight());
+    final ChipDrawable chipDrawable = (ChipDrawable) chip.getChipDrawable();
+    int width = Math.max(1, chip.getWidth());
+    int height = Math.max(1, chip.getHeight());
+    final Canvas canvas = new Canvas(Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888));
+
+    benchmarkRule.measure(
+        new Runnable() {
+          @Override
+          public void run() {
+            chipDrawable.draw(canvas);
+          }
+        });
+  }
+
+  @Test
+  public void chipGroup_inflate() {
+    benchmarkRule.measure(
+        new Runnable() {
+          @Override
+          public void run() {
+            ChipGroup chipGroup = new ChipGroup(activity);
+            for (int i = 0; i < CHIP_GROUP_SIZE; i++) {
+              Chip chip = new Chip(activity);
+              chip.setText("Chip " + i);
+              chipGroup.addView(chip);
+            }
+            chipGroup.measure(
+                MeasureSpec.makeMeasureSpec(CHIP_GROUP_WIDTH, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+            chipGroup.layout(0, 0, chipGroup.getMeasuredWidth(), chipGroup.getMeasuredHeight());
+          }
+        });
+  }
+}
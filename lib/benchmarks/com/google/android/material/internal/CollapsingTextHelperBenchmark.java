@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.internal;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.benchmark.BenchmarkRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Benchmarks for {@link CollapsingTextHelper}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class CollapsingTextHelperBenchmark {
+
+  private static final int WIDTH = 1080;
+  private static final int HEIGHT = 400;
+  private static final int COLLAPSED_HEIGHT = 168;
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private final Canvas canvas =
+      new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+  private CollapsingTextHelper collapsingTextHelper;
+
+  @Before
+  public void createCollapsingTextHelper() {
+    View view = new View(ApplicationProvider.getApplicationContext());
+    view.layout(0, 0, WIDTH, HEIGHT);
+    collapsingTextHelper = new CollapsingTextHelper(view);
+    collapsingTextHelper.setExpandedTextSize(96);
+    collapsingTextHelper.setCollapsedTextSize(60);
+    collapsingTextHelper.setExpandedBounds(48, HEIGHT - 192, WIDTH - 48, HEIGHT - 48);
+    collapsingTextHelper.setCollapsedBounds(216, 0, WIDTH - 216, COLLAPSED_HEIGHT);
+    collapsingTextHelper.setText("A title which is long enough to be ellipsized when collapsed");
+    collapsingTextHelper.recalculate();
+  }
+
+  @Test
+  public void setExpansionFraction() {
+    benchmarkRule.measure(
+        new Runnable() {
+          private int frame;
+
+          @Override
+          public void run() {
+            collapsingTextHelper.setExpansionFraction(getFraction(frame++));
+          }
+        });
+  }
+
+  @Test
+  public void setExpansionFraction_draw() {
+    benchmarkRule.measure(
+        new Runnable() {
+          private int frame;
+
+          @Override
+          public void run() {
+            collapsingTextHelper.setExpansionFraction(getFraction(frame++));
+            collapsingTextHelper.draw(canvas);
+          }
+        });
+  }
+
+  /** Returns the expansion fraction of a fling which goes back and forth. */
+  private static float getFraction(int frame) {
+    int step = frame % 200;
+    return (step < 100 ? step : 200 - step) / 100f;
+  }
+}
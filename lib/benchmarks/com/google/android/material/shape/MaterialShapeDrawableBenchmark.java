@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.shape;
+
+import android.content.res.ColorStateList;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import com.google.android.material.benchmark.BenchmarkRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Benchmarks for {@link MaterialShapeDrawable#draw(Canvas)}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class MaterialShapeDrawableBenchmark {
+
+  private static final int WIDTH = 300;
+  private static final int HEIGHT = 120;
+  private static final int SHADOW_RADIUS = 12;
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private final Canvas canvas =
+      new Canvas(
+          Bitmap.createBitmap(
+              WIDTH + 2 * SHADOW_RADIUS, HEIGHT + 2 * SHADOW_RADIUS, Bitmap.Config.ARGB_8888));
+  private MaterialShapeDrawable drawable;
+
+  @Before
+  public void createDrawable() {
+    ShapeAppearanceModel shapeAppearance = new ShapeAppearanceModel();
+    shapeAppearance.setAllCorners(new CutCornerTreatment(16));
+    drawable = new MaterialShapeDrawable(shapeAppearance);
+    drawable.setBounds(SHADOW_RADIUS, SHADOW_RADIUS, WIDTH + SHADOW_RADIUS, HEIGHT + SHADOW_RADIUS);
+    drawable.setFillColor(ColorStateList.valueOf(Color.WHITE));
+    drawable.setStroke(2, Color.BLACK);
+    drawable.setElevation(SHADOW_RADIUS);
+  }
+
+  @Test
+  public void draw_shadowCompatModeDefault() {
+    measureDraw(MaterialShapeDrawable.SHADOW_COMPAT_MODE_DEFAULT, false);
+  }
+
+  @Test
+  public void draw_shadowCompatModeNever() {
+    measureDraw(MaterialShapeDrawable.SHADOW_COMPAT_MODE_NEVER, false);
+  }
+
+  @Test
+  public void draw_shadowCompatModeAlways() {
+    measureDraw(MaterialShapeDrawable.SHADOW_COMPAT_MODE_ALWAYS, false);
+  }
+
+  @Test
+  public void draw_shadowCompatModeAlwaysCached() {
+    measureDraw(MaterialShapeDrawable.SHADOW_COMPAT_MODE_ALWAYS_CACHED, false);
+  }
+
+  @Test
+  public void draw_shadowCompatModeAlways_interpolating() {
+    measureDraw(MaterialShapeDrawable.SHADOW_COMPAT_MODE_ALWAYS, true);
+  }
+
+  @Test
+  public void draw_shadowCompatModeAlwaysCached_interpolating() {
+    measureDraw(MaterialShapeDrawable.SHADOW_COMPAT_MODE_ALWAYS_CACHED, true);
+  }
+
+  /**
+   * Measures drawing the shape.
+   *
+   * @param interpolating whether the interpolation changes before every draw, as it does while the
+   *     shape is animated, which invalidates the path and the shadow.
+   */
+  private void measureDraw(int shadowCompatMode, final boolean interpolating) {
+    drawable.setShadowCompatibilityMode(shadowCompatMode);
+    benchmarkRule.measure(
+        new Runnable() {
+          private int frame;
+
+          @Override
+          public void run() {
+            if (interpolating) {
+              drawable.setInterpolation((frame++ % 100) / 100f);
+            }
+            drawable.draw(canvas);
+          }
+        });
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.shape;
+
+import android.graphics.Matrix;
+import android.graphics.Path;
+import android.graphics.RectF;
+import com.google.android.material.benchmark.BenchmarkRule;
+import com.google.android.material.shape.ShapeAppearancePathProvider.PathListener;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Benchmarks for {@link ShapeAppearancePathProvider#calculatePath}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ShapeAppearancePathProviderBenchmark {
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private final ShapeAppearancePathProvider pathProvider = new ShapeAppearancePathProvider();
+  private final RectF bounds = new RectF(0, 0, 300, 120);
+  private final Path path = new Path();
+
+  /** Forces the provider to apply each corner and edge treatment in turn. */
+  private final PathListener noOpListener =
+      new PathListener() {
+        @Override
+        public void onCornerPathCreated(ShapePath cornerPath, Matrix transform, int count) {}
+
+        @Override
+        public void onEdgePathCreated(ShapePath edgePath, Matrix transform, int count) {}
+      };
+
+  @Test
+  public void roundedCorners() {
+    measureCalculatePath(createRoundedShape(), null);
+  }
+
+  @Test
+  public void roundedCorners_generic() {
+    measureCalculatePath(createRoundedShape(), noOpListener);
+  }
+
+  @Test
+  public void mixedCorners() {
+    measureCalculatePath(createMixedShape(), null);
+  }
+
+  @Test
+  public void mixedCorners_generic() {
+    measureCalculatePath(createMixedShape(), noOpListener);
+  }
+
+  @Test
+  public void triangleEdges() {
+    ShapeAppearanceModel shapeAppearance = createRoundedShape();
+    shapeAppearance.setAllEdges(new TriangleEdgeTreatment(10, false));
+
+    measureCalculatePath(shapeAppearance, null);
+  }
+
+  private void measureCalculatePath(
+      final ShapeAppearanceModel shapeAppearance, final PathListener pathListener) {
+    benchmarkRule.measure(
+        new Runnable() {
+          @Override
+          public void run() {
+            pathProvider.calculatePath(shapeAppearance, 1f, bounds, pathListener, path);
+          }
+        });
+  }
+
+  private static ShapeAppearanceModel createRoundedShape() {
+    ShapeAppearanceModel shapeAppearance = new ShapeAppearanceModel();
+    shapeAppearance.setAllCorners(new RoundedCornerTreatment(16));
+    return shapeAppearance;
+  }
+
+  private static ShapeAppearanceModel createMixedShape() {
+    ShapeAppearanceModel shapeAppearance = new ShapeAppearanceModel();
+    shapeAppearance.setTopLeftCorner(new CutCornerTreatment(24));
+    shapeAppearance.setTopRightCorner(new RoundedCornerTreatment(8));
+    shapeAppearance.setBottomRightCorner(new CutCornerTreatment(12));
+    shapeAppearance.setBottomLeftCorner(new RoundedCornerTreatment(32));
+    return shapeAppearance;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.tabs;
+
+import com.google.android.material.R;
+
+import android.view.View.MeasureSpec;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.benchmark.BenchmarkRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Benchmarks for {@link TabLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TabLayoutBenchmark {
+
+  private static final int TAB_COUNT = 10;
+  private static final int WIDTH = 1080;
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private TabLayout tabLayout;
+
+  @Before
+  public void createTabLayout() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    AppCompatActivity activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    tabLayout = new TabLayout(activity);
+    tabLayout.setTabMode(TabLayout.MODE_SCROLLABLE);
+    for (int i = 0; i < TAB_COUNT; i++) {
+      tabLayout.addTab(tabLayout.newTab().setText("Tab " + i));
+    }
+  }
+
+  @Test
+  public void measureAndLayout() {
+    benchmarkRule.measure(
+        new Runnable() {
+          @Override
+          public void run() {
+            tabLayout.forceLayout();
+            tabLayout.measure(
+                MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+            tabLayout.layout(0, 0, tabLayout.getMeasuredWidth(), tabLayout.getMeasuredHeight());
+          }
+        });
+  }
+}
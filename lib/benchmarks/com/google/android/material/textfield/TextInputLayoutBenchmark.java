@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.textfield;
+
+import com.google.android.material.R;
+
+import androidx.appcompat.app.AppCompatActivity;
+import android.view.View.MeasureSpec;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.benchmark.BenchmarkRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Benchmarks for {@link TextInputLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TextInputLayoutBenchmark {
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private AppCompatActivity activity;
+
+  @Before
+  public void createActivity() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+  }
+
+  @Test
+  public void inflate() {
+    benchmarkRule.measure(
+        new Runnable() {
+          @Override
+          public void run() {
+            TextInputLayout textInputLayout = new TextInputLayout(activity);
+            textInputLayout.setHint("Hint");
+            textInputLayout.setCounterEnabled(true);
+            textInputLayout.addView(new TextInputEditText(textInputLayout.getContext()));
+          }
+        });
+  }
+
+  @Test
+  public void showAndHideError() {
+    final TextInputLayout textInputLayout = new TextInputLayout(activity);
+    textInputLayout.addView(new TextInputEditText(textInputLayout.getContext()));
+    textInputLayout.setHelperText("Helper");
+    activity.setContentView(textInputLayout);
+    // Captions only animate once the layout is laid out.
+    textInputLayout.measure(
+        MeasureSpec.makeMeasureSpec(500, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(200, MeasureSpec.AT_MOST));
+    textInputLayout.layout(0, 0, 500, textInputLayout.getMeasuredHeight());
+
+    benchmarkRule.measure(
+        new Runnable() {
+          @Override
+          public void run() {
+            textInputLayout.setError("Error");
+            textInputLayout.setError(null);
+          }
+        });
+  }
+}
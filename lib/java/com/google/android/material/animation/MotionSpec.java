@@ -20,14 +20,20 @@ import android.animation.AnimatorInflater;
 import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
 import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
 import android.content.res.TypedArray;
 import androidx.annotation.AnimatorRes;
 import androidx.annotation.Nullable;
 import androidx.annotation.StyleableRes;
+import androidx.annotation.VisibleForTesting;
 import androidx.collection.SimpleArrayMap;
 import android.util.Log;
+import android.util.SparseArray;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * A motion spec contains multiple named {@link MotionTiming motion timings}.
@@ -64,8 +70,19 @@ public class MotionSpec {
 
   private static final String TAG = "MotionSpec";
 
+  // The motion specs already inflated in each theme, since an animator resource can refer to theme
+  // attributes. Callers get a copy, so that changing one doesn't change the cached spec.
+  private static final Map<Resources.Theme, CachedSpecs> cachedSpecs = new WeakHashMap<>();
+
   private final SimpleArrayMap<String, MotionTiming> timings = new SimpleArrayMap<>();
 
+  public MotionSpec() {}
+
+  /** Creates a copy of the given motion spec. MotionTimings are immutable, so they are shared. */
+  public MotionSpec(MotionSpec other) {
+    timings.putAll(other.timings);
+  }
+
   /** Returns whether this motion spec contains a MotionTiming with the given name. */
   public boolean hasTiming(String name) {
     return timings.get(name) != null;
@@ -116,9 +133,52 @@ public class MotionSpec {
     return null;
   }
 
-  /** Inflates an instance of MotionSpec from the given animator resource. */
+  /**
+   * Inflates an instance of MotionSpec from the given animator resource.
+   *
+   * <p>The resource is only inflated the first time it's requested in the context's theme and
+   * configuration. Later calls return a copy of the spec inflated then.
+   */
   @Nullable
   public static MotionSpec createFromResource(Context context, @AnimatorRes int id) {
+    Resources.Theme theme = context.getTheme();
+    Configuration configuration = context.getResources().getConfiguration();
+    synchronized (cachedSpecs) {
+      CachedSpecs specs = cachedSpecs.get(theme);
+      if (specs != null && specs.configuration.equals(configuration)) {
+        MotionSpec spec = specs.specs.get(id);
+        if (spec != null) {
+          return new MotionSpec(spec);
+        }
+      }
+    }
+
+    MotionSpec spec = inflateFromResource(context, id);
+    if (spec == null) {
+      return null;
+    }
+    synchronized (cachedSpecs) {
+      CachedSpecs specs = cachedSpecs.get(theme);
+      if (specs == null || !specs.configuration.equals(configuration)) {
+        // The theme may have been rebased on a new configuration, which can change the resource.
+        specs = new CachedSpecs(configuration);
+        cachedSpecs.put(theme, specs);
+      }
+      specs.specs.put(id, new MotionSpec(spec));
+    }
+    return spec;
+  }
+
+  /** Clears the motion specs cached by {@link #createFromResource(Context, int)}. */
+  @VisibleForTesting
+  static void clearCache() {
+    synchronized (cachedSpecs) {
+      cachedSpecs.clear();
+    }
+  }
+
+  @Nullable
+  private static MotionSpec inflateFromResource(Context context, @AnimatorRes int id) {
     try {
       Animator animator = AnimatorInflater.loadAnimator(context, id);
       if (animator instanceof AnimatorSet) {
@@ -185,4 +245,14 @@ public class MotionSpec {
     out.append("}\n");
     return out.toString();
   }
+
+  /** The motion specs inflated in a theme, and the configuration they were inflated for. */
+  private static final class CachedSpecs {
+    final Configuration configuration;
+    final SparseArray<MotionSpec> specs = new SparseArray<>();
+
+    CachedSpecs(Configuration configuration) {
+      this.configuration = new Configuration(configuration);
+    }
+  }
 }
@@ -28,6 +28,7 @@ import android.graphics.Rect;
 import android.os.Build;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import androidx.annotation.IdRes;
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
@@ -49,6 +50,7 @@ import androidx.core.view.WindowInsetsCompat;
 import android.util.AttributeSet;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
 import android.view.animation.Interpolator;
 import android.widget.LinearLayout;
 import android.widget.ListView;
@@ -148,11 +150,35 @@ public class AppBarLayout extends LinearLayout {
     void onOffsetChanged(AppBarLayout appBarLayout, int verticalOffset);
   }
 
+  /**
+   * Interface definition for a callback to be invoked when an {@link AppBarLayout}'s vertical
+   * offset changes, which is also told how far and how fast the offset moved.
+   */
+  public interface OnOffsetDeltaChangedListener {
+
+    /**
+     * Called when the {@link AppBarLayout}'s layout offset has been changed.
+     *
+     * @param appBarLayout the {@link AppBarLayout} which offset has changed
+     * @param verticalOffset the vertical offset for the parent {@link AppBarLayout}, in px
+     * @param offsetDelta the change of the vertical offset since the previous call, in px
+     * @param velocity the velocity of the vertical offset, in px per second, or 0 if the offset
+     *     hasn't moved recently
+     */
+    void onOffsetDeltaChanged(
+        AppBarLayout appBarLayout, int verticalOffset, int offsetDelta, float velocity);
+  }
+
   private static final int INVALID_SCROLL_RANGE = -1;
 
+  // Offset updates further apart than this are treated as the start of a new movement, so their
+  // velocity isn't computed against the stale previous update.
+  private static final long MAX_VELOCITY_INTERVAL_MS = 100;
+
   private int totalScrollRange = INVALID_SCROLL_RANGE;
   private int downPreScrollRange = INVALID_SCROLL_RANGE;
   private int downScrollRange = INVALID_SCROLL_RANGE;
+  private final ChildOffsetIndex childOffsetIndex = new ChildOffsetIndex();
 
   private boolean haveChildWithInterpolator;
 
@@ -161,6 +187,22 @@ public class AppBarLayout extends LinearLayout {
   private WindowInsetsCompat lastInsets;
 
   private List<BaseOnOffsetChangedListener> listeners;
+  private List<OnOffsetDeltaChangedListener> deltaListeners;
+
+  private boolean offsetUpdatesCoalesced;
+  private boolean offsetUpdatePending;
+  private int pendingOffset;
+  private int lastDispatchedOffset;
+  private long lastDispatchTime;
+  private float lastVelocity;
+  private final ViewTreeObserver.OnPreDrawListener pendingOffsetUpdateDispatcher =
+      new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+          dispatchPendingOffsetUpdate();
+          return true;
+        }
+      };
 
   private boolean liftableOverride;
   private boolean liftable;
@@ -280,6 +322,71 @@ public class AppBarLayout extends LinearLayout {
     removeOnOffsetChangedListener((BaseOnOffsetChangedListener) listener);
   }
 
+  /**
+   * Add a listener that will be called with the offset of this {@link AppBarLayout}, and how far
+   * and how fast it moved, when the offset changes.
+   *
+   * @param listener The listener that will be called when the offset changes.
+   * @see #removeOnOffsetDeltaChangedListener(OnOffsetDeltaChangedListener)
+   */
+  public void addOnOffsetDeltaChangedListener(@NonNull OnOffsetDeltaChangedListener listener) {
+    if (deltaListeners == null) {
+      deltaListeners = new ArrayList<>();
+    }
+    if (!deltaListeners.contains(listener)) {
+      deltaListeners.add(listener);
+    }
+  }
+
+  /**
+   * Remove the previously added {@link OnOffsetDeltaChangedListener}.
+   *
+   * @param listener the listener to remove.
+   */
+  public void removeOnOffsetDeltaChangedListener(@NonNull OnOffsetDeltaChangedListener listener) {
+    if (deltaListeners != null) {
+      deltaListeners.remove(listener);
+    }
+  }
+
+  /**
+   * Sets whether offset changes caused by scrolling are delivered to the listeners at most once per
+   * frame.
+   *
+   * <p>A fling can scroll this {@link AppBarLayout} several times per frame, and each offset change
+   * makes listeners such as {@link CollapsingToolbarLayout} move and invalidate their children.
+   * When coalesced, only the latest offset is delivered, just before the frame is drawn. Offset
+   * changes caused by layout are always delivered immediately.
+   *
+   * @param coalesced whether to deliver at most one offset change per frame
+   * @see #isOffsetUpdatesCoalesced()
+   */
+  public void setOffsetUpdatesCoalesced(boolean coalesced) {
+    if (offsetUpdatesCoalesced == coalesced) {
+      return;
+    }
+    offsetUpdatesCoalesced = coalesced;
+    if (ViewCompat.isAttachedToWindow(this)) {
+      if (coalesced) {
+        getViewTreeObserver().addOnPreDrawListener(pendingOffsetUpdateDispatcher);
+      } else {
+        getViewTreeObserver().removeOnPreDrawListener(pendingOffsetUpdateDispatcher);
+      }
+    }
+    if (!coalesced) {
+      dispatchPendingOffsetUpdate();
+    }
+  }
+
+  /**
+   * Returns whether offset changes caused by scrolling are delivered at most once per frame.
+   *
+   * @see #setOffsetUpdatesCoalesced(boolean)
+   */
+  public boolean isOffsetUpdatesCoalesced() {
+    return offsetUpdatesCoalesced;
+  }
+
   @Override
   protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
     super.onMeasure(widthMeasureSpec, heightMeasureSpec);
@@ -323,6 +430,7 @@ public class AppBarLayout extends LinearLayout {
     totalScrollRange = INVALID_SCROLL_RANGE;
     downPreScrollRange = INVALID_SCROLL_RANGE;
     downScrollRange = INVALID_SCROLL_RANGE;
+    childOffsetIndex.invalidate();
   }
 
   @Override
@@ -397,17 +505,37 @@ public class AppBarLayout extends LinearLayout {
     return new LayoutParams(p);
   }
 
+  @Override
+  protected void onAttachedToWindow() {
+    super.onAttachedToWindow();
+
+    if (offsetUpdatesCoalesced) {
+      getViewTreeObserver().addOnPreDrawListener(pendingOffsetUpdateDispatcher);
+    }
+  }
+
   @Override
   protected void onDetachedFromWindow() {
     super.onDetachedFromWindow();
 
     clearLiftOnScrollTargetView();
+    if (offsetUpdatesCoalesced) {
+      getViewTreeObserver().removeOnPreDrawListener(pendingOffsetUpdateDispatcher);
+      // No more frames will be drawn, so don't leave the listeners behind.
+      dispatchPendingOffsetUpdate();
+    }
   }
 
   boolean hasChildWithInterpolator() {
     return haveChildWithInterpolator;
   }
 
+  /** Returns the positions and scroll attributes of the children, as of the last layout. */
+  ChildOffsetIndex getChildOffsetIndex() {
+    childOffsetIndex.update(this);
+    return childOffsetIndex;
+  }
+
   /**
    * Returns the scroll range of all children.
    *
@@ -527,7 +655,29 @@ public class AppBarLayout extends LinearLayout {
     return downScrollRange = Math.max(0, range);
   }
 
+  /**
+   * Dispatches an offset change caused by scrolling, which is held back until the next frame is
+   * drawn if offset updates are coalesced.
+   */
+  void postOffsetUpdates(int offset) {
+    if (offsetUpdatesCoalesced && ViewCompat.isAttachedToWindow(this)) {
+      pendingOffset = offset;
+      offsetUpdatePending = true;
+    } else {
+      dispatchOffsetUpdates(offset);
+    }
+  }
+
+  private void dispatchPendingOffsetUpdate() {
+    if (offsetUpdatePending) {
+      dispatchOffsetUpdates(pendingOffset);
+    }
+  }
+
   void dispatchOffsetUpdates(int offset) {
+    // This supersedes any offset which is waiting for the next frame.
+    offsetUpdatePending = false;
+
     // Iterate backwards through the list so that most recently added listeners
     // get the first chance to decide
     if (listeners != null) {
@@ -538,6 +688,24 @@ public class AppBarLayout extends LinearLayout {
         }
       }
     }
+
+    int offsetDelta = offset - lastDispatchedOffset;
+    long now = SystemClock.uptimeMillis();
+    long elapsed = now - lastDispatchTime;
+    if (elapsed > MAX_VELOCITY_INTERVAL_MS) {
+      lastVelocity = 0;
+    } else if (elapsed > 0) {
+      lastVelocity = offsetDelta * 1000f / elapsed;
+    }
+    // Else several updates arrived within the same millisecond, so keep the last velocity.
+    lastDispatchedOffset = offset;
+    lastDispatchTime = now;
+
+    if (deltaListeners != null) {
+      for (int i = 0, z = deltaListeners.size(); i < z; i++) {
+        deltaListeners.get(i).onOffsetDeltaChanged(this, offset, offsetDelta, lastVelocity);
+      }
+    }
   }
 
   public final int getMinimumHeightForVisibleOverlappingContent() {
@@ -1350,7 +1518,7 @@ public class AppBarLayout extends LinearLayout {
         if (curOffset != newOffset) {
           final int interpolatedOffset =
               appBarLayout.hasChildWithInterpolator()
-                  ? interpolateOffset(appBarLayout, newOffset)
+                  ? appBarLayout.getChildOffsetIndex().interpolateOffset(newOffset)
                   : newOffset;
 
           final boolean offsetChanged = setTopAndBottomOffset(interpolatedOffset);
@@ -1369,7 +1537,7 @@ public class AppBarLayout extends LinearLayout {
           }
 
           // Dispatch the updates to any listeners
-          appBarLayout.dispatchOffsetUpdates(getTopAndBottomOffset());
+          appBarLayout.postOffsetUpdates(getTopAndBottomOffset());
 
           // Update the AppBarLayout's drawable state (for any elevation changes)
           updateAppBarLayoutDrawableState(
@@ -1392,68 +1560,21 @@ public class AppBarLayout extends LinearLayout {
       return offsetAnimator != null && offsetAnimator.isRunning();
     }
 
-    private int interpolateOffset(T layout, final int offset) {
-      final int absOffset = Math.abs(offset);
-
-      for (int i = 0, z = layout.getChildCount(); i < z; i++) {
-        final View child = layout.getChildAt(i);
-        final AppBarLayout.LayoutParams childLp = (LayoutParams) child.getLayoutParams();
-        final Interpolator interpolator = childLp.getScrollInterpolator();
-
-        if (absOffset >= child.getTop() && absOffset <= child.getBottom()) {
-          if (interpolator != null) {
-            int childScrollableHeight = 0;
-            final int flags = childLp.getScrollFlags();
-            if ((flags & LayoutParams.SCROLL_FLAG_SCROLL) != 0) {
-              // We're set to scroll so add the child's height plus margin
-              childScrollableHeight += child.getHeight() + childLp.topMargin + childLp.bottomMargin;
-
-              if ((flags & LayoutParams.SCROLL_FLAG_EXIT_UNTIL_COLLAPSED) != 0) {
-                // For a collapsing scroll, we to take the collapsed height
-                // into account.
-                childScrollableHeight -= ViewCompat.getMinimumHeight(child);
-              }
-            }
-
-            if (ViewCompat.getFitsSystemWindows(child)) {
-              childScrollableHeight -= layout.getTopInset();
-            }
-
-            if (childScrollableHeight > 0) {
-              final int offsetForView = absOffset - child.getTop();
-              final int interpolatedDiff =
-                  Math.round(
-                      childScrollableHeight
-                          * interpolator.getInterpolation(
-                              offsetForView / (float) childScrollableHeight));
-
-              return Integer.signum(offset) * (child.getTop() + interpolatedDiff);
-            }
-          }
-
-          // If we get to here then the view on the offset isn't suitable for interpolated
-          // scrolling. So break out of the loop
-          break;
-        }
-      }
-
-      return offset;
-    }
-
     private void updateAppBarLayoutDrawableState(
         final CoordinatorLayout parent,
         final T layout,
         final int offset,
         final int direction,
         final boolean forceJump) {
-      final View child = getAppBarChildOnOffset(layout, offset);
-      if (child != null) {
-        final AppBarLayout.LayoutParams childLp = (LayoutParams) child.getLayoutParams();
-        final int flags = childLp.getScrollFlags();
+      final ChildOffsetIndex childOffsetIndex = layout.getChildOffsetIndex();
+      final int childIndex = childOffsetIndex.indexOfChildOnOffset(Math.abs(offset));
+      if (childIndex >= 0) {
+        final int flags = childOffsetIndex.getScrollFlags(childIndex);
+        final int childBottom = childOffsetIndex.getBottom(childIndex);
         boolean lifted = false;
 
         if ((flags & LayoutParams.SCROLL_FLAG_SCROLL) != 0) {
-          final int minHeight = ViewCompat.getMinimumHeight(child);
+          final int minHeight = childOffsetIndex.getMinimumHeight(childIndex);
 
           if (direction > 0
               && (flags
@@ -1462,11 +1583,11 @@ public class AppBarLayout extends LinearLayout {
                   != 0) {
             // We're set to enter always collapsed so we are only collapsed when
             // being scrolled down, and in a collapsed offset
-            lifted = -offset >= child.getBottom() - minHeight - layout.getTopInset();
+            lifted = -offset >= childBottom - minHeight - layout.getTopInset();
           } else if ((flags & LayoutParams.SCROLL_FLAG_EXIT_UNTIL_COLLAPSED) != 0) {
             // We're set to exit until collapsed, so any offset which results in
             // the minimum height (or less) being shown is collapsed
-            lifted = -offset >= child.getBottom() - minHeight - layout.getTopInset();
+            lifted = -offset >= childBottom - minHeight - layout.getTopInset();
           }
         }
 
@@ -1504,17 +1625,6 @@ public class AppBarLayout extends LinearLayout {
       return false;
     }
 
-    private static View getAppBarChildOnOffset(final AppBarLayout layout, final int offset) {
-      final int absOffset = Math.abs(offset);
-      for (int i = 0, z = layout.getChildCount(); i < z; i++) {
-        final View child = layout.getChildAt(i);
-        if (absOffset >= child.getTop() && absOffset <= child.getBottom()) {
-          return child;
-        }
-      }
-      return null;
-    }
-
     @Nullable
     private View findFirstScrollingChild(CoordinatorLayout parent) {
       for (int i = 0, z = parent.getChildCount(); i < z; i++) {
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.appbar;
+
+import androidx.core.view.ViewCompat;
+import android.view.View;
+import android.view.animation.Interpolator;
+import com.google.android.material.appbar.AppBarLayout.LayoutParams;
+import java.util.Arrays;
+
+/**
+ * The positions and scroll attributes of the children of an {@link AppBarLayout}, captured once
+ * per layout.
+ *
+ * <p>{@link AppBarLayout.BaseBehavior} looks up the child on the current offset, and interpolates
+ * the offset, on every scroll event. With this index the lookup is a binary search, and the layout
+ * params, scroll flags and minimum height of the children aren't read again until the next layout.
+ */
+final class ChildOffsetIndex {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private int childCount;
+  private int[] tops = new int[INITIAL_CAPACITY];
+  private int[] bottoms = new int[INITIAL_CAPACITY];
+  private int[] scrollFlags = new int[INITIAL_CAPACITY];
+  private int[] minimumHeights = new int[INITIAL_CAPACITY];
+  private int[] scrollableHeights = new int[INITIAL_CAPACITY];
+  private Interpolator[] interpolators = new Interpolator[INITIAL_CAPACITY];
+
+  // Whether the children are ordered by both their tops and their bottoms, which is the case unless
+  // a child has been hidden and kept its stale position.
+  private boolean sorted;
+  private boolean valid;
+
+  /** Drops the captured positions, so that they're captured again on the next lookup. */
+  void invalidate() {
+    valid = false;
+  }
+
+  /** Captures the positions of the children of {@code layout}, unless they're still valid. */
+  void update(AppBarLayout layout) {
+    if (valid) {
+      return;
+    }
+    valid = true;
+
+    int count = layout.getChildCount();
+    ensureCapacity(count);
+    if (count < childCount) {
+      // Don't keep the interpolators of removed children alive.
+      Arrays.fill(interpolators, count, childCount, null);
+    }
+    childCount = count;
+
+    int topInset = layout.getTopInset();
+    sorted = true;
+    for (int i = 0; i < count; i++) {
+      View child = layout.getChildAt(i);
+      LayoutParams childLp = (LayoutParams) child.getLayoutParams();
+      int flags = childLp.getScrollFlags();
+      int minimumHeight = ViewCompat.getMinimumHeight(child);
+
+      int scrollableHeight = 0;
+      if ((flags & LayoutParams.SCROLL_FLAG_SCROLL) != 0) {
+        // We're set to scroll so add the child's height plus margin
+        scrollableHeight += child.getHeight() + childLp.topMargin + childLp.bottomMargin;
+
+        if ((flags & LayoutParams.SCROLL_FLAG_EXIT_UNTIL_COLLAPSED) != 0) {
+          // For a collapsing scroll, we to take the collapsed height into account.
+          scrollableHeight -= minimumHeight;
+        }
+      }
+      if (ViewCompat.getFitsSystemWindows(child)) {
+        scrollableHeight -= topInset;
+      }
+
+      tops[i] = child.getTop();
+      bottoms[i] = child.getBottom();
+      scrollFlags[i] = flags;
+      minimumHeights[i] = minimumHeight;
+      scrollableHeights[i] = scrollableHeight;
+      interpolators[i] = childLp.getScrollInterpolator();
+
+      if (i > 0 && (tops[i] < tops[i - 1] || bottoms[i] < bottoms[i - 1])) {
+        sorted = false;
+      }
+    }
+  }
+
+  /**
+   * Returns the index of the first child which contains {@code absOffset} between its top and its
+   * bottom, or -1 if there isn't one.
+   */
+  int indexOfChildOnOffset(int absOffset) {
+    if (!sorted) {
+      for (int i = 0; i < childCount; i++) {
+        if (absOffset >= tops[i] && absOffset <= bottoms[i]) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    // Find the first child whose bottom isn't above the offset. No child before it contains the
+    // offset, and if it doesn't either then neither do the children after it.
+    int low = 0;
+    int high = childCount;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (bottoms[middle] < absOffset) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low < childCount && tops[low] <= absOffset ? low : -1;
+  }
+
+  /** Returns the offset, interpolated by the scroll interpolator of the child on the offset. */
+  int interpolateOffset(int offset) {
+    int absOffset = Math.abs(offset);
+    int index = indexOfChildOnOffset(absOffset);
+    if (index < 0) {
+      return offset;
+    }
+
+    Interpolator interpolator = interpolators[index];
+    int scrollableHeight = scrollableHeights[index];
+    if (interpolator == null || scrollableHeight <= 0) {
+      // The view on the offset isn't suitable for interpolated scrolling.
+      return offset;
+    }
+
+    int offsetForView = absOffset - tops[index];
+    float fraction = offsetForView / (float) scrollableHeight;
+    int interpolatedDiff = Math.round(scrollableHeight * interpolator.getInterpolation(fraction));
+    return Integer.signum(offset) * (tops[index] + interpolatedDiff);
+  }
+
+  int getBottom(int index) {
+    return bottoms[index];
+  }
+
+  int getScrollFlags(int index) {
+    return scrollFlags[index];
+  }
+
+  int getMinimumHeight(int index) {
+    return minimumHeights[index];
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= tops.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, tops.length * 2);
+    tops = Arrays.copyOf(tops, newCapacity);
+    bottoms = Arrays.copyOf(bottoms, newCapacity);
+    scrollFlags = Arrays.copyOf(scrollFlags, newCapacity);
+    minimumHeights = Arrays.copyOf(minimumHeights, newCapacity);
+    scrollableHeights = Arrays.copyOf(scrollableHeights, newCapacity);
+    interpolators = Arrays.copyOf(interpolators, newCapacity);
+  }
+}
@@ -572,6 +572,28 @@ public class CollapsingToolbarLayout extends FrameLayout {
     return collapsingTitleEnabled;
   }
 
+  /**
+   * Sets whether the expanded and collapsed title are each drawn once into a cached bitmap layer.
+   *
+   * <p>When cached, scrolling scales and cross-fades the two layers instead of drawing the title at
+   * every size in between, which avoids shaping text on every frame of a fling. The layers are drawn
+   * again only when the title, its text appearance or the space available to it changes.
+   *
+   * @see #isTitleLayersCached()
+   */
+  public void setTitleLayersCached(boolean cached) {
+    collapsingTextHelper.setTextLayersCached(cached);
+  }
+
+  /**
+   * Returns whether the expanded and collapsed title are drawn from cached bitmap layers.
+   *
+   * @see #setTitleLayersCached(boolean)
+   */
+  public boolean isTitleLayersCached() {
+    return collapsingTextHelper.isTextLayersCached();
+  }
+
   /**
    * Set whether the content scrim and/or status bar scrim should be shown or not. Any change in the
    * vertical scroll may overwrite this value. Any visibility change will be animated if this view
@@ -28,6 +28,7 @@ import android.content.res.TypedArray;
 import android.os.Build;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -53,7 +54,9 @@ import android.view.accessibility.AccessibilityEvent;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -86,6 +89,23 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     public abstract void onSlide(@NonNull View bottomSheet, float slideOffset);
   }
 
+  /**
+   * Listener for changes to the state of a bottom sheet. Unlike a {@link BottomSheetCallback}, it
+   * isn't called while the bottom sheet slides.
+   */
+  public interface OnStateChangedListener {
+
+    /**
+     * Called when the bottom sheet changes its state.
+     *
+     * @param bottomSheet The bottom sheet view.
+     * @param newState The new state. This will be one of {@link #STATE_DRAGGING}, {@link
+     *     #STATE_SETTLING}, {@link #STATE_EXPANDED}, {@link #STATE_COLLAPSED}, {@link
+     *     #STATE_HIDDEN}, or {@link #STATE_HALF_EXPANDED}.
+     */
+    void onStateChanged(@NonNull View bottomSheet, @State int newState);
+  }
+
   /** The bottom sheet is dragging. */
   public static final int STATE_DRAGGING = 1;
 
@@ -131,6 +151,8 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
 
   private static final int CORNER_ANIMATION_DURATION = 500;
 
+  private static final int NO_ANCHOR_OFFSET = -1;
+
   private boolean fitToContents = true;
 
   private float maximumVelocity;
@@ -165,6 +187,20 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
 
   int collapsedOffset;
 
+  @Nullable private int[] anchorOffsets;
+
+  /**
+   * The anchor offset the sheet rests at while it is half expanded, or {@link #NO_ANCHOR_OFFSET}
+   * if it rests at {@link #halfExpandedOffset}.
+   */
+  int settledAnchorOffset = NO_ANCHOR_OFFSET;
+
+  private final SnapTargets snapTargets = new SnapTargets();
+
+  private boolean snapTargetsValid;
+
+  @Nullable private SettleRunnable settleRunnable;
+
   boolean hideable;
 
   private boolean skipCollapsed;
@@ -187,6 +223,29 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
 
   private BottomSheetCallback callback;
 
+  @Nullable private List<OnStateChangedListener> stateChangedListeners;
+
+  private boolean slideCallbacksCoalesced;
+
+  private long slideCallbackMinInterval;
+
+  private boolean slideCallbackPending;
+
+  private boolean slideCallbackPosted;
+
+  private int pendingSlideTop;
+
+  private long lastSlideCallbackTime;
+
+  private final Runnable pendingSlideCallbackDispatcher =
+      new Runnable() {
+        @Override
+        public void run() {
+          slideCallbackPosted = false;
+          dispatchPendingSlideWhenDue();
+        }
+      };
+
   private VelocityTracker velocityTracker;
 
   int activePointerId;
@@ -234,7 +293,7 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
 
   @Override
   public Parcelable onSaveInstanceState(CoordinatorLayout parent, V child) {
-    return new SavedState(super.onSaveInstanceState(parent, child), state);
+    return new SavedState(super.onSaveInstanceState(parent, child), state, settledAnchorOffset);
   }
 
   @Override
@@ -247,6 +306,7 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     } else {
       this.state = ss.state;
     }
+    settledAnchorOffset = this.state == STATE_HALF_EXPANDED ? ss.anchorOffset : NO_ANCHOR_OFFSET;
   }
 
   @Override
@@ -283,7 +343,7 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     if (state == STATE_EXPANDED) {
       ViewCompat.offsetTopAndBottom(child, getExpandedOffset());
     } else if (state == STATE_HALF_EXPANDED) {
-      ViewCompat.offsetTopAndBottom(child, halfExpandedOffset);
+      ViewCompat.offsetTopAndBottom(child, getHalfExpandedRestingOffset());
     } else if (hideable && state == STATE_HIDDEN) {
       ViewCompat.offsetTopAndBottom(child, parentHeight);
     } else if (state == STATE_COLLAPSED) {
@@ -468,48 +528,19 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     }
     int top;
     int targetState;
-    if (lastNestedScrollDy > 0) {
-      top = getExpandedOffset();
-      targetState = STATE_EXPANDED;
-    } else if (hideable && shouldHide(child, getYVelocity())) {
+    if (lastNestedScrollDy <= 0 && hideable && shouldHide(child, getYVelocity())) {
       top = parentHeight;
       targetState = STATE_HIDDEN;
-    } else if (lastNestedScrollDy == 0) {
-      int currentTop = child.getTop();
-      if (fitToContents) {
-        if (Math.abs(currentTop - fitToContentsOffset) < Math.abs(currentTop - collapsedOffset)) {
-          top = fitToContentsOffset;
-          targetState = STATE_EXPANDED;
-        } else {
-          top = collapsedOffset;
-          targetState = STATE_COLLAPSED;
-        }
-      } else {
-        if (currentTop < halfExpandedOffset) {
-          if (currentTop < Math.abs(currentTop - collapsedOffset)) {
-            top = 0;
-            targetState = STATE_EXPANDED;
-          } else {
-            top = halfExpandedOffset;
-            targetState = STATE_HALF_EXPANDED;
-          }
-        } else {
-          if (Math.abs(currentTop - halfExpandedOffset) < Math.abs(currentTop - collapsedOffset)) {
-            top = halfExpandedOffset;
-            targetState = STATE_HALF_EXPANDED;
-          } else {
-            top = collapsedOffset;
-            targetState = STATE_COLLAPSED;
-          }
-        }
-      }
     } else {
-      top = collapsedOffset;
-      targetState = STATE_COLLAPSED;
+      // A positive dy scrolls the sheet up.
+      int index = findSettleTarget(child.getTop(), -lastNestedScrollDy, getYVelocity());
+      top = snapTargets.getOffset(index);
+      targetState = snapTargets.getState(index);
     }
+    updateSettledAnchorOffset(top, targetState);
     if (viewDragHelper.smoothSlideViewTo(child, child.getLeft(), top)) {
       setStateInternal(STATE_SETTLING);
-      ViewCompat.postOnAnimation(child, new SettleRunnable(child, targetState));
+      continueSettlingToState(child, targetState);
     } else {
       setStateInternal(targetState);
     }
@@ -559,6 +590,7 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     if (viewRef != null) {
       calculateCollapsedOffset();
     }
+    snapTargetsValid = false;
     // Fix incorrect expanded settings depending on whether or not we are fitting sheet to contents.
     setStateInternal((this.fitToContents && state == STATE_HALF_EXPANDED) ? STATE_EXPANDED : state);
   }
@@ -594,6 +626,7 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
       peekHeightAuto = false;
       this.peekHeight = Math.max(0, peekHeight);
       collapsedOffset = parentHeight - peekHeight;
+      snapTargetsValid = false;
       layout = true;
     }
     if (layout && state == STATE_COLLAPSED && viewRef != null) {
@@ -619,6 +652,35 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     return peekHeightAuto ? PEEK_HEIGHT_AUTO : peekHeight;
   }
 
+  /**
+   * Sets additional offsets at which this bottom sheet can come to rest after it's dragged or
+   * flung, besides its expanded, half-expanded and collapsed offsets.
+   *
+   * <p>Each offset is in pixels from the top of the parent. Offsets which aren't between the
+   * expanded and the collapsed offset are ignored. While the sheet rests at one of these offsets,
+   * its state is {@link #STATE_HALF_EXPANDED}.
+   *
+   * @param anchorOffsets the offsets, or {@code null} to remove any previously set
+   */
+  public void setAnchorOffsets(@Nullable int... anchorOffsets) {
+    this.anchorOffsets = anchorOffsets != null ? anchorOffsets.clone() : null;
+    if (!isAnchorOffset(settledAnchorOffset)) {
+      settledAnchorOffset = NO_ANCHOR_OFFSET;
+    }
+    snapTargetsValid = false;
+  }
+
+  /**
+   * Gets the additional offsets at which this bottom sheet can come to rest.
+   *
+   * @return the offsets set with {@link #setAnchorOffsets(int...)}, or {@code null} if none are
+   *     set.
+   */
+  @Nullable
+  public int[] getAnchorOffsets() {
+    return anchorOffsets != null ? anchorOffsets.clone() : null;
+  }
+
   /**
    * Sets whether this bottom sheet can hide when it is swiped down.
    *
@@ -670,6 +732,89 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     this.callback = callback;
   }
 
+  /**
+   * Adds a listener to be notified when the state of the bottom sheet changes, without being
+   * notified while it slides.
+   *
+   * @param listener The listener to notify when the state changes.
+   * @see #removeOnStateChangedListener(OnStateChangedListener)
+   */
+  public void addOnStateChangedListener(@NonNull OnStateChangedListener listener) {
+    if (stateChangedListeners == null) {
+      stateChangedListeners = new ArrayList<>();
+    }
+    if (!stateChangedListeners.contains(listener)) {
+      stateChangedListeners.add(listener);
+    }
+  }
+
+  /**
+   * Removes a listener previously added with {@link
+   * #addOnStateChangedListener(OnStateChangedListener)}.
+   *
+   * @param listener The listener to remove.
+   */
+  public void removeOnStateChangedListener(@NonNull OnStateChangedListener listener) {
+    if (stateChangedListeners != null) {
+      stateChangedListeners.remove(listener);
+    }
+  }
+
+  /**
+   * Sets whether {@link BottomSheetCallback#onSlide(View, float)} is called at most once per frame.
+   *
+   * <p>A drag can move the bottom sheet several times per frame. When coalesced, the callback is
+   * only called with the latest offset, once per frame. The latest offset is always delivered
+   * before the bottom sheet comes to rest.
+   *
+   * @param coalesced Whether to call the callback at most once per frame.
+   * @see #setSlideCallbackMinInterval(long)
+   */
+  public void setSlideCallbacksCoalesced(boolean coalesced) {
+    slideCallbacksCoalesced = coalesced;
+    if (!isSlideCallbackDeferred()) {
+      dispatchPendingSlide();
+    }
+  }
+
+  /**
+   * Returns whether {@link BottomSheetCallback#onSlide(View, float)} is called at most once per
+   * frame.
+   *
+   * @see #setSlideCallbacksCoalesced(boolean)
+   */
+  public boolean isSlideCallbacksCoalesced() {
+    return slideCallbacksCoalesced;
+  }
+
+  /**
+   * Sets the minimum time between two calls of {@link BottomSheetCallback#onSlide(View, float)}.
+   *
+   * <p>Offsets the bottom sheet moves through in the meantime are skipped, and the callback is
+   * called with the latest offset once the interval has passed. The latest offset is always
+   * delivered before the bottom sheet comes to rest. A positive interval coalesces the callbacks
+   * to at most one per frame as well.
+   *
+   * @param intervalMillis The minimum interval in milliseconds, or 0 to not throttle the callback.
+   * @see #setSlideCallbacksCoalesced(boolean)
+   */
+  public void setSlideCallbackMinInterval(long intervalMillis) {
+    slideCallbackMinInterval = Math.max(0, intervalMillis);
+    if (!isSlideCallbackDeferred()) {
+      dispatchPendingSlide();
+    }
+  }
+
+  /**
+   * Returns the minimum time between two calls of {@link BottomSheetCallback#onSlide(View, float)}
+   * in milliseconds.
+   *
+   * @see #setSlideCallbackMinInterval(long)
+   */
+  public long getSlideCallbackMinInterval() {
+    return slideCallbackMinInterval;
+  }
+
   /**
    * Sets the state of the bottom sheet. The bottom sheet will transition to that state with
    * animation.
@@ -755,10 +900,20 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
         bottomSheet, ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_YES);
     bottomSheet.sendAccessibilityEvent(AccessibilityEvent.TYPE_WINDOW_STATE_CHANGED);
 
+    if (state != STATE_DRAGGING && state != STATE_SETTLING) {
+      // Deliver where the sheet came to rest before announcing it.
+      dispatchPendingSlide();
+    }
+
     updateDrawableOnStateChange(state, previousState);
     if (callback != null) {
       callback.onStateChanged(bottomSheet, state);
     }
+    if (stateChangedListeners != null) {
+      for (int i = 0; i < stateChangedListeners.size(); i++) {
+        stateChangedListeners.get(i).onStateChanged(bottomSheet, state);
+      }
+    }
   }
 
   private void updateDrawableOnStateChange(@State int state, @State int previousState) {
@@ -785,6 +940,94 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     } else {
       collapsedOffset = parentHeight - lastPeekHeight;
     }
+    snapTargetsValid = false;
+  }
+
+  /** Returns the offsets at which the sheet can come to rest, other than hidden. */
+  @VisibleForTesting
+  SnapTargets getSnapTargets() {
+    if (!snapTargetsValid) {
+      snapTargetsValid = true;
+      snapTargets.clear();
+      // The first target added at an offset wins, so the expanded state is preferred when the
+      // sheet's contents are too short for it to collapse.
+      int expandedOffset = getExpandedOffset();
+      snapTargets.add(expandedOffset, STATE_EXPANDED);
+      if (!fitToContents) {
+        snapTargets.add(halfExpandedOffset, STATE_HALF_EXPANDED);
+      }
+      snapTargets.add(collapsedOffset, STATE_COLLAPSED);
+      if (anchorOffsets != null) {
+        for (int anchorOffset : anchorOffsets) {
+          if (anchorOffset > expandedOffset && anchorOffset < collapsedOffset) {
+            snapTargets.add(anchorOffset, STATE_HALF_EXPANDED);
+          }
+        }
+      }
+    }
+    return snapTargets;
+  }
+
+  private boolean isAnchorOffset(int offset) {
+    if (anchorOffsets == null || offset == NO_ANCHOR_OFFSET) {
+      return false;
+    }
+    for (int anchorOffset : anchorOffsets) {
+      if (anchorOffset == offset) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the offset at which the sheet rests while half expanded: the anchor offset it last
+   * settled at, as long as that is still a valid target, or else {@link #halfExpandedOffset}.
+   */
+  private int getHalfExpandedRestingOffset() {
+    if (settledAnchorOffset != NO_ANCHOR_OFFSET
+        && settledAnchorOffset > getExpandedOffset()
+        && settledAnchorOffset < collapsedOffset) {
+      return settledAnchorOffset;
+    }
+    return halfExpandedOffset;
+  }
+
+  /**
+   * Returns the index in {@link #getSnapTargets()} of the offset which a sheet released at {@code
+   * top} settles to.
+   *
+   * @param direction negative if the sheet was moving up, positive if it was moving down, or 0 if
+   *     it should settle to the nearest offset
+   * @param yvel the vertical velocity of the sheet when it was released, in pixels per second
+   */
+  private int findSettleTarget(int top, int direction, float yvel) {
+    // Project where the fling would carry the sheet, with the same friction which decides whether
+    // it hides.
+    float projectedTop = top + yvel * HIDE_FRICTION;
+    return getSnapTargets().indexOfSettleTarget(top, Integer.signum(direction), projectedTop);
+  }
+
+  /** Remembers whether a sheet settling to {@code top} will rest at one of its anchor offsets. */
+  private void updateSettledAnchorOffset(int top, @State int targetState) {
+    settledAnchorOffset =
+        targetState == STATE_HALF_EXPANDED && isAnchorOffset(top) ? top : NO_ANCHOR_OFFSET;
+  }
+
+  /**
+   * Keeps moving {@code child} every frame until the {@link ViewDragHelper} has settled it, then
+   * changes to {@code targetState}.
+   */
+  private void continueSettlingToState(View child, @State int targetState) {
+    if (settleRunnable == null) {
+      settleRunnable = new SettleRunnable();
+    }
+    settleRunnable.targetState = targetState;
+    settleRunnable.view = child;
+    if (!settleRunnable.isPosted) {
+      settleRunnable.isPosted = true;
+      ViewCompat.postOnAnimation(child, settleRunnable);
+    }
   }
 
   private void reset() {
@@ -879,6 +1122,8 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
   }
 
   void startSettlingAnimation(View child, int state) {
+    // Requested states always rest at their own offset, rather than at an anchor.
+    settledAnchorOffset = NO_ANCHOR_OFFSET;
     int top;
     if (state == STATE_COLLAPSED) {
       top = collapsedOffset;
@@ -898,7 +1143,7 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     }
     if (viewDragHelper.smoothSlideViewTo(child, child.getLeft(), top)) {
       setStateInternal(STATE_SETTLING);
-      ViewCompat.postOnAnimation(child, new SettleRunnable(child, state));
+      continueSettlingToState(child, state);
     } else {
       setStateInternal(state);
     }
@@ -942,71 +1187,31 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
         public void onViewReleased(@NonNull View releasedChild, float xvel, float yvel) {
           int top;
           @State int targetState;
-          if (yvel < 0) { // Moving up
-            if (fitToContents) {
-              top = fitToContentsOffset;
-              targetState = STATE_EXPANDED;
-            } else {
-              int currentTop = releasedChild.getTop();
-              if (currentTop > halfExpandedOffset) {
-                top = halfExpandedOffset;
-                targetState = STATE_HALF_EXPANDED;
-              } else {
-                top = 0;
-                targetState = STATE_EXPANDED;
-              }
-            }
-          } else if (hideable
+          if (yvel >= 0
+              && hideable
               && shouldHide(releasedChild, yvel)
               && (releasedChild.getTop() > collapsedOffset || Math.abs(xvel) < Math.abs(yvel))) {
             // Hide if we shouldn't collapse and the view was either released low or it was a
             // vertical swipe.
             top = parentHeight;
             targetState = STATE_HIDDEN;
-          } else if (yvel == 0.f || Math.abs(xvel) > Math.abs(yvel)) {
-            // If the Y velocity is 0 or the swipe was mostly horizontal indicated by the X velocity
-            // being greater than the Y velocity, settle to the nearest correct height.
-            int currentTop = releasedChild.getTop();
-            if (fitToContents) {
-              if (Math.abs(currentTop - fitToContentsOffset)
-                  < Math.abs(currentTop - collapsedOffset)) {
-                top = fitToContentsOffset;
-                targetState = STATE_EXPANDED;
-              } else {
-                top = collapsedOffset;
-                targetState = STATE_COLLAPSED;
-              }
-            } else {
-              if (currentTop < halfExpandedOffset) {
-                if (currentTop < Math.abs(currentTop - collapsedOffset)) {
-                  top = 0;
-                  targetState = STATE_EXPANDED;
-                } else {
-                  top = halfExpandedOffset;
-                  targetState = STATE_HALF_EXPANDED;
-                }
-              } else {
-                if (Math.abs(currentTop - halfExpandedOffset)
-                    < Math.abs(currentTop - collapsedOffset)) {
-                  top = halfExpandedOffset;
-                  targetState = STATE_HALF_EXPANDED;
-                } else {
-                  top = collapsedOffset;
-                  targetState = STATE_COLLAPSED;
-                }
-              }
-            }
           } else {
-            top = collapsedOffset;
-            targetState = STATE_COLLAPSED;
+            // If the Y velocity is 0 or the swipe was mostly horizontal indicated by the X velocity
+            // being greater than the Y velocity, settle to the nearest correct height. A sheet
+            // moving up always keeps moving up, however horizontal the swipe.
+            int direction =
+                yvel >= 0 && Math.abs(xvel) > Math.abs(yvel) ? 0 : (int) Math.signum(yvel);
+            int index = findSettleTarget(releasedChild.getTop(), direction, yvel);
+            top = snapTargets.getOffset(index);
+            targetState = snapTargets.getState(index);
           }
+          updateSettledAnchorOffset(top, targetState);
           if (viewDragHelper.settleCapturedViewAt(releasedChild.getLeft(), top)) {
             setStateInternal(STATE_SETTLING);
             if (targetState == STATE_EXPANDED && interpolatorAnimator != null) {
               interpolatorAnimator.reverse();
             }
-            ViewCompat.postOnAnimation(
-                releasedChild, new SettleRunnable(releasedChild, targetState));
+            continueSettlingToState(releasedChild, targetState);
           } else {
             if (targetState == STATE_EXPANDED && interpolatorAnimator != null) {
               interpolatorAnimator.reverse();
@@ -1038,17 +1243,74 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
 
   void dispatchOnSlide(int top) {
     View bottomSheet = viewRef.get();
-    if (bottomSheet != null && callback != null) {
-      if (top > collapsedOffset) {
-        callback.onSlide(
-            bottomSheet, (float) (collapsedOffset - top) / (parentHeight - collapsedOffset));
-      } else {
-        callback.onSlide(
-            bottomSheet, (float) (collapsedOffset - top) / (collapsedOffset - getExpandedOffset()));
+    if (bottomSheet == null || callback == null) {
+      return;
+    }
+    if (isSlideCallbackDeferred()) {
+      pendingSlideTop = top;
+      slideCallbackPending = true;
+      postPendingSlide(bottomSheet);
+      return;
+    }
+    dispatchSlide(bottomSheet, top);
+  }
+
+  private boolean isSlideCallbackDeferred() {
+    return slideCallbacksCoalesced || slideCallbackMinInterval > 0;
+  }
+
+  /** Posts the pending slide to the next frame, or to when the minimum interval has passed. */
+  private void postPendingSlide(View bottomSheet) {
+    if (slideCallbackPosted) {
+      return;
+    }
+    slideCallbackPosted = true;
+    long delay = lastSlideCallbackTime + slideCallbackMinInterval - SystemClock.uptimeMillis();
+    if (delay > 0) {
+      ViewCompat.postOnAnimationDelayed(bottomSheet, pendingSlideCallbackDispatcher, delay);
+    } else {
+      ViewCompat.postOnAnimation(bottomSheet, pendingSlideCallbackDispatcher);
+    }
+  }
+
+  /** Dispatches the pending slide, unless the minimum interval since the last one hasn't passed. */
+  void dispatchPendingSlideWhenDue() {
+    if (!slideCallbackPending) {
+      return;
+    }
+    if (SystemClock.uptimeMillis() - lastSlideCallbackTime >= slideCallbackMinInterval) {
+      dispatchPendingSlide();
+    } else {
+      View bottomSheet = viewRef != null ? viewRef.get() : null;
+      if (bottomSheet != null) {
+        postPendingSlide(bottomSheet);
       }
     }
   }
 
+  /** Dispatches the pending slide right away. */
+  private void dispatchPendingSlide() {
+    if (!slideCallbackPending) {
+      return;
+    }
+    slideCallbackPending = false;
+    View bottomSheet = viewRef != null ? viewRef.get() : null;
+    if (bottomSheet != null && callback != null) {
+      dispatchSlide(bottomSheet, pendingSlideTop);
+    }
+  }
+
+  private void dispatchSlide(View bottomSheet, int top) {
+    lastSlideCallbackTime = SystemClock.uptimeMillis();
+    if (top > collapsedOffset) {
+      callback.onSlide(
+          bottomSheet, (float) (collapsedOffset - top) / (parentHeight - collapsedOffset));
+    } else {
+      callback.onSlide(
+          bottomSheet, (float) (collapsedOffset - top) / (collapsedOffset - getExpandedOffset()));
+    }
+  }
+
   @VisibleForTesting
   int getPeekHeightMin() {
     return peekHeightMin;
@@ -1056,20 +1318,20 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
 
   private class SettleRunnable implements Runnable {
 
-    private final View view;
+    private View view;
 
-    @State private final int targetState;
+    private boolean isPosted;
 
-    SettleRunnable(View view, @State int targetState) {
-      this.view = view;
-      this.targetState = targetState;
-    }
+    @State int targetState;
 
     @Override
     public void run() {
       if (viewDragHelper != null && viewDragHelper.continueSettling(true)) {
+        // Settling moves the sheet once per frame, so its slide doesn't need to wait for the next.
+        dispatchPendingSlideWhenDue();
         ViewCompat.postOnAnimation(view, this);
       } else {
+        isPosted = false;
         if (state == STATE_SETTLING) {
           setStateInternal(targetState);
         }
@@ -1080,6 +1342,7 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
   /** State persisted across instances */
   protected static class SavedState extends AbsSavedState {
     @State final int state;
+    final int anchorOffset;
 
     public SavedState(Parcel source) {
       this(source, null);
@@ -1089,17 +1352,24 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
       super(source, loader);
       //noinspection ResourceType
       state = source.readInt();
+      anchorOffset = source.readInt();
     }
 
     public SavedState(Parcelable superState, @State int state) {
+      this(superState, state, NO_ANCHOR_OFFSET);
+    }
+
+    SavedState(Parcelable superState, @State int state, int anchorOffset) {
       super(superState);
       this.state = state;
+      this.anchorOffset = anchorOffset;
     }
 
     @Override
     public void writeToParcel(Parcel out, int flags) {
       super.writeToParcel(out, flags);
       out.writeInt(state);
+      out.writeInt(anchorOffset);
     }
 
     public static final Creator<SavedState> CREATOR =
@@ -136,7 +136,7 @@ public class BottomSheetDialog extends AppCompatDialog {
     }
     FrameLayout bottomSheet = (FrameLayout) coordinator.findViewById(R.id.design_bottom_sheet);
     behavior = BottomSheetBehavior.from(bottomSheet);
-    behavior.setBottomSheetCallback(bottomSheetCallback);
+    behavior.addOnStateChangedListener(stateChangedListener);
     behavior.setHideable(cancelable);
     if (params == null) {
       bottomSheet.addView(view);
@@ -217,8 +217,8 @@ public class BottomSheetDialog extends AppCompatDialog {
     return themeId;
   }
 
-  private BottomSheetBehavior.BottomSheetCallback bottomSheetCallback =
-      new BottomSheetBehavior.BottomSheetCallback() {
+  private BottomSheetBehavior.OnStateChangedListener stateChangedListener =
+      new BottomSheetBehavior.OnStateChangedListener() {
         @Override
         public void onStateChanged(
             @NonNull View bottomSheet, @BottomSheetBehavior.State int newState) {
@@ -226,8 +226,5 @@ public class BottomSheetDialog extends AppCompatDialog {
             cancel();
           }
         }
-
-        @Override
-        public void onSlide(@NonNull View bottomSheet, float slideOffset) {}
       };
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.bottomsheet;
+
+import com.google.android.material.bottomsheet.BottomSheetBehavior.State;
+import java.util.Arrays;
+
+/**
+ * The offsets at which a bottom sheet can come to rest, sorted from the top of its parent, along
+ * with the state the sheet is in while resting at each of them.
+ *
+ * <p>{@link BottomSheetBehavior} builds the table once per layout, so that deciding where a
+ * released sheet settles is a lookup instead of a chain of comparisons against each offset.
+ */
+final class SnapTargets {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private int size;
+  private int[] offsets = new int[INITIAL_CAPACITY];
+  private int[] states = new int[INITIAL_CAPACITY];
+
+  void clear() {
+    size = 0;
+  }
+
+  /** Adds a target at {@code offset}, unless there already is one at that offset. */
+  void add(int offset, @State int state) {
+    int index = Arrays.binarySearch(offsets, 0, size, offset);
+    if (index >= 0) {
+      return;
+    }
+    index = -index - 1;
+
+    if (size == offsets.length) {
+      offsets = Arrays.copyOf(offsets, size * 2);
+      states = Arrays.copyOf(states, size * 2);
+    }
+    System.arraycopy(offsets, index, offsets, index + 1, size - index);
+    System.arraycopy(states, index, states, index + 1, size - index);
+    offsets[index] = offset;
+    states[index] = state;
+    size++;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int getOffset(int index) {
+    return offsets[index];
+  }
+
+  @State
+  int getState(int index) {
+    return states[index];
+  }
+
+  /**
+   * Returns the index of the target nearest to {@code offset}. A tie goes to the lower target, the
+   * one further from the top.
+   */
+  int indexOfNearest(float offset) {
+    int index = lowerBound(offset);
+    if (index == 0) {
+      return 0;
+    }
+    if (index == size) {
+      return size - 1;
+    }
+    return offset - offsets[index - 1] < offsets[index] - offset ? index - 1 : index;
+  }
+
+  /**
+   * Returns the index of the target a sheet released at {@code offset} settles to.
+   *
+   * @param offset the offset the sheet was released at
+   * @param direction negative if the sheet was moving up, positive if it was moving down, or 0 if
+   *     it should settle to the nearest target
+   * @param projectedOffset where the sheet's velocity would carry it. The sheet settles to the
+   *     target nearest to it, as long as that target is in the direction the sheet was moving.
+   *     Otherwise the sheet settles to the next target in that direction.
+   */
+  int indexOfSettleTarget(int offset, int direction, float projectedOffset) {
+    if (size == 0) {
+      return -1;
+    }
+    if (direction == 0) {
+      return indexOfNearest(offset);
+    }
+
+    int nearest = indexOfNearest(projectedOffset);
+    if (direction < 0) {
+      // Only the targets above the offset are in the direction of travel.
+      int firstNotAbove = lowerBound(offset);
+      return firstNotAbove == 0 ? 0 : Math.min(nearest, firstNotAbove - 1);
+    } else {
+      // Only the targets below the offset are in the direction of travel.
+      int firstBelow = upperBound(offset);
+      return firstBelow == size ? size - 1 : Math.max(nearest, firstBelow);
+    }
+  }
+
+  /** Returns the index of the first target which isn't above {@code offset}. */
+  private int lowerBound(float offset) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (offsets[middle] < offset) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /** Returns the index of the first target which is below {@code offset}. */
+  private int upperBound(float offset) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (offsets[middle] <= offset) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.chip;
+
+import com.google.android.material.R;
+
+import androidx.annotation.Nullable;
+import androidx.collection.LongSparseArray;
+import androidx.recyclerview.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+import android.widget.CompoundButton;
+import java.util.List;
+
+/**
+ * A {@link RecyclerView.Adapter} of {@link Chip}s, to be used with a {@link ChipFlowLayoutManager}
+ * in place of a {@link ChipGroup} when there are too many chips to hold them all as child views.
+ *
+ * <p>Chips are recycled along with their {@link ChipDrawable}, so {@link #onBindChip(Chip, int)}
+ * should only update what differs between items, such as the text, instead of creating a new
+ * drawable.
+ *
+ * <p>The adapter keeps track of which items are checked, so that chips which are recycled and bound
+ * again show the right state. Items are identified by their {@link #getItemId(int) item ids},
+ * which must be stable. By default, the id of an item is its position, which is only stable as long
+ * as items aren't added, removed or moved.
+ *
+ * <p>When the checked state of a bound chip changes, the item is notified as changed with {@link
+ * #PAYLOAD_CHECKED}, since a checked icon can change the width of the chip and so where lines
+ * break. Binding an item with only that payload just updates the checked state of its chip.
+ *
+ * <p>Like a {@link ChipGroup}, a ChipAdapter supports a multiple-exclusion scope for its chips.
+ * When {@link #setSingleSelection(boolean) single selection} is enabled, checking one chip unchecks
+ * any previously checked chip.
+ */
+public abstract class ChipAdapter extends RecyclerView.Adapter<ChipAdapter.ChipViewHolder> {
+
+  /**
+   * Interface definition for a callback to be invoked when the checked item changed in this
+   * adapter.
+   */
+  public interface OnCheckedChangeListener {
+    /**
+     * Called when the checked item has changed. When the selection is cleared, checkedId is {@link
+     * RecyclerView#NO_ID}.
+     *
+     * @param adapter the adapter in which the checked item has changed
+     * @param checkedId the item id of the newly checked item
+     */
+    public void onCheckedChanged(ChipAdapter adapter, long checkedId);
+  }
+
+  /** A {@link RecyclerView.ViewHolder} for a {@link Chip}. */
+  public static class ChipViewHolder extends RecyclerView.ViewHolder {
+    private final Chip chip;
+    private long boundItemId = RecyclerView.NO_ID;
+
+    public ChipViewHolder(Chip chip) {
+      super(chip);
+      this.chip = chip;
+    }
+
+    /** Returns the chip held by this view holder. */
+    public Chip getChip() {
+      return chip;
+    }
+  }
+
+  /** The payload with which an item is notified as changed when its checked state changes. */
+  public static final Object PAYLOAD_CHECKED = new Object();
+
+  private boolean singleSelection;
+
+  @Nullable private OnCheckedChangeListener onCheckedChangeListener;
+
+  /** The ids of the checked items. Only the keys are used. */
+  private final LongSparseArray<Boolean> checkedIds = new LongSparseArray<>();
+
+  /** The view holders which are bound, by item id, so that their chips can be checked directly. */
+  private final LongSparseArray<ChipViewHolder> boundViewHolders = new LongSparseArray<>();
+
+  private long checkedId = RecyclerView.NO_ID;
+  private boolean protectFromCheckedChange = false;
+
+  public ChipAdapter() {
+    setHasStableIds(true);
+  }
+
+  /**
+   * Creates a chip for a new view holder. By default, this inflates a checkable chip with the
+   * {@code Widget.MaterialComponents.Chip.Choice} style.
+   *
+   * @param parent the view group the chip will be added to
+   * @param viewType the view type of the new chip
+   */
+  protected Chip onCreateChip(ViewGroup parent, int viewType) {
+    return (Chip)
+        LayoutInflater.from(parent.getContext())
+            .inflate(R.layout.mtrl_layout_chip_choice, parent, false);
+  }
+
+  /**
+   * Updates the chip to show the item at {@code position}. The checked state of the chip is updated
+   * right after this is called.
+   *
+   * @param chip the chip to update
+   * @param position the position of the item within the adapter's data set
+   */
+  protected abstract void onBindChip(Chip chip, int position);
+
+  @Override
+  public long getItemId(int position) {
+    return position;
+  }
+
+  @Override
+  public ChipViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+    final ChipViewHolder holder = new ChipViewHolder(onCreateChip(parent, viewType));
+    holder.chip.setOnCheckedChangeListenerInternal(
+        new CompoundButton.OnCheckedChangeListener() {
+          @Override
+          public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
+            onChipCheckedChanged(holder, isChecked);
+          }
+        });
+    return holder;
+  }
+
+  @Override
+  public final void onBindViewHolder(ChipViewHolder holder, int position) {
+    unbind(holder);
+    long id = getItemId(position);
+    holder.boundItemId = id;
+    boundViewHolders.put(id, holder);
+
+    protectFromCheckedChange = true;
+    onBindChip(holder.chip, position);
+    holder.chip.setChecked(isItemChecked(id));
+    protectFromCheckedChange = false;
+  }
+
+  @Override
+  public final void onBindViewHolder(ChipViewHolder holder, int position, List<Object> payloads) {
+    if (!isCheckedStatePayload(payloads) || holder.boundItemId != getItemId(position)) {
+      onBindViewHolder(holder, position);
+      return;
+    }
+
+    // Only the checked state of the item changed.
+    protectFromCheckedChange = true;
+    holder.chip.setChecked(isItemChecked(holder.boundItemId));
+    protectFromCheckedChange = false;
+  }
+
+  private static boolean isCheckedStatePayload(List<Object> payloads) {
+    if (payloads.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < payloads.size(); i++) {
+      if (payloads.get(i) != PAYLOAD_CHECKED) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void onViewRecycled(ChipViewHolder holder) {
+    unbind(holder);
+  }
+
+  private void unbind(ChipViewHolder holder) {
+    if (boundViewHolders.get(holder.boundItemId) == holder) {
+      boundViewHolders.remove(holder.boundItemId);
+    }
+    holder.boundItemId = RecyclerView.NO_ID;
+  }
+
+  /**
+   * Sets the selection to the item whose id is passed in parameter.
+   *
+   * <p>In {@link #isSingleSelection() single selection mode}, checking an item also unchecks all
+   * others.
+   *
+   * @param id the item id of the item to select
+   * @see #getCheckedItemId()
+   * @see #clearCheck()
+   */
+  public void check(long id) {
+    if (id == checkedId) {
+      return;
+    }
+
+    if (checkedId != RecyclerView.NO_ID && singleSelection) {
+      setCheckedStateForItem(checkedId, false);
+    }
+
+    if (id != RecyclerView.NO_ID) {
+      setCheckedStateForItem(id, true);
+    }
+
+    setCheckedId(id);
+  }
+
+  /**
+   * When in {@link #isSingleSelection() single selection mode}, returns the id of the selected
+   * item. Upon empty selection, the returned value is {@link RecyclerView#NO_ID}. If not in single
+   * selection mode, the return value is {@link RecyclerView#NO_ID}.
+   *
+   * @return the item id of the selected item in single selection mode
+   * @see #check(long)
+   * @see #clearCheck()
+   */
+  public long getCheckedItemId() {
+    return singleSelection ? checkedId : RecyclerView.NO_ID;
+  }
+
+  /** Returns whether the item with the given id is checked. */
+  public boolean isItemChecked(long id) {
+    return checkedIds.indexOfKey(id) >= 0;
+  }
+
+  /**
+   * Clears the selection. When the selection is cleared, no item is selected and {@link
+   * #getCheckedItemId()} returns {@link RecyclerView#NO_ID}.
+   *
+   * @see #check(long)
+   * @see #getCheckedItemId()
+   */
+  public void clearCheck() {
+    checkedIds.clear();
+    for (int i = 0; i < boundViewHolders.size(); i++) {
+      setCheckedStateForHolder(boundViewHolders.valueAt(i), false);
+    }
+
+    setCheckedId(RecyclerView.NO_ID);
+  }
+
+  /**
+   * Register a callback to be invoked when the checked item changes in this adapter. This callback
+   * is only invoked in {@link #isSingleSelection() single selection mode}.
+   *
+   * @param listener the callback to call on checked state change
+   */
+  public void setOnCheckedChangeListener(@Nullable OnCheckedChangeListener listener) {
+    onCheckedChangeListener = listener;
+  }
+
+  /** Returns whether this adapter only allows a single item to be checked. */
+  public boolean isSingleSelection() {
+    return singleSelection;
+  }
+
+  /**
+   * Sets whether this adapter only allows a single item to be checked.
+   *
+   * <p>Calling this method results in all the items becoming unchecked.
+   */
+  public void setSingleSelection(boolean singleSelection) {
+    if (this.singleSelection != singleSelection) {
+      this.singleSelection = singleSelection;
+
+      clearCheck();
+    }
+  }
+
+  private void setCheckedId(long checkedId) {
+    this.checkedId = checkedId;
+
+    if (onCheckedChangeListener != null && singleSelection) {
+      onCheckedChangeListener.onCheckedChanged(this, checkedId);
+    }
+  }
+
+  private void setCheckedStateForItem(long id, boolean checked) {
+    if (checked) {
+      checkedIds.put(id, Boolean.TRUE);
+    } else {
+      checkedIds.remove(id);
+    }
+
+    ChipViewHolder holder = boundViewHolders.get(id);
+    if (holder != null) {
+      setCheckedStateForHolder(holder, checked);
+    }
+  }
+
+  private void setCheckedStateForHolder(ChipViewHolder holder, boolean checked) {
+    if (holder.chip.isChecked() == checked) {
+      return;
+    }
+    protectFromCheckedChange = true;
+    holder.chip.setChecked(checked);
+    protectFromCheckedChange = false;
+    notifyCheckedStateChanged(holder);
+  }
+
+  private void notifyCheckedStateChanged(ChipViewHolder holder) {
+    int position = holder.getAdapterPosition();
+    if (position != RecyclerView.NO_POSITION) {
+      notifyItemChanged(position, PAYLOAD_CHECKED);
+    }
+  }
+
+  private void onChipCheckedChanged(ChipViewHolder holder, boolean isChecked) {
+    // prevents from infinite recursion
+    if (protectFromCheckedChange) {
+      return;
+    }
+
+    long id = holder.boundItemId;
+    if (id == RecyclerView.NO_ID) {
+      return;
+    }
+    // The chip changed its checked state itself, and may have changed its width.
+    notifyCheckedStateChanged(holder);
+
+    if (isChecked) {
+      checkedIds.put(id, Boolean.TRUE);
+      if (checkedId != RecyclerView.NO_ID && checkedId != id && singleSelection) {
+        setCheckedStateForItem(checkedId, false);
+      }
+      setCheckedId(id);
+    } else {
+      checkedIds.remove(id);
+      if (checkedId == id) {
+        setCheckedId(RecyclerView.NO_ID);
+      }
+    }
+  }
+}
@@ -62,10 +62,10 @@ import com.google.android.material.drawable.DrawableUtils;
 import com.google.android.material.internal.ThemeEnforcement;
 import com.google.android.material.resources.MaterialResources;
 import com.google.android.material.resources.TextAppearance;
+import com.google.android.material.resources.TextAppearanceCache;
 import com.google.android.material.resources.TextAppearanceFontCallback;
 import com.google.android.material.ripple.RippleUtils;
 import com.google.android.material.shape.MaterialShapeDrawable;
-import com.google.android.material.shape.ShapeAppearanceModel;
 import androidx.core.graphics.ColorUtils;
 import androidx.core.graphics.drawable.DrawableCompat;
 import androidx.core.graphics.drawable.TintAwareDrawable;
@@ -281,6 +281,13 @@ public class ChipDrawable extends MaterialShapeDrawable implements TintAwareDraw
   private boolean textWidthDirty = true;
   private float textWidth;
   private TruncateAt truncateAt;
+  // The text last ellipsized by drawText, re-used until the text, its paint or its bounds change.
+  @Nullable private CharSequence ellipsizedText;
+  @Nullable private CharSequence ellipsizedSourceText;
+  @Nullable private TruncateAt ellipsizedTruncateAt;
+  @Nullable private Typeface ellipsizedTypeface;
+  private float ellipsizedTextSize;
+  private float ellipsizedAvailableWidth;
   private boolean shouldDrawText;
   private int maxWidth;
   private boolean isShapeThemingEnabled;
@@ -737,7 +744,7 @@ public class ChipDrawable extends MaterialShapeDrawable implements TintAwareDraw
 
       CharSequence finalText = text;
       if (clip && truncateAt != null) {
-        finalText = TextUtils.ellipsize(text, textPaint, rectF.width(), truncateAt);
+        finalText = getEllipsizedText(rectF.width());
       }
       canvas.drawText(finalText, 0, finalText.length(), pointF.x, pointF.y, textPaint);
       if (clip) {
@@ -746,6 +753,25 @@ public class ChipDrawable extends MaterialShapeDrawable implements TintAwareDraw
     }
   }
 
+  /** Returns the text ellipsized to {@code availableWidth}, which is memoized across frames. */
+  @SuppressWarnings("ReferenceEquality") // The text is replaced, never modified.
+  private CharSequence getEllipsizedText(float availableWidth) {
+    if (ellipsizedText == null
+        || ellipsizedSourceText != text
+        || ellipsizedTruncateAt != truncateAt
+        || ellipsizedTypeface != textPaint.getTypeface()
+        || ellipsizedTextSize != textPaint.getTextSize()
+        || ellipsizedAvailableWidth != availableWidth) {
+      ellipsizedSourceText = text;
+      ellipsizedTruncateAt = truncateAt;
+      ellipsizedTypeface = textPaint.getTypeface();
+      ellipsizedTextSize = textPaint.getTextSize();
+      ellipsizedAvailableWidth = availableWidth;
+      ellipsizedText = TextUtils.ellipsize(text, textPaint, availableWidth, truncateAt);
+    }
+    return ellipsizedText;
+  }
+
   private void drawCloseIcon(@NonNull Canvas canvas, Rect bounds) {
     if (showsCloseIcon()) {
       calculateCloseIconBounds(bounds, rectF);
@@ -1434,10 +1460,7 @@ public class ChipDrawable extends MaterialShapeDrawable implements TintAwareDraw
   public void setChipCornerRadius(float chipCornerRadius) {
     if (this.chipCornerRadius != chipCornerRadius) {
       this.chipCornerRadius = chipCornerRadius;
-
-      ShapeAppearanceModel shapeAppearanceModel = getShapeAppearanceModel();
-      shapeAppearanceModel.setCornerRadius(chipCornerRadius);
-      invalidateSelf();
+      setCornerRadius(chipCornerRadius);
     }
   }
 
@@ -1578,7 +1601,7 @@ public class ChipDrawable extends MaterialShapeDrawable implements TintAwareDraw
   }
 
   public void setTextAppearanceResource(@StyleRes int id) {
-    setTextAppearance(new TextAppearance(context, id));
+    setTextAppearance(TextAppearanceCache.get(context, id));
   }
 
   public void setTextAppearance(@Nullable TextAppearance textAppearance) {
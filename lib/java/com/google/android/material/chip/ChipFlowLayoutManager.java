@@ -0,0 +1,593 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.chip;
+
+import android.graphics.PointF;
+import android.os.Bundle;
+import android.os.Parcelable;
+import androidx.annotation.Dimension;
+import androidx.annotation.Nullable;
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.LinearSmoothScroller;
+import androidx.recyclerview.widget.RecyclerView;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A {@link RecyclerView.LayoutManager} which reflows its items across multiple lines the way
+ * {@link ChipGroup} does, and scrolls vertically.
+ *
+ * <p>Unlike a {@link ChipGroup}, which holds every chip as a child view, only the lines of chips
+ * which are visible are laid out, and the chips of lines which scroll out of view are recycled. Use
+ * it together with a {@link ChipAdapter} to show a large set of chips.
+ *
+ * <p>To constrain the chips to a single horizontal line, use a {@link
+ * androidx.recyclerview.widget.LinearLayoutManager} instead.
+ */
+public class ChipFlowLayoutManager extends RecyclerView.LayoutManager
+    implements RecyclerView.SmoothScroller.ScrollVectorProvider {
+
+  private static final String STATE_ANCHOR_POSITION = "anchorPosition";
+
+  @Dimension private int chipSpacingHorizontal;
+  @Dimension private int chipSpacingVertical;
+
+  /**
+   * The positions of the first item of each line, for as many lines as have been laid out or
+   * measured since the items or the width last changed. They are needed to lay out the lines above
+   * the first visible one, since where a line starts depends on all the items before it.
+   */
+  private final LineStarts lineStarts = new LineStarts();
+
+  private int lineStartsWidth = -1;
+  private int lineStartsSpacing;
+
+  /** The measured views of the line being laid out, and the height of the tallest of them. */
+  private final ArrayList<View> lineViews = new ArrayList<>();
+
+  private int lineHeight;
+
+  /**
+   * The item which overflowed the line measured last, kept so that it isn't bound again when the
+   * next line is laid out.
+   */
+  @Nullable private View overflowView;
+
+  private int overflowPosition = RecyclerView.NO_POSITION;
+  private int pendingScrollPosition = RecyclerView.NO_POSITION;
+
+  @Override
+  public RecyclerView.LayoutParams generateDefaultLayoutParams() {
+    return new RecyclerView.LayoutParams(
+        ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+  }
+
+  @Override
+  public boolean isAutoMeasureEnabled() {
+    return true;
+  }
+
+  @Override
+  public boolean canScrollVertically() {
+    return true;
+  }
+
+  /** Sets the horizontal and vertical spacing between chips. */
+  public void setChipSpacing(@Dimension int chipSpacing) {
+    setChipSpacingHorizontal(chipSpacing);
+    setChipSpacingVertical(chipSpacing);
+  }
+
+  /** Returns the horizontal spacing between chips. */
+  @Dimension
+  public int getChipSpacingHorizontal() {
+    return chipSpacingHorizontal;
+  }
+
+  /** Sets the horizontal spacing between chips. */
+  public void setChipSpacingHorizontal(@Dimension int chipSpacingHorizontal) {
+    if (this.chipSpacingHorizontal != chipSpacingHorizontal) {
+      this.chipSpacingHorizontal = chipSpacingHorizontal;
+      requestLayout();
+    }
+  }
+
+  /** Returns the vertical spacing between chips. */
+  @Dimension
+  public int getChipSpacingVertical() {
+    return chipSpacingVertical;
+  }
+
+  /** Sets the vertical spacing between chips. */
+  public void setChipSpacingVertical(@Dimension int chipSpacingVertical) {
+    if (this.chipSpacingVertical != chipSpacingVertical) {
+      this.chipSpacingVertical = chipSpacingVertical;
+      requestLayout();
+    }
+  }
+
+  /**
+   * Returns the adapter position of the first item of the first line which is at least partially
+   * visible, or {@link RecyclerView#NO_POSITION} if there are no items.
+   */
+  public int findFirstVisibleItemPosition() {
+    return getChildCount() == 0 ? RecyclerView.NO_POSITION : getPosition(getChildAt(0));
+  }
+
+  /**
+   * Returns the adapter position of the last item of the last line which is at least partially
+   * visible, or {@link RecyclerView#NO_POSITION} if there are no items.
+   */
+  public int findLastVisibleItemPosition() {
+    int childCount = getChildCount();
+    return childCount == 0
+        ? RecyclerView.NO_POSITION
+        : getPosition(getChildAt(childCount - 1));
+  }
+
+  @Override
+  public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+    int itemCount = state.getItemCount();
+    if (itemCount == 0) {
+      removeAndRecycleAllViews(recycler);
+      pendingScrollPosition = RecyclerView.NO_POSITION;
+      return;
+    }
+
+    int anchorPosition = 0;
+    int anchorOffset = 0;
+    if (pendingScrollPosition != RecyclerView.NO_POSITION) {
+      anchorPosition = pendingScrollPosition;
+    } else if (getChildCount() > 0) {
+      View anchor = getChildAt(0);
+      anchorPosition = getPosition(anchor);
+      anchorOffset = getLineTop(anchor) - getPaddingTop();
+    }
+    anchorPosition = Math.max(0, Math.min(anchorPosition, itemCount - 1));
+    pendingScrollPosition = RecyclerView.NO_POSITION;
+
+    detachAndScrapAttachedViews(recycler);
+
+    int width = getWidth() - getPaddingStart() - getPaddingEnd();
+    if (lineStartsWidth != width || lineStartsSpacing != chipSpacingHorizontal) {
+      lineStartsWidth = width;
+      lineStartsSpacing = chipSpacingHorizontal;
+      lineStarts.clear();
+    }
+    // The item which was at the start of the first line may have moved to the middle of a line.
+    int anchorLine = findLine(recycler, anchorPosition, itemCount);
+    int firstPosition = lineStarts.get(anchorLine);
+    if (firstPosition != anchorPosition) {
+      anchorOffset = 0;
+    } else if (firstPosition == 0) {
+      anchorOffset = Math.min(anchorOffset, 0);
+    }
+
+    fillBelow(recycler, firstPosition, getPaddingTop() + anchorOffset, itemCount);
+    if (getChildCount() == 0) {
+      return;
+    }
+
+    // Fills the space above the first line, in case the spacing between lines changed.
+    scrollBy(0, recycler, itemCount);
+
+    // Pulls the lines down if the last item ends above the bottom edge, for example because items
+    // were removed.
+    int lastIndex = getChildCount() - 1;
+    int gap = getBottomEdge() - getLineBottom(lastIndex);
+    if (gap > 0 && getPosition(getChildAt(lastIndex)) == itemCount - 1) {
+      scrollBy(-gap, recycler, itemCount);
+    }
+  }
+
+  @Override
+  public int scrollVerticallyBy(int dy, RecyclerView.Recycler recycler, RecyclerView.State state) {
+    if (getChildCount() == 0 || dy == 0) {
+      return 0;
+    }
+    return scrollBy(dy, recycler, state.getItemCount());
+  }
+
+  private int scrollBy(int dy, RecyclerView.Recycler recycler, int itemCount) {
+    int topEdge = getPaddingTop();
+    int bottomEdge = getBottomEdge();
+
+    if (dy > 0) {
+      int lastBottom = getLineBottom(getChildCount() - 1);
+      int nextPosition = getPosition(getChildAt(getChildCount() - 1)) + 1;
+      while (lastBottom - dy < bottomEdge && nextPosition < itemCount) {
+        int top = lastBottom + chipSpacingVertical;
+        nextPosition = layoutLine(recycler, nextPosition, itemCount, top);
+        lastBottom = getLineBottom(getChildCount() - 1);
+      }
+      dy = Math.min(dy, Math.max(0, lastBottom - bottomEdge));
+    } else {
+      int firstTop = getLineTop(getChildAt(0));
+      int firstPosition = getPosition(getChildAt(0));
+      while (firstTop - dy > topEdge && firstPosition > 0) {
+        int start = lineStarts.get(lineStarts.indexOf(firstPosition) - 1);
+        measureLine(recycler, start, firstPosition);
+        firstTop -= chipSpacingVertical + lineHeight;
+        addLine(firstTop, /* prepend= */ true);
+        firstPosition = start;
+      }
+      dy = Math.max(dy, Math.min(0, firstTop - topEdge));
+    }
+    recycleOverflowView(recycler);
+
+    offsetChildrenVertical(-dy);
+    recycleLinesOutOfView(recycler, topEdge, bottomEdge);
+    return dy;
+  }
+
+  @Override
+  public void scrollToPosition(int position) {
+    pendingScrollPosition = position;
+    requestLayout();
+  }
+
+  @Override
+  public void smoothScrollToPosition(
+      RecyclerView recyclerView, RecyclerView.State state, int position) {
+    LinearSmoothScroller scroller = new LinearSmoothScroller(recyclerView.getContext());
+    scroller.setTargetPosition(position);
+    startSmoothScroll(scroller);
+  }
+
+  @Nullable
+  @Override
+  public PointF computeScrollVectorForPosition(int targetPosition) {
+    if (getChildCount() == 0) {
+      return null;
+    }
+    return new PointF(0, targetPosition < getPosition(getChildAt(0)) ? -1 : 1);
+  }
+
+  @Override
+  public int computeVerticalScrollOffset(RecyclerView.State state) {
+    return getChildCount() == 0 ? 0 : getPosition(getChildAt(0));
+  }
+
+  @Override
+  public int computeVerticalScrollExtent(RecyclerView.State state) {
+    return getChildCount();
+  }
+
+  @Override
+  public int computeVerticalScrollRange(RecyclerView.State state) {
+    return state.getItemCount();
+  }
+
+  @Override
+  public void onItemsChanged(RecyclerView recyclerView) {
+    lineStarts.clear();
+  }
+
+  @Override
+  public void onItemsAdded(RecyclerView recyclerView, int positionStart, int itemCount) {
+    lineStarts.invalidateFrom(positionStart);
+  }
+
+  @Override
+  public void onItemsRemoved(RecyclerView recyclerView, int positionStart, int itemCount) {
+    lineStarts.invalidateFrom(positionStart);
+  }
+
+  @Override
+  public void onItemsUpdated(RecyclerView recyclerView, int positionStart, int itemCount) {
+    lineStarts.invalidateFrom(positionStart);
+  }
+
+  @Override
+  public void onItemsMoved(RecyclerView recyclerView, int from, int to, int itemCount) {
+    lineStarts.invalidateFrom(Math.min(from, to));
+  }
+
+  @Override
+  public void onAdapterChanged(
+      @Nullable RecyclerView.Adapter oldAdapter, @Nullable RecyclerView.Adapter newAdapter) {
+    lineStarts.clear();
+    pendingScrollPosition = RecyclerView.NO_POSITION;
+  }
+
+  @Override
+  public Parcelable onSaveInstanceState() {
+    Bundle state = new Bundle();
+    int anchorPosition =
+        pendingScrollPosition != RecyclerView.NO_POSITION
+            ? pendingScrollPosition
+            : findFirstVisibleItemPosition();
+    state.putInt(STATE_ANCHOR_POSITION, anchorPosition);
+    return state;
+  }
+
+  @Override
+  public void onRestoreInstanceState(Parcelable state) {
+    if (state instanceof Bundle) {
+      pendingScrollPosition =
+          ((Bundle) state).getInt(STATE_ANCHOR_POSITION, RecyclerView.NO_POSITION);
+      requestLayout();
+    }
+  }
+
+  /**
+   * Lays out lines starting with the item at {@code position} until the bottom edge is filled. At
+   * least one line is laid out, so that there is a line to scroll from.
+   */
+  private void fillBelow(RecyclerView.Recycler recycler, int position, int top, int itemCount) {
+    int bottomEdge = getBottomEdge();
+    while (position < itemCount && (top < bottomEdge || getChildCount() == 0)) {
+      position = layoutLine(recycler, position, itemCount, top);
+      top = getLineBottom(getChildCount() - 1) + chipSpacingVertical;
+    }
+    recycleOverflowView(recycler);
+  }
+
+  /**
+   * Lays out the line starting with the item at {@code position} below all the other lines, and
+   * returns the position of the first item of the next line.
+   */
+  private int layoutLine(RecyclerView.Recycler recycler, int position, int itemCount, int top) {
+    int nextPosition = measureLine(recycler, position, itemCount);
+    lineStarts.put(position, nextPosition, itemCount);
+    addLine(top, /* prepend= */ false);
+    return nextPosition;
+  }
+
+  /**
+   * Returns the index of the line which contains the item at {@code position}, measuring the items
+   * before it if the line hasn't been laid out since the items last changed.
+   */
+  private int findLine(RecyclerView.Recycler recycler, int position, int itemCount) {
+    while (lineStarts.last() < position && lineStarts.isLastOpen()) {
+      int start = lineStarts.last();
+      lineStarts.put(start, measureLine(recycler, start, itemCount), itemCount);
+      recycleLineViews(recycler);
+    }
+    recycleOverflowView(recycler);
+    return lineStarts.indexOf(position);
+  }
+
+  /**
+   * Measures the items of the line starting with the item at {@code start} into {@link #lineViews}
+   * and {@link #lineHeight}, stopping before {@code end} at the latest. Returns the position of the
+   * first item of the next line.
+   */
+  private int measureLine(RecyclerView.Recycler recycler, int start, int end) {
+    // Where the line ends is already known, so there is no need to bind the item after it.
+    int nextStart = lineStarts.getNext(start);
+    if (nextStart != RecyclerView.NO_POSITION) {
+      end = Math.min(end, nextStart);
+    }
+
+    lineViews.clear();
+    lineHeight = 0;
+    int maxChildEnd = getWidth() - getPaddingEnd();
+    int childStart = getPaddingStart();
+
+    int position = start;
+    for (; position < end; position++) {
+      View child;
+      if (position == overflowPosition) {
+        child = overflowView;
+        overflowView = null;
+        overflowPosition = RecyclerView.NO_POSITION;
+      } else {
+        recycleOverflowView(recycler);
+        child = recycler.getViewForPosition(position);
+        measureChildWithMargins(child, 0, 0);
+      }
+
+      RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+      int childEnd = childStart + lp.leftMargin + getDecoratedMeasuredWidth(child) + lp.rightMargin;
+      if (position > start && childEnd > maxChildEnd) {
+        overflowView = child;
+        overflowPosition = position;
+        break;
+      }
+
+      lineViews.add(child);
+      lineHeight =
+          Math.max(
+              lineHeight, lp.topMargin + getDecoratedMeasuredHeight(child) + lp.bottomMargin);
+      childStart = childEnd + chipSpacingHorizontal;
+    }
+    return position;
+  }
+
+  /** Adds and lays out the views measured by {@link #measureLine} in a line at {@code top}. */
+  private void addLine(int top, boolean prepend) {
+    boolean isRtl = getLayoutDirection() == ViewCompat.LAYOUT_DIRECTION_RTL;
+    int childStart = getPaddingStart();
+    for (int i = 0; i < lineViews.size(); i++) {
+      View child = lineViews.get(i);
+      if (prepend) {
+        addView(child, i);
+      } else {
+        addView(child);
+      }
+
+      RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+      int childEnd = childStart + lp.leftMargin + getDecoratedMeasuredWidth(child) + lp.rightMargin;
+      int childBottom = top + lp.topMargin + getDecoratedMeasuredHeight(child) + lp.bottomMargin;
+      if (isRtl) {
+        layoutDecoratedWithMargins(
+            child, getWidth() - childEnd, top, getWidth() - childStart, childBottom);
+      } else {
+        layoutDecoratedWithMargins(child, childStart, top, childEnd, childBottom);
+      }
+      childStart = childEnd + chipSpacingHorizontal;
+    }
+    lineViews.clear();
+  }
+
+  private void recycleLineViews(RecyclerView.Recycler recycler) {
+    for (int i = 0; i < lineViews.size(); i++) {
+      recycler.recycleView(lineViews.get(i));
+    }
+    lineViews.clear();
+  }
+
+  private void recycleOverflowView(RecyclerView.Recycler recycler) {
+    if (overflowView != null) {
+      recycler.recycleView(overflowView);
+      overflowView = null;
+      overflowPosition = RecyclerView.NO_POSITION;
+    }
+  }
+
+  /** Recycles the whole lines which are entirely above or below the visible area. */
+  private void recycleLinesOutOfView(RecyclerView.Recycler recycler, int topEdge, int bottomEdge) {
+    while (getChildCount() > 0) {
+      int lineEnd = getLineEndIndex(0);
+      if (getLineBottom(0) > topEdge || lineEnd == getChildCount()) {
+        break;
+      }
+      for (int i = lineEnd - 1; i >= 0; i--) {
+        removeAndRecycleViewAt(i, recycler);
+      }
+    }
+
+    while (getChildCount() > 0) {
+      int lastIndex = getChildCount() - 1;
+      int lineStart = getLineStartIndex(lastIndex);
+      if (getLineTop(getChildAt(lastIndex)) < bottomEdge || lineStart == 0) {
+        break;
+      }
+      for (int i = lastIndex; i >= lineStart; i--) {
+        removeAndRecycleViewAt(i, recycler);
+      }
+    }
+  }
+
+  /** Returns the index of the first child in the same line as the child at {@code index}. */
+  private int getLineStartIndex(int index) {
+    int top = getLineTop(getChildAt(index));
+    while (index > 0 && getLineTop(getChildAt(index - 1)) == top) {
+      index--;
+    }
+    return index;
+  }
+
+  /** Returns the index after the last child in the same line as the child at {@code index}. */
+  private int getLineEndIndex(int index) {
+    int top = getLineTop(getChildAt(index));
+    int childCount = getChildCount();
+    index++;
+    while (index < childCount && getLineTop(getChildAt(index)) == top) {
+      index++;
+    }
+    return index;
+  }
+
+  /** Returns the bottom of the area to fill with lines, which is unbounded while measuring. */
+  private int getBottomEdge() {
+    return getHeightMode() == MeasureSpec.UNSPECIFIED && getHeight() == 0
+        ? Integer.MAX_VALUE
+        : getHeight() - getPaddingBottom();
+  }
+
+  private int getLineTop(View child) {
+    return getDecoratedTop(child) - ((RecyclerView.LayoutParams) child.getLayoutParams()).topMargin;
+  }
+
+  /** Returns the bottom of the line which contains the child at {@code index}. */
+  private int getLineBottom(int index) {
+    int bottom = Integer.MIN_VALUE;
+    int start = getLineStartIndex(index);
+    int end = getLineEndIndex(start);
+    for (int i = start; i < end; i++) {
+      View child = getChildAt(i);
+      RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+      bottom = Math.max(bottom, getDecoratedBottom(child) + lp.bottomMargin);
+    }
+    return bottom;
+  }
+
+  /**
+   * The sorted positions of the first item of each line. The first line always starts at 0. The
+   * last known line is open when the line after it hasn't been measured yet.
+   */
+  private static final class LineStarts {
+    private int[] starts = new int[16];
+    private int size = 1;
+    private boolean lastOpen = true;
+
+    void clear() {
+      size = 1;
+      lastOpen = true;
+    }
+
+    int get(int line) {
+      return starts[line];
+    }
+
+    int last() {
+      return starts[size - 1];
+    }
+
+    boolean isLastOpen() {
+      return lastOpen;
+    }
+
+    /**
+     * Returns the start of the line after the one starting at {@code start}, or {@link
+     * RecyclerView#NO_POSITION} if it isn't known.
+     */
+    int getNext(int start) {
+      int index = Arrays.binarySearch(starts, 0, size, start);
+      return index >= 0 && index + 1 < size ? starts[index + 1] : RecyclerView.NO_POSITION;
+    }
+
+    /** Returns the index of the last known line which starts at or before {@code position}. */
+    int indexOf(int position) {
+      int index = Arrays.binarySearch(starts, 0, size, position);
+      return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Records that the line starting at {@code start} is followed by one starting at {@code next},
+     * unless {@code next} is the item count and the line is the last one.
+     */
+    void put(int start, int next, int itemCount) {
+      if (start != last() || !lastOpen) {
+        return;
+      }
+      if (next >= itemCount) {
+        lastOpen = false;
+        return;
+      }
+      if (size == starts.length) {
+        starts = Arrays.copyOf(starts, size * 2);
+      }
+      starts[size++] = next;
+    }
+
+    /**
+     * Forgets the lines which may have changed after the item at {@code position} changed. Whether
+     * an item starts a line depends on its own size too, so only the lines starting before it are
+     * kept.
+     */
+    void invalidateFrom(int position) {
+      size = Math.max(1, indexOf(position - 1) + 1);
+      lastOpen = true;
+    }
+  }
+}
@@ -35,6 +35,12 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewGroup.MarginLayoutParams;
 import android.widget.CompoundButton;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * A ChipGroup is used to hold multiple {@link Chip}s. By default, the chips are reflowed across
@@ -98,6 +104,16 @@ public class ChipGroup extends FlowLayout {
   @IdRes private int checkedId = View.NO_ID;
   private boolean protectFromCheckedChange = false;
 
+  /**
+   * The chips in this group by id, kept up to date as chips are added and removed so that selection
+   * changes don't need to search the children. Since the id of a chip can change after it's added,
+   * the index is rebuilt when a lookup finds no chip, or a chip with another id.
+   */
+  private final Map<Integer, Chip> chipsById = new HashMap<>();
+
+  /** The checked chips in this group, in the order they were checked. */
+  private final Set<Chip> checkedChips = new LinkedHashSet<>();
+
   public ChipGroup(Context context) {
     this(context, null);
   }
@@ -262,6 +278,22 @@ public class ChipGroup extends FlowLayout {
     return singleSelection ? checkedId : View.NO_ID;
   }
 
+  /**
+   * Returns the identifiers of the checked chips in this group, in the order they were checked.
+   * Upon empty selection, the returned list is empty.
+   *
+   * @return the unique ids of the checked chips in this group
+   * @see #check(int)
+   * @see #clearCheck()
+   */
+  public List<Integer> getCheckedChipIds() {
+    List<Integer> checkedChipIds = new ArrayList<>(checkedChips.size());
+    for (Chip chip : checkedChips) {
+      checkedChipIds.add(chip.getId());
+    }
+    return checkedChipIds;
+  }
+
   /**
    * Clears the selection. When the selection is cleared, no chip in this group is selected and
    * {@link #getCheckedChipId()} returns {@link View#NO_ID}.
@@ -271,12 +303,10 @@ public class ChipGroup extends FlowLayout {
    */
   public void clearCheck() {
     protectFromCheckedChange = true;
-    for (int i = 0; i < getChildCount(); i++) {
-      View child = getChildAt(i);
-      if (child instanceof Chip) {
-        ((Chip) child).setChecked(false);
-      }
+    for (Chip chip : checkedChips) {
+      chip.setChecked(false);
     }
+    checkedChips.clear();
     protectFromCheckedChange = false;
 
     setCheckedId(View.NO_ID);
@@ -301,11 +331,41 @@ public class ChipGroup extends FlowLayout {
   }
 
   private void setCheckedStateForView(@IdRes int viewId, boolean checked) {
-    View checkedView = findViewById(viewId);
-    if (checkedView instanceof Chip) {
+    Chip checkedChip = findChipById(viewId);
+    if (checkedChip != null) {
       protectFromCheckedChange = true;
-      ((Chip) checkedView).setChecked(checked);
+      checkedChip.setChecked(checked);
       protectFromCheckedChange = false;
+      updateCheckedChips(checkedChip, checkedChip.isChecked());
+    }
+  }
+
+  @Nullable
+  private Chip findChipById(@IdRes int id) {
+    Chip chip = chipsById.get(id);
+    if (chip == null || chip.getId() != id) {
+      // The ids of the chips may have changed since they were added.
+      indexChipsById();
+      chip = chipsById.get(id);
+    }
+    return chip;
+  }
+
+  private void indexChipsById() {
+    chipsById.clear();
+    for (int i = 0; i < getChildCount(); i++) {
+      View child = getChildAt(i);
+      if (child instanceof Chip) {
+        chipsById.put(child.getId(), (Chip) child);
+      }
+    }
+  }
+
+  private void updateCheckedChips(Chip chip, boolean checked) {
+    if (checked) {
+      checkedChips.add(chip);
+    } else {
+      checkedChips.remove(chip);
     }
   }
 
@@ -401,6 +461,7 @@ public class ChipGroup extends FlowLayout {
       }
 
       int id = buttonView.getId();
+      updateCheckedChips((Chip) buttonView, isChecked);
 
       if (isChecked) {
         if (checkedId != View.NO_ID && checkedId != id && singleSelection) {
@@ -436,6 +497,8 @@ public class ChipGroup extends FlowLayout {
           }
           child.setId(id);
         }
+        chipsById.put(id, (Chip) child);
+        updateCheckedChips((Chip) child, ((Chip) child).isChecked());
         ((Chip) child).setOnCheckedChangeListenerInternal(checkedStateTracker);
       }
 
@@ -447,6 +510,14 @@ public class ChipGroup extends FlowLayout {
     @Override
     public void onChildViewRemoved(View parent, View child) {
       if (parent == ChipGroup.this && child instanceof Chip) {
+        int id = child.getId();
+        if (chipsById.get(id) == child) {
+          chipsById.remove(id);
+        } else {
+          // The chip's id has changed since it was indexed.
+          chipsById.values().remove(child);
+        }
+        checkedChips.remove(child);
         ((Chip) child).setOnCheckedChangeListenerInternal(null);
       }
 
@@ -296,7 +296,7 @@ class FloatingActionButtonImpl {
 
   final void setShapeAppearance(ShapeAppearanceModel shapeAppearance, boolean usingDefaultCorner) {
     if (usingDefaultCorner) {
-      shapeAppearance.setCornerRadius(view.getSizeDimension() / 2);
+      shapeAppearance = createCircularShapeAppearance(shapeAppearance);
     }
 
     this.shapeAppearance = shapeAppearance;
@@ -622,8 +622,25 @@ class FloatingActionButtonImpl {
       return;
     }
 
-    ShapeAppearanceModel shapeAppearanceModel = shapeDrawable.getShapeAppearanceModel();
-    shapeAppearanceModel.setCornerRadius(view.getSizeDimension() / 2);
+    setShapeAppearance(shapeAppearance, true);
+  }
+
+  /**
+   * Returns {@code shapeAppearance} with corners half the size of the fab, which makes it circular.
+   * Immutable models are copied with their {@link ShapeAppearanceModel.Builder}. Other models are
+   * copied unless they already belong to the fab, so that the fab's model stays modifiable.
+   */
+  final ShapeAppearanceModel createCircularShapeAppearance(ShapeAppearanceModel shapeAppearance) {
+    int cornerRadius = view.getSizeDimension() / 2;
+    if (shapeAppearance.isImmutable()) {
+      return shapeAppearance.toBuilder().setCornerRadius(cornerRadius).build();
+    }
+    if (shapeAppearance != this.shapeAppearance) {
+      // The model passed in may be shared with other views.
+      shapeAppearance = new ShapeAppearanceModel(shapeAppearance);
+    }
+    shapeAppearance.setCornerRadius(cornerRadius);
+    return shapeAppearance;
   }
 
   final void updatePadding() {
@@ -697,7 +714,7 @@ class FloatingActionButtonImpl {
 
   MaterialShapeDrawable createShapeDrawable() {
     if (usingDefaultCorner) {
-      shapeAppearance.setCornerRadius(view.getSizeDimension() / 2);
+      shapeAppearance = createCircularShapeAppearance(shapeAppearance);
     }
     return new MaterialShapeDrawable(shapeAppearance);
   }
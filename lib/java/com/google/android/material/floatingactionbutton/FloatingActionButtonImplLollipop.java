@@ -222,7 +222,7 @@ class FloatingActionButtonImplLollipop extends FloatingActionButtonImpl {
   @Override
   MaterialShapeDrawable createShapeDrawable() {
     if (usingDefaultCorner) {
-      shapeAppearance.setCornerRadius(view.getSizeDimension() / 2);
+      shapeAppearance = createCircularShapeAppearance(shapeAppearance);
     }
     return new AlwaysStatefulMaterialShapeDrawable(shapeAppearance);
   }
@@ -24,6 +24,8 @@ import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Typeface;
@@ -35,6 +37,7 @@ import com.google.android.material.animation.AnimationUtils;
 import com.google.android.material.resources.CancelableFontCallback;
 import com.google.android.material.resources.CancelableFontCallback.ApplyFont;
 import com.google.android.material.resources.TextAppearance;
+import com.google.android.material.resources.TextAppearanceCache;
 import androidx.core.math.MathUtils;
 import androidx.core.text.TextDirectionHeuristicsCompat;
 import androidx.core.view.GravityCompat;
@@ -92,16 +95,33 @@ public final class CollapsingTextHelper {
 
   private CharSequence text;
   private CharSequence textToDraw;
+  private float textToDrawWidth;
   private boolean isRtl;
 
+  // The text laid out for the collapsed text size and for the expanded text size, which is scaled
+  // for every size in between. Scrolling only switches between the two.
+  private final EllipsizedText collapsedEllipsizedText = new EllipsizedText();
+  private final EllipsizedText expandedEllipsizedText = new EllipsizedText();
+
   private boolean useTexture;
   private Bitmap expandedTitleTexture;
   private Paint texturePaint;
   private float textureAscent;
   private float textureDescent;
 
+  // The expanded and collapsed text rasterized once, which are scaled and cross-faded instead of
+  // drawing the text at every size in between.
+  private boolean textLayersCached;
+  @Nullable private TextLayer expandedTextLayer;
+  @Nullable private TextLayer collapsedTextLayer;
+  private TextPaint textLayerPaint;
+  private Paint textLayerBitmapPaint;
+  private Paint textLayerAddPaint;
+  private final RectF textLayerBounds = new RectF();
+
   private float scale;
   private float currentTextSize;
+  private float interpolatedTextSize;
 
   private int[] state;
 
@@ -256,7 +276,7 @@ public final class CollapsingTextHelper {
   }
 
   public void setCollapsedTextAppearance(int resId) {
-    TextAppearance textAppearance = new TextAppearance(view.getContext(), resId);
+    TextAppearance textAppearance = TextAppearanceCache.get(view.getContext(), resId);
 
     if (textAppearance.textColor != null) {
       collapsedTextColor = textAppearance.textColor;
@@ -290,7 +310,7 @@ public final class CollapsingTextHelper {
   }
 
   public void setExpandedTextAppearance(int resId) {
-    TextAppearance textAppearance = new TextAppearance(view.getContext(), resId);
+    TextAppearance textAppearance = TextAppearanceCache.get(view.getContext(), resId);
     if (textAppearance.textColor != null) {
       expandedTextColor = textAppearance.textColor;
     }
@@ -414,6 +434,27 @@ public final class CollapsingTextHelper {
     return expandedFraction;
   }
 
+  /**
+   * Sets whether the expanded and collapsed text are each rasterized once into a cached layer. The
+   * collapse animation then scales and cross-fades the two layers, instead of laying out and
+   * drawing the text at every interpolated size. The layers are only rasterized again when the
+   * text, typeface, size, color or shadow of either state changes.
+   */
+  public void setTextLayersCached(boolean cached) {
+    if (textLayersCached != cached) {
+      textLayersCached = cached;
+      if (!cached) {
+        clearTextLayers();
+      }
+      recalculate();
+      ViewCompat.postInvalidateOnAnimation(view);
+    }
+  }
+
+  public boolean isTextLayersCached() {
+    return textLayersCached;
+  }
+
   public float getCollapsedTextSize() {
     return collapsedTextSize;
   }
@@ -431,8 +472,9 @@ public final class CollapsingTextHelper {
     currentDrawX = lerp(expandedDrawX, collapsedDrawX, fraction, positionInterpolator);
     currentDrawY = lerp(expandedDrawY, collapsedDrawY, fraction, positionInterpolator);
 
-    setInterpolatedTextSize(
-        lerp(expandedTextSize, collapsedTextSize, fraction, textSizeInterpolator));
+    interpolatedTextSize =
+        lerp(expandedTextSize, collapsedTextSize, fraction, textSizeInterpolator);
+    setInterpolatedTextSize(interpolatedTextSize);
 
     if (collapsedTextColor != expandedTextColor) {
       // If the collapsed and expanded text colors are different, blend them based on the
@@ -479,8 +521,7 @@ public final class CollapsingTextHelper {
 
     // We then calculate the collapsed text size, using the same logic
     calculateUsingTextSize(collapsedTextSize);
-    float width =
-        textToDraw != null ? textPaint.measureText(textToDraw, 0, textToDraw.length()) : 0;
+    float width = textToDraw != null ? textToDrawWidth : 0;
     final int collapsedAbsGravity =
         GravityCompat.getAbsoluteGravity(
             collapsedTextGravity,
@@ -513,7 +554,7 @@ public final class CollapsingTextHelper {
     }
 
     calculateUsingTextSize(expandedTextSize);
-    width = textToDraw != null ? textPaint.measureText(textToDraw, 0, textToDraw.length()) : 0;
+    width = textToDraw != null ? textToDrawWidth : 0;
     final int expandedAbsGravity =
         GravityCompat.getAbsoluteGravity(
             expandedTextGravity,
@@ -562,6 +603,11 @@ public final class CollapsingTextHelper {
   }
 
   public void draw(Canvas canvas) {
+    if (textLayersCached) {
+      drawTextLayers(canvas);
+      return;
+    }
+
     final int saveCount = canvas.save();
 
     if (textToDraw != null && drawTitle) {
@@ -605,6 +651,225 @@ public final class CollapsingTextHelper {
     canvas.restoreToCount(saveCount);
   }
 
+  private void drawTextLayers(Canvas canvas) {
+    if (!drawTitle) {
+      return;
+    }
+    updateTextLayers();
+
+    // Both layers follow the interpolated size, and fade into each other. Each layer is aligned on
+    // its own, since the expanded and collapsed text don't always have the same width.
+    final float expandedScale = interpolatedTextSize / expandedTextSize;
+    final float collapsedScale = interpolatedTextSize / collapsedTextSize;
+    final float expandedX = getTextLayerX(expandedTextLayer, expandedScale);
+    final float collapsedX = getTextLayerX(collapsedTextLayer, collapsedScale);
+
+    final boolean crossFading =
+        expandedFraction > 0f
+            && expandedFraction < 1f
+            && expandedTextLayer.bitmap != null
+            && collapsedTextLayer.bitmap != null;
+    if (!crossFading) {
+      drawTextLayer(
+          canvas,
+          expandedTextLayer,
+          expandedX,
+          expandedScale,
+          1f - expandedFraction,
+          textLayerBitmapPaint);
+      drawTextLayer(
+          canvas,
+          collapsedTextLayer,
+          collapsedX,
+          collapsedScale,
+          expandedFraction,
+          textLayerBitmapPaint);
+      return;
+    }
+
+    // Drawing one layer over the other at alpha and 1 - alpha would let the background show
+    // through where they overlap. Instead, the layers are added up in a layer of their own, so that
+    // their combined opacity stays the same throughout the animation.
+    setTextLayerBounds(expandedTextLayer, expandedX, expandedScale, textLayerBounds);
+    final float left = textLayerBounds.left;
+    final float top = textLayerBounds.top;
+    final float right = textLayerBounds.right;
+    final float bottom = textLayerBounds.bottom;
+    setTextLayerBounds(collapsedTextLayer, collapsedX, collapsedScale, textLayerBounds);
+    textLayerBounds.union(left, top, right, bottom);
+
+    final int saveCount;
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+      saveCount = canvas.saveLayer(textLayerBounds, null);
+    } else {
+      saveCount = canvas.saveLayer(textLayerBounds, null, Canvas.ALL_SAVE_FLAG);
+    }
+    drawTextLayer(
+        canvas,
+        expandedTextLayer,
+        expandedX,
+        expandedScale,
+        1f - expandedFraction,
+        textLayerBitmapPaint);
+    drawTextLayer(
+        canvas,
+        collapsedTextLayer,
+        collapsedX,
+        collapsedScale,
+        expandedFraction,
+        textLayerAddPaint);
+    canvas.restoreToCount(saveCount);
+  }
+
+  /**
+   * Returns where the start of the baseline of {@code layer} is drawn, when it's scaled by {@code
+   * scale}. The point the text is aligned to, such as its center for centered text, moves from
+   * where it is in the expanded state to where it is in the collapsed state, and each layer is
+   * aligned to that point according to its own width.
+   */
+  private float getTextLayerX(TextLayer layer, float scale) {
+    final float expandedAlignment = getHorizontalAlignment(expandedTextGravity);
+    final float collapsedAlignment = getHorizontalAlignment(collapsedTextGravity);
+    final float alignmentX =
+        lerp(
+            expandedDrawX + expandedAlignment * expandedTextLayer.textWidth,
+            collapsedDrawX + collapsedAlignment * collapsedTextLayer.textWidth,
+            expandedFraction,
+            positionInterpolator);
+    final float alignment =
+        lerp(expandedAlignment, collapsedAlignment, expandedFraction, positionInterpolator);
+    return alignmentX - alignment * layer.textWidth * scale;
+  }
+
+  /**
+   * Returns which fraction of the width of the text lies before the point the text is aligned to
+   * with {@code gravity}: 0 for the left, 0.5 for the center and 1 for the right.
+   */
+  private float getHorizontalAlignment(int gravity) {
+    final int absoluteGravity =
+        GravityCompat.getAbsoluteGravity(
+            gravity, isRtl ? ViewCompat.LAYOUT_DIRECTION_RTL : ViewCompat.LAYOUT_DIRECTION_LTR);
+    switch (absoluteGravity & GravityCompat.RELATIVE_HORIZONTAL_GRAVITY_MASK) {
+      case Gravity.CENTER_HORIZONTAL:
+        return 0.5f;
+      case Gravity.RIGHT:
+        return 1f;
+      case Gravity.LEFT:
+      default:
+        return 0f;
+    }
+  }
+
+  private void setTextLayerBounds(TextLayer layer, float x, float scale, RectF bounds) {
+    bounds.left = x - layer.originX * scale;
+    bounds.top = currentDrawY - layer.baseline * scale;
+    bounds.right = bounds.left + layer.bitmap.getWidth() * scale;
+    bounds.bottom = bounds.top + layer.bitmap.getHeight() * scale;
+  }
+
+  private void drawTextLayer(
+      Canvas canvas, TextLayer layer, float x, float scale, float alpha, Paint paint) {
+    if (layer.bitmap == null || alpha <= 0f) {
+      return;
+    }
+
+    final int saveCount = canvas.save();
+    canvas.translate(x, currentDrawY);
+    canvas.scale(scale, scale);
+    paint.setAlpha(Math.round(alpha * 255));
+    canvas.drawBitmap(layer.bitmap, -layer.originX, -layer.baseline, paint);
+    canvas.restoreToCount(saveCount);
+  }
+
+  private void updateTextLayers() {
+    if (expandedTextLayer == null) {
+      expandedTextLayer = new TextLayer();
+      collapsedTextLayer = new TextLayer();
+      textLayerPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG | Paint.SUBPIXEL_TEXT_FLAG);
+      textLayerBitmapPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+      textLayerAddPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+      textLayerAddPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.ADD));
+    }
+
+    updateTextLayer(
+        expandedTextLayer,
+        expandedEllipsizedText.text,
+        expandedTypeface,
+        expandedTextSize,
+        getCurrentExpandedTextColor(),
+        expandedShadowRadius,
+        expandedShadowDx,
+        expandedShadowDy,
+        getCurrentColor(expandedShadowColor));
+    updateTextLayer(
+        collapsedTextLayer,
+        collapsedEllipsizedText.text,
+        collapsedTypeface,
+        collapsedTextSize,
+        getCurrentCollapsedTextColor(),
+        collapsedShadowRadius,
+        collapsedShadowDx,
+        collapsedShadowDy,
+        getCurrentColor(collapsedShadowColor));
+  }
+
+  private void updateTextLayer(
+      TextLayer layer,
+      @Nullable CharSequence text,
+      @Nullable Typeface typeface,
+      float textSize,
+      @ColorInt int color,
+      float shadowRadius,
+      float shadowDx,
+      float shadowDy,
+      @ColorInt int shadowColor) {
+    if (layer.matches(
+        text, typeface, textSize, color, shadowRadius, shadowDx, shadowDy, shadowColor)) {
+      return;
+    }
+    layer.set(text, typeface, textSize, color, shadowRadius, shadowDx, shadowDy, shadowColor);
+
+    final TextPaint paint = textLayerPaint;
+    paint.setTypeface(typeface);
+    paint.setTextSize(textSize);
+    paint.setColor(color);
+    paint.setShadowLayer(shadowRadius, shadowDx, shadowDy, shadowColor);
+
+    // Leave room around the text for its shadow.
+    final int padding =
+        (int) Math.ceil(shadowRadius + Math.max(Math.abs(shadowDx), Math.abs(shadowDy)));
+    layer.textWidth = TextUtils.isEmpty(text) ? 0 : paint.measureText(text, 0, text.length());
+    final int textWidth = (int) Math.ceil(layer.textWidth);
+    final int textHeight = (int) Math.ceil(paint.descent() - paint.ascent());
+    if (textWidth <= 0 || textHeight <= 0) {
+      layer.recycleBitmap();
+      return;
+    }
+
+    final int width = textWidth + padding * 2;
+    final int height = textHeight + padding * 2;
+    if (layer.bitmap != null
+        && layer.bitmap.getWidth() == width
+        && layer.bitmap.getHeight() == height) {
+      layer.bitmap.eraseColor(Color.TRANSPARENT);
+    } else {
+      layer.recycleBitmap();
+      layer.bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+    layer.originX = padding;
+    layer.baseline = padding - paint.ascent();
+
+    Canvas c = new Canvas(layer.bitmap);
+    c.drawText(text, 0, text.length(), layer.originX, layer.baseline, paint);
+  }
+
+  private void clearTextLayers() {
+    if (expandedTextLayer != null) {
+      expandedTextLayer.clear();
+      collapsedTextLayer.clear();
+    }
+  }
+
   private boolean calculateIsRtl(CharSequence text) {
     final boolean defaultIsRtl =
         ViewCompat.getLayoutDirection(view) == ViewCompat.LAYOUT_DIRECTION_RTL;
@@ -617,8 +882,8 @@ public final class CollapsingTextHelper {
   private void setInterpolatedTextSize(float textSize) {
     calculateUsingTextSize(textSize);
 
-    // Use our texture if the scale isn't 1.0
-    useTexture = USE_SCALING_TEXTURE && scale != 1f;
+    // Use our texture if the scale isn't 1.0, unless the cached text layers are scaled instead
+    useTexture = USE_SCALING_TEXTURE && scale != 1f && !textLayersCached;
 
     if (useTexture) {
       // Make sure we have an expanded texture if needed
@@ -639,10 +904,12 @@ public final class CollapsingTextHelper {
 
     final float availableWidth;
     final float newTextSize;
+    final EllipsizedText ellipsizedText;
     boolean updateDrawText = false;
 
     if (isClose(textSize, collapsedTextSize)) {
       newTextSize = collapsedTextSize;
+      ellipsizedText = collapsedEllipsizedText;
       scale = 1f;
       if (currentTypeface != collapsedTypeface) {
         currentTypeface = collapsedTypeface;
@@ -651,6 +918,7 @@ public final class CollapsingTextHelper {
       availableWidth = collapsedWidth;
     } else {
       newTextSize = expandedTextSize;
+      ellipsizedText = expandedEllipsizedText;
       if (currentTypeface != expandedTypeface) {
         currentTypeface = expandedTypeface;
         updateDrawText = true;
@@ -691,13 +959,26 @@ public final class CollapsingTextHelper {
       // Use linear text scaling if we're scaling the canvas
       textPaint.setLinearText(scale != 1f);
 
-      // If we don't currently have text to draw, or the text size has changed, ellipsize...
-      final CharSequence title =
-          TextUtils.ellipsize(text, textPaint, availableWidth, TextUtils.TruncateAt.END);
-      if (!TextUtils.equals(title, textToDraw)) {
-        textToDraw = title;
-        isRtl = calculateIsRtl(textToDraw);
+      final boolean defaultIsRtl =
+          ViewCompat.getLayoutDirection(view) == ViewCompat.LAYOUT_DIRECTION_RTL;
+      if (!ellipsizedText.matches(
+          text, currentTypeface, currentTextSize, availableWidth, defaultIsRtl)) {
+        // If we don't currently have text to draw, or the text size has changed, ellipsize...
+        final CharSequence title =
+            TextUtils.ellipsize(text, textPaint, availableWidth, TextUtils.TruncateAt.END);
+        ellipsizedText.set(
+            text,
+            currentTypeface,
+            currentTextSize,
+            availableWidth,
+            defaultIsRtl,
+            title,
+            textPaint.measureText(title, 0, title.length()),
+            calculateIsRtl(title));
       }
+      textToDraw = ellipsizedText.text;
+      textToDrawWidth = ellipsizedText.width;
+      isRtl = ellipsizedText.isRtl;
     }
   }
 
@@ -746,6 +1027,8 @@ public final class CollapsingTextHelper {
     if (text == null || !TextUtils.equals(this.text, text)) {
       this.text = text;
       textToDraw = null;
+      collapsedEllipsizedText.clear();
+      expandedEllipsizedText.clear();
       clearTexture();
       recalculate();
     }
@@ -804,4 +1087,140 @@ public final class CollapsingTextHelper {
   private static boolean rectEquals(Rect r, int left, int top, int right, int bottom) {
     return !(r.left != left || r.top != top || r.right != right || r.bottom != bottom);
   }
+
+  /**
+   * Ellipsized text along with its width and direction, and the inputs it was ellipsized with, so
+   * that it's only ellipsized and measured again when one of them changes.
+   */
+  private static final class EllipsizedText {
+
+    @Nullable private CharSequence sourceText;
+    @Nullable private Typeface typeface;
+    private float textSize;
+    private float availableWidth;
+    private boolean defaultIsRtl;
+
+    @Nullable private CharSequence text;
+    private float width;
+    private boolean isRtl;
+
+    @SuppressWarnings("ReferenceEquality") // The text is replaced, never modified.
+    boolean matches(
+        CharSequence sourceText,
+        Typeface typeface,
+        float textSize,
+        float availableWidth,
+        boolean defaultIsRtl) {
+      return text != null
+          && this.sourceText == sourceText
+          && this.typeface == typeface
+          && this.textSize == textSize
+          && this.availableWidth == availableWidth
+          && this.defaultIsRtl == defaultIsRtl;
+    }
+
+    void set(
+        CharSequence sourceText,
+        Typeface typeface,
+        float textSize,
+        float availableWidth,
+        boolean defaultIsRtl,
+        CharSequence text,
+        float width,
+        boolean isRtl) {
+      this.sourceText = sourceText;
+      this.typeface = typeface;
+      this.textSize = textSize;
+      this.availableWidth = availableWidth;
+      this.defaultIsRtl = defaultIsRtl;
+      this.text = text;
+      this.width = width;
+      this.isRtl = isRtl;
+    }
+
+    void clear() {
+      sourceText = null;
+      typeface = null;
+      text = null;
+    }
+  }
+
+  /**
+   * Text rasterized into a bitmap, along with the inputs it was drawn with, so that it's only drawn
+   * again when one of them changes.
+   */
+  private static final class TextLayer {
+
+    @Nullable private CharSequence text;
+    @Nullable private Typeface typeface;
+    private float textSize;
+    @ColorInt private int color;
+    private float shadowRadius;
+    private float shadowDx;
+    private float shadowDy;
+    @ColorInt private int shadowColor;
+    private boolean valid;
+
+    @Nullable private Bitmap bitmap;
+    // Where the start of the text's baseline is within the bitmap.
+    private float originX;
+    private float baseline;
+    private float textWidth;
+
+    @SuppressWarnings("ReferenceEquality") // The text is replaced, never modified.
+    boolean matches(
+        @Nullable CharSequence text,
+        @Nullable Typeface typeface,
+        float textSize,
+        @ColorInt int color,
+        float shadowRadius,
+        float shadowDx,
+        float shadowDy,
+        @ColorInt int shadowColor) {
+      return valid
+          && this.text == text
+          && this.typeface == typeface
+          && this.textSize == textSize
+          && this.color == color
+          && this.shadowRadius == shadowRadius
+          && this.shadowDx == shadowDx
+          && this.shadowDy == shadowDy
+          && this.shadowColor == shadowColor;
+    }
+
+    void set(
+        @Nullable CharSequence text,
+        @Nullable Typeface typeface,
+        float textSize,
+        @ColorInt int color,
+        float shadowRadius,
+        float shadowDx,
+        float shadowDy,
+        @ColorInt int shadowColor) {
+      this.text = text;
+      this.typeface = typeface;
+      this.textSize = textSize;
+      this.color = color;
+      this.shadowRadius = shadowRadius;
+      this.shadowDx = shadowDx;
+      this.shadowDy = shadowDy;
+      this.shadowColor = shadowColor;
+      valid = true;
+    }
+
+    void recycleBitmap() {
+      if (bitmap != null) {
+        bitmap.recycle();
+        bitmap = null;
+      }
+    }
+
+    void clear() {
+      valid = false;
+      textWidth = 0;
+      text = null;
+      typeface = null;
+      recycleBitmap();
+    }
+  }
 }
@@ -42,6 +42,7 @@ public class FlowLayout extends ViewGroup {
   private int lineSpacing;
   private int itemSpacing;
   private boolean singleLine;
+  private final LineBreaks lineBreaks = new LineBreaks();
 
   public FlowLayout(Context context) {
     this(context, null);
@@ -110,62 +111,31 @@ public class FlowLayout extends ViewGroup {
             ? width
             : Integer.MAX_VALUE;
 
-    int childLeft = getPaddingLeft();
-    int childTop = getPaddingTop();
-    int childBottom = childTop;
-    int childRight = childLeft;
-    int maxChildRight = 0;
-    final int maxRight = maxWidth - getPaddingRight();
-    for (int i = 0; i < getChildCount(); i++) {
-      View child = getChildAt(i);
-
-      if (child.getVisibility() == View.GONE) {
-        continue;
-      }
-      measureChild(child, widthMeasureSpec, heightMeasureSpec);
-
-      LayoutParams lp = child.getLayoutParams();
-      int leftMargin = 0;
-      int rightMargin = 0;
-      if (lp instanceof MarginLayoutParams) {
-        MarginLayoutParams marginLp = (MarginLayoutParams) lp;
-        leftMargin += marginLp.leftMargin;
-        rightMargin += marginLp.rightMargin;
-      }
-
-      childRight = childLeft + leftMargin + child.getMeasuredWidth();
-
-      // If the current child's right bound exceeds Flowlayout's max right bound and flowlayout is
-      // not confined to a single line, move this child to the next line and reset its left bound to
-      // flowlayout's left bound.
-      if (childRight > maxRight && !isSingleLine()) {
-        childLeft = getPaddingLeft();
-        childTop = childBottom + lineSpacing;
-      }
-
-      childRight = childLeft + leftMargin + child.getMeasuredWidth();
-      childBottom = childTop + child.getMeasuredHeight();
-
-      // Updates Flowlayout's max right bound if current child's right bound exceeds it.
-      if (childRight > maxChildRight) {
-        maxChildRight = childRight;
-      }
-
-      childLeft += (leftMargin + rightMargin + child.getMeasuredWidth()) + itemSpacing;
+    boolean isRtl = ViewCompat.getLayoutDirection(this) == LAYOUT_DIRECTION_RTL;
+    int paddingStart = isRtl ? getPaddingRight() : getPaddingLeft();
+    int paddingEnd = isRtl ? getPaddingLeft() : getPaddingRight();
 
-      // For all preceding children, the child's right margin is taken into account in the next
-      // child's left bound (childLeft). However, childLeft is ignored after the last child so the
-      // last child's right margin needs to be explicitly added to Flowlayout's max right bound.
-      if (i == (getChildCount() - 1)) {
-        maxChildRight += rightMargin;
+    final int childCount = getChildCount();
+    lineBreaks.setUp(
+        childCount,
+        paddingStart,
+        getPaddingTop(),
+        maxWidth - paddingEnd,
+        lineSpacing,
+        itemSpacing,
+        singleLine);
+    for (int i = 0; i < childCount; i++) {
+      View child = getChildAt(i);
+      if (child.getVisibility() != View.GONE) {
+        measureChild(child, widthMeasureSpec, heightMeasureSpec);
       }
+      lineBreaks.setChild(i, child);
     }
+    lineBreaks.compute();
 
-    maxChildRight += getPaddingRight();
-    childBottom += getPaddingBottom();
-
-    int finalWidth = getMeasuredDimension(width, widthMode, maxChildRight);
-    int finalHeight = getMeasuredDimension(height, heightMode, childBottom);
+    int finalWidth = getMeasuredDimension(width, widthMode, lineBreaks.contentEnd + paddingEnd);
+    int finalHeight =
+        getMeasuredDimension(height, heightMode, lineBreaks.contentBottom + getPaddingBottom());
     setMeasuredDimension(finalWidth, finalHeight);
   }
 
@@ -182,7 +152,8 @@ public class FlowLayout extends ViewGroup {
 
   @Override
   protected void onLayout(boolean sizeChanged, int left, int top, int right, int bottom) {
-    if (getChildCount() == 0) {
+    final int childCount = getChildCount();
+    if (childCount == 0) {
       // Do not re-layout when there are no children.
       return;
     }
@@ -190,47 +161,273 @@ public class FlowLayout extends ViewGroup {
     boolean isRtl = ViewCompat.getLayoutDirection(this) == LAYOUT_DIRECTION_RTL;
     int paddingStart = isRtl ? getPaddingRight() : getPaddingLeft();
     int paddingEnd = isRtl ? getPaddingLeft() : getPaddingRight();
-    int childStart = paddingStart;
-    int childTop = getPaddingTop();
-    int childBottom = childTop;
-    int childEnd;
-
     final int maxChildEnd = right - left - paddingEnd;
 
-    for (int i = 0; i < getChildCount(); i++) {
+    if (!lineBreaks.canLayout(
+        this, paddingStart, getPaddingTop(), maxChildEnd, lineSpacing, itemSpacing, singleLine)) {
+      // The line breaks from the measure pass don't apply to the laid out width, compute them
+      // again.
+      lineBreaks.setUp(
+          childCount,
+          paddingStart,
+          getPaddingTop(),
+          maxChildEnd,
+          lineSpacing,
+          itemSpacing,
+          singleLine);
+      for (int i = 0; i < childCount; i++) {
+        lineBreaks.setChild(i, getChildAt(i));
+      }
+      lineBreaks.compute();
+    }
+
+    for (int i = 0; i < childCount; i++) {
       View child = getChildAt(i);
 
       if (child.getVisibility() == View.GONE) {
         continue;
       }
 
-      LayoutParams lp = child.getLayoutParams();
+      int childStart = lineBreaks.starts[i];
+      int startMargin = lineBreaks.startMargins[i];
+      int childTop = lineBreaks.tops[i];
+      int childEnd = childStart + startMargin + child.getMeasuredWidth();
+      int childBottom = childTop + child.getMeasuredHeight();
+
+      if (isRtl) {
+        child.layout(
+            maxChildEnd - childEnd, childTop, maxChildEnd - childStart - startMargin, childBottom);
+      } else {
+        child.layout(childStart + startMargin, childTop, childEnd, childBottom);
+      }
+    }
+  }
+
+  /**
+   * Where the children of a FlowLayout go, computed once per measure pass and reused to lay them
+   * out.
+   *
+   * <p>The walk that places the children is resumed from the first child whose size or margins
+   * changed since the last pass, since the children before it keep their positions. Changing the
+   * text of a single chip only reflows the chips after it.
+   */
+  private static final class LineBreaks {
+
+    private static final int GONE_WIDTH = -1;
+
+    // The parameters the line breaks were computed for.
+    private int childCount = -1;
+    private int paddingStart;
+    private int paddingTop;
+    private int maxChildEnd;
+    private int lineSpacing;
+    private int itemSpacing;
+    private boolean singleLine;
+
+    // The index of the first child whose position needs to be computed again.
+    private int firstInvalidChild;
+
+    // The size and margins of each child, with a width of GONE_WIDTH if the child is gone.
+    private int[] widths = new int[0];
+    private int[] heights = new int[0];
+    int[] startMargins = new int[0];
+    private int[] endMargins = new int[0];
+
+    // Where each child starts, not including its start margin, and its top.
+    int[] starts = new int[0];
+    int[] tops = new int[0];
+
+    // The state of the walk before each child, so that it can be resumed from any child.
+    private int[] walkStarts = new int[0];
+    private int[] walkTops = new int[0];
+    private int[] walkBottoms = new int[0];
+    private int[] walkMaxEnds = new int[0];
+    private int[] walkMaxFittingEnds = new int[0];
+    private int[] walkMinOverflowingEnds = new int[0];
+
+    // The end of the widest line, and the bottom of the last child.
+    int contentEnd;
+    int contentBottom;
+
+    // The largest end of a child which fit on its line, and the smallest end of a child which
+    // didn't and started a new line. The same line breaks apply to any max child end in between.
+    private int maxFittingEnd;
+    private int minOverflowingEnd;
+
+    void setUp(
+        int childCount,
+        int paddingStart,
+        int paddingTop,
+        int maxChildEnd,
+        int lineSpacing,
+        int itemSpacing,
+        boolean singleLine) {
+      if (childCount != this.childCount
+          || paddingStart != this.paddingStart
+          || paddingTop != this.paddingTop
+          || maxChildEnd != this.maxChildEnd
+          || lineSpacing != this.lineSpacing
+          || itemSpacing != this.itemSpacing
+          || singleLine != this.singleLine) {
+        firstInvalidChild = 0;
+      } else {
+        firstInvalidChild = childCount;
+      }
+      if (childCount > widths.length) {
+        int capacity = Math.max(childCount, widths.length * 2);
+        widths = new int[capacity];
+        heights = new int[capacity];
+        startMargins = new int[capacity];
+        endMargins = new int[capacity];
+        starts = new int[capacity];
+        tops = new int[capacity];
+        walkStarts = new int[capacity];
+        walkTops = new int[capacity];
+        walkBottoms = new int[capacity];
+        walkMaxEnds = new int[capacity];
+        walkMaxFittingEnds = new int[capacity];
+        walkMinOverflowingEnds = new int[capacity];
+      }
+      this.childCount = childCount;
+      this.paddingStart = paddingStart;
+      this.paddingTop = paddingTop;
+      this.maxChildEnd = maxChildEnd;
+      this.lineSpacing = lineSpacing;
+      this.itemSpacing = itemSpacing;
+      this.singleLine = singleLine;
+    }
+
+    /** Records the measured size of the child at {@code index}. */
+    void setChild(int index, View child) {
+      int width = child.getVisibility() == View.GONE ? GONE_WIDTH : child.getMeasuredWidth();
+      int height = child.getMeasuredHeight();
       int startMargin = 0;
       int endMargin = 0;
+      LayoutParams lp = child.getLayoutParams();
       if (lp instanceof MarginLayoutParams) {
         MarginLayoutParams marginLp = (MarginLayoutParams) lp;
         startMargin = MarginLayoutParamsCompat.getMarginStart(marginLp);
         endMargin = MarginLayoutParamsCompat.getMarginEnd(marginLp);
       }
 
-      childEnd = childStart + startMargin + child.getMeasuredWidth();
+      if (index < firstInvalidChild
+          && (width != widths[index]
+              || height != heights[index]
+              || startMargin != startMargins[index]
+              || endMargin != endMargins[index])) {
+        firstInvalidChild = index;
+      }
+      widths[index] = width;
+      heights[index] = height;
+      startMargins[index] = startMargin;
+      endMargins[index] = endMargin;
+    }
 
-      if (!singleLine && (childEnd > maxChildEnd)) {
-        childStart = paddingStart;
-        childTop = childBottom + lineSpacing;
+    /** Computes the positions of the children from the first one whose size changed. */
+    void compute() {
+      if (firstInvalidChild == childCount && childCount > 0) {
+        return;
       }
 
-      childEnd = childStart + startMargin + child.getMeasuredWidth();
-      childBottom = childTop + child.getMeasuredHeight();
+      int childStart = paddingStart;
+      int childTop = paddingTop;
+      int childBottom = paddingTop;
+      int maxEnd = 0;
+      int maxFittingEnd = Integer.MIN_VALUE;
+      int minOverflowingEnd = Integer.MAX_VALUE;
+      if (firstInvalidChild > 0) {
+        int i = firstInvalidChild;
+        childStart = walkStarts[i];
+        childTop = walkTops[i];
+        childBottom = walkBottoms[i];
+        maxEnd = walkMaxEnds[i];
+        maxFittingEnd = walkMaxFittingEnds[i];
+        minOverflowingEnd = walkMinOverflowingEnds[i];
+      }
 
-      if (isRtl) {
-        child.layout(
-            maxChildEnd - childEnd, childTop, maxChildEnd - childStart - startMargin, childBottom);
-      } else {
-        child.layout(childStart + startMargin, childTop, childEnd, childBottom);
+      for (int i = firstInvalidChild; i < childCount; i++) {
+        walkStarts[i] = childStart;
+        walkTops[i] = childTop;
+        walkBottoms[i] = childBottom;
+        walkMaxEnds[i] = maxEnd;
+        walkMaxFittingEnds[i] = maxFittingEnd;
+        walkMinOverflowingEnds[i] = minOverflowingEnd;
+
+        if (widths[i] == GONE_WIDTH) {
+          continue;
+        }
+
+        int childEnd = childStart + startMargins[i] + widths[i];
+
+        // If the current child's end bound exceeds the max end bound and flowlayout is not
+        // confined to a single line, move this child to the next line and reset its start bound
+        // to flowlayout's start bound.
+        if (!singleLine) {
+          if (childEnd > maxChildEnd) {
+            childStart = paddingStart;
+            childTop = childBottom + lineSpacing;
+            minOverflowingEnd = Math.min(minOverflowingEnd, childEnd);
+          } else {
+            maxFittingEnd = Math.max(maxFittingEnd, childEnd);
+          }
+        }
+
+        childEnd = childStart + startMargins[i] + widths[i];
+        childBottom = childTop + heights[i];
+        starts[i] = childStart;
+        tops[i] = childTop;
+
+        // Updates the max end bound if current child's end bound exceeds it.
+        maxEnd = Math.max(maxEnd, childEnd);
+
+        childStart += startMargins[i] + widths[i] + endMargins[i] + itemSpacing;
+      }
+
+      // For all preceding children, the child's end margin is taken into account in the next
+      // child's start bound. However, that is ignored after the last child so the last child's end
+      // margin needs to be explicitly added to the max end bound.
+      if (childCount > 0 && widths[childCount - 1] != GONE_WIDTH) {
+        maxEnd += endMargins[childCount - 1];
       }
+      contentEnd = maxEnd;
+      contentBottom = childBottom;
+      this.maxFittingEnd = maxFittingEnd;
+      this.minOverflowingEnd = minOverflowingEnd;
+      firstInvalidChild = childCount;
+    }
 
-      childStart += (startMargin + endMargin + child.getMeasuredWidth()) + itemSpacing;
+    /**
+     * Returns whether the computed positions can be used to lay out the children of {@code
+     * parent} with the given parameters.
+     */
+    boolean canLayout(
+        ViewGroup parent,
+        int paddingStart,
+        int paddingTop,
+        int maxChildEnd,
+        int lineSpacing,
+        int itemSpacing,
+        boolean singleLine) {
+      if (parent.getChildCount() != childCount
+          || firstInvalidChild != childCount
+          || paddingStart != this.paddingStart
+          || paddingTop != this.paddingTop
+          || lineSpacing != this.lineSpacing
+          || itemSpacing != this.itemSpacing
+          || singleLine != this.singleLine) {
+        return false;
+      }
+      if (!singleLine && (maxChildEnd < maxFittingEnd || maxChildEnd >= minOverflowingEnd)) {
+        return false;
+      }
+      for (int i = 0; i < childCount; i++) {
+        View child = parent.getChildAt(i);
+        int width = child.getVisibility() == View.GONE ? GONE_WIDTH : child.getMeasuredWidth();
+        if (width != widths[i] || child.getMeasuredHeight() != heights[i]) {
+          return false;
+        }
+      }
+      return true;
     }
   }
 }
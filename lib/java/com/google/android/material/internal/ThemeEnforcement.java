@@ -21,15 +21,20 @@ import com.google.android.material.R;
 import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP;
 
 import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
 import android.content.res.TypedArray;
 import androidx.annotation.AttrRes;
 import androidx.annotation.RestrictTo;
 import androidx.annotation.StyleRes;
 import androidx.annotation.StyleableRes;
+import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.view.ContextThemeWrapper;
 import androidx.appcompat.widget.TintTypedArray;
 import android.util.AttributeSet;
 import android.util.TypedValue;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Utility methods to check Theme compatibility with components.
@@ -49,6 +54,16 @@ public final class ThemeEnforcement {
       new int[] {android.R.attr.theme, R.attr.theme};
   private static final int[] MATERIAL_THEME_OVERLAY_ATTR = new int[] {R.attr.materialThemeOverlay};
 
+  private static final int APPCOMPAT_THEME = 1;
+  private static final int MATERIAL_THEME = 1 << 1;
+
+  // The themes which passed the checks enforced on components, so that inflating many components
+  // in the same theme only resolves the check attributes once. Only passing checks are remembered,
+  // since applying more styles to a theme can make it pass a check. A theme whose contents are
+  // replaced with Theme.setTo() keeps the checks it passed before, so the cache is only used to
+  // enforce themes: isAppCompatTheme() and isMaterialTheme() always check the current attributes.
+  private static final Map<Resources.Theme, ThemeChecks> themeChecks = new WeakHashMap<>();
+
   private ThemeEnforcement() {}
 
   /**
@@ -74,14 +89,18 @@ public final class ThemeEnforcement {
       @StyleRes int defStyleRes,
       @StyleableRes int... textAppearanceResIndices) {
 
-    // First, check for a compatible theme.
-    checkCompatibleTheme(context, set, defStyleAttr, defStyleRes);
+    // First, check for a compatible theme, and whether a textAppearance needs to be set.
+    boolean enforceTextAppearance =
+        checkCompatibleTheme(context, set, defStyleAttr, defStyleRes, textAppearanceResIndices);
+
+    // Then, retrieve the styled attribute information.
+    TypedArray a = context.obtainStyledAttributes(set, attrs, defStyleAttr, defStyleRes);
 
     // Then, check that a textAppearance is set if enforceTextAppearance attribute is true
-    checkTextAppearance(context, set, attrs, defStyleAttr, defStyleRes, textAppearanceResIndices);
-
-    // Then, safely retrieve the styled attribute information.
-    return context.obtainStyledAttributes(set, attrs, defStyleAttr, defStyleRes);
+    if (enforceTextAppearance) {
+      checkTextAppearance(a, textAppearanceResIndices);
+    }
+    return a;
   }
 
   /**
@@ -112,107 +131,110 @@ public final class ThemeEnforcement {
       @StyleRes int defStyleRes,
       @StyleableRes int... textAppearanceResIndices) {
 
-    // First, check for a compatible theme.
-    checkCompatibleTheme(context, set, defStyleAttr, defStyleRes);
-
-    // Then, check that a textAppearance is set if enforceTextAppearance attribute is true
-    checkTextAppearance(context, set, attrs, defStyleAttr, defStyleRes, textAppearanceResIndices);
-
-    // Then, safely retrieve the styled attribute information.
-    return TintTypedArray.obtainStyledAttributes(context, set, attrs, defStyleAttr, defStyleRes);
-  }
-
-  private static void checkCompatibleTheme(
-      Context context, AttributeSet set, @AttrRes int defStyleAttr, @StyleRes int defStyleRes) {
-    TypedArray a =
-        context.obtainStyledAttributes(
-            set, R.styleable.ThemeEnforcement, defStyleAttr, defStyleRes);
-    boolean enforceMaterialTheme =
-        a.getBoolean(R.styleable.ThemeEnforcement_enforceMaterialTheme, false);
-    a.recycle();
+    // First, check for a compatible theme, and whether a textAppearance needs to be set.
+    boolean enforceTextAppearance =
+        checkCompatibleTheme(context, set, defStyleAttr, defStyleRes, textAppearanceResIndices);
 
-    if (enforceMaterialTheme) {
-      TypedValue isMaterialTheme = new TypedValue();
-      boolean resolvedValue =
-          context.getTheme().resolveAttribute(R.attr.isMaterialTheme, isMaterialTheme, true);
+    // Then, retrieve the styled attribute information.
+    TintTypedArray a =
+        TintTypedArray.obtainStyledAttributes(context, set, attrs, defStyleAttr, defStyleRes);
 
-      if (!resolvedValue
-          || (isMaterialTheme.type == TypedValue.TYPE_INT_BOOLEAN && isMaterialTheme.data == 0)) {
-        // If we were unable to resolve isMaterialTheme boolean attribute, or isMaterialTheme is
-        // false, check for Material Theme color attributes
-        checkMaterialTheme(context);
-      }
+    // Then, check that a textAppearance is set if enforceTextAppearance attribute is true
+    if (enforceTextAppearance) {
+      // The wrapped TypedArray is the one recycled by the TintTypedArray, so it's checked directly.
+      checkTextAppearance(a.getWrappedTypeArray(), textAppearanceResIndices);
     }
-    checkAppCompatTheme(context);
+    return a;
   }
 
-  private static void checkTextAppearance(
+  /**
+   * Checks that the theme is compatible with the component's style, and whether the component's
+   * custom text appearances need to be checked once its attributes are retrieved.
+   *
+   * <p>Both checks read their flags from a single lookup of the component's style.
+   *
+   * @throws IllegalArgumentException if the theme isn't compatible, or if the component must have
+   *     an {@code android:textAppearance} and doesn't
+   */
+  private static boolean checkCompatibleTheme(
       Context context,
       AttributeSet set,
-      @StyleableRes int[] attrs,
       @AttrRes int defStyleAttr,
       @StyleRes int defStyleRes,
       @StyleableRes int... textAppearanceResIndices) {
     TypedArray themeEnforcementAttrs =
         context.obtainStyledAttributes(
             set, R.styleable.ThemeEnforcement, defStyleAttr, defStyleRes);
+    boolean enforceMaterialTheme =
+        themeEnforcementAttrs.getBoolean(R.styleable.ThemeEnforcement_enforceMaterialTheme, false);
     boolean enforceTextAppearance =
         themeEnforcementAttrs.getBoolean(R.styleable.ThemeEnforcement_enforceTextAppearance, false);
-
-    if (!enforceTextAppearance) {
-      themeEnforcementAttrs.recycle();
-      return;
-    }
-
-    boolean validTextAppearance;
-
-    if (textAppearanceResIndices == null || textAppearanceResIndices.length == 0) {
+    boolean checkCustomTextAppearances =
+        textAppearanceResIndices != null && textAppearanceResIndices.length > 0;
+    boolean validTextAppearance = true;
+    if (enforceTextAppearance && !checkCustomTextAppearances) {
       // No custom TextAppearance attributes passed in, check android:textAppearance
       validTextAppearance =
           themeEnforcementAttrs.getResourceId(
                   R.styleable.ThemeEnforcement_android_textAppearance, -1)
               != -1;
-    } else {
-      // Check custom TextAppearances are valid
-      validTextAppearance =
-          isCustomTextAppearanceValid(
-              context, set, attrs, defStyleAttr, defStyleRes, textAppearanceResIndices);
     }
-
     themeEnforcementAttrs.recycle();
 
+    if (enforceMaterialTheme) {
+      TypedValue isMaterialTheme = new TypedValue();
+      boolean resolvedValue =
+          context.getTheme().resolveAttribute(R.attr.isMaterialTheme, isMaterialTheme, true);
+
+      if (!resolvedValue
+          || (isMaterialTheme.type == TypedValue.TYPE_INT_BOOLEAN && isMaterialTheme.data == 0)) {
+        // If we were unable to resolve isMaterialTheme boolean attribute, or isMaterialTheme is
+        // false, check for Material Theme color attributes
+        checkMaterialTheme(context);
+      }
+    }
+    checkAppCompatTheme(context);
+
     if (!validTextAppearance) {
-      throw new IllegalArgumentException(
-          "This component requires that you specify a valid TextAppearance attribute. Update your "
-              + "app theme to inherit from Theme.MaterialComponents (or a descendant).");
+      throwInvalidTextAppearance();
     }
+    return enforceTextAppearance && checkCustomTextAppearances;
   }
 
-  private static boolean isCustomTextAppearanceValid(
-      Context context,
-      AttributeSet set,
-      @StyleableRes int[] attrs,
-      @AttrRes int defStyleAttr,
-      @StyleRes int defStyleRes,
-      @StyleableRes int... textAppearanceResIndices) {
-    TypedArray componentAttrs =
-        context.obtainStyledAttributes(set, attrs, defStyleAttr, defStyleRes);
+  /**
+   * Checks that the custom TextAppearances in the component's attributes are valid, recycling the
+   * attributes if they aren't.
+   */
+  private static void checkTextAppearance(
+      TypedArray componentAttrs, @StyleableRes int... textAppearanceResIndices) {
+    if (!hasTextAppearances(componentAttrs, textAppearanceResIndices)) {
+      componentAttrs.recycle();
+      throwInvalidTextAppearance();
+    }
+  }
+
+  private static boolean hasTextAppearances(
+      TypedArray componentAttrs, @StyleableRes int... textAppearanceResIndices) {
     for (int customTextAppearanceIndex : textAppearanceResIndices) {
       if (componentAttrs.getResourceId(customTextAppearanceIndex, -1) == -1) {
-        componentAttrs.recycle();
         return false;
       }
     }
-    componentAttrs.recycle();
     return true;
   }
 
+  private static void throwInvalidTextAppearance() {
+    throw new IllegalArgumentException(
+        "This component requires that you specify a valid TextAppearance attribute. Update your "
+            + "app theme to inherit from Theme.MaterialComponents (or a descendant).");
+  }
+
   public static void checkAppCompatTheme(Context context) {
-    checkTheme(context, APPCOMPAT_CHECK_ATTRS, APPCOMPAT_THEME_NAME);
+    checkTheme(context, APPCOMPAT_CHECK_ATTRS, APPCOMPAT_THEME, APPCOMPAT_THEME_NAME);
   }
 
   public static void checkMaterialTheme(Context context) {
-    checkTheme(context, MATERIAL_CHECK_ATTRS, MATERIAL_THEME_NAME);
+    checkTheme(context, MATERIAL_CHECK_ATTRS, MATERIAL_THEME, MATERIAL_THEME_NAME);
   }
 
   public static boolean isAppCompatTheme(Context context) {
@@ -235,13 +257,55 @@ public final class ThemeEnforcement {
     return true;
   }
 
-  private static void checkTheme(Context context, int[] themeAttributes, String themeName) {
+  private static void checkTheme(
+      Context context, int[] themeAttributes, int themeFlag, String themeName) {
+    Resources.Theme theme = context.getTheme();
+    Configuration configuration = context.getResources().getConfiguration();
+    synchronized (themeChecks) {
+      ThemeChecks checks = themeChecks.get(theme);
+      if (checks != null && checks.passes(themeFlag, configuration)) {
+        return;
+      }
+    }
+
     if (!isTheme(context, themeAttributes)) {
       throw new IllegalArgumentException(
           "The style on this component requires your app theme to be "
               + themeName
               + " (or a descendant).");
     }
+    synchronized (themeChecks) {
+      ThemeChecks checks = themeChecks.get(theme);
+      if (checks == null || !checks.configuration.equals(configuration)) {
+        // The theme is new, or it was rebased on a new configuration and its attributes may have
+        // been resolved differently, so forget the checks it passed before.
+        checks = new ThemeChecks(configuration);
+        themeChecks.put(theme, checks);
+      }
+      checks.passedThemes |= themeFlag;
+    }
+  }
+
+  /** Clears the theme checks remembered so far, so that every theme is checked again. */
+  @VisibleForTesting
+  static void clearThemeChecks() {
+    synchronized (themeChecks) {
+      themeChecks.clear();
+    }
+  }
+
+  /** The checks a theme passed, and the configuration its attributes were resolved for. */
+  private static final class ThemeChecks {
+    final Configuration configuration;
+    int passedThemes;
+
+    ThemeChecks(Configuration configuration) {
+      this.configuration = new Configuration(configuration);
+    }
+
+    boolean passes(int themeFlag, Configuration configuration) {
+      return (passedThemes & themeFlag) != 0 && this.configuration.equals(configuration);
+    }
   }
 
   /**
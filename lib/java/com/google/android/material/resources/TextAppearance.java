@@ -216,6 +216,13 @@ public class TextAppearance {
     // Updates text paint using fallback font while waiting for font to be requested.
     updateTextPaintMeasureState(textPaint, getFallbackFont());
 
+    if (fontResolved) {
+      // The fallback font is the resolved font, so there's no need to wrap the callback. This is
+      // called every time a text appearance is drawn, which shouldn't allocate.
+      callback.onFontRetrieved(font, true);
+      return;
+    }
+
     getFontAsync(
         context,
         new TextAppearanceFontCallback() {
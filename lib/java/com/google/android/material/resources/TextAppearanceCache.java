@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.resources;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.RestrictTo.Scope;
+import androidx.annotation.StyleRes;
+import androidx.collection.LruCache;
+import java.util.WeakHashMap;
+
+/**
+ * A cache of parsed {@link TextAppearance}s, keyed on the theme they were parsed with and their
+ * style resource.
+ *
+ * <p>Views which share a theme and a text appearance, such as the chips of a chip group, share a
+ * single {@link TextAppearance}. The style is only parsed once, and its font is only resolved once.
+ * The cached text appearances of a theme are dropped when the configuration of its resources
+ * changes, and when the theme is garbage collected.
+ *
+ * @hide
+ */
+@RestrictTo(Scope.LIBRARY_GROUP)
+public final class TextAppearanceCache {
+
+  /** Maximum number of text appearances cached per theme. */
+  private static final int MAX_TEXT_APPEARANCES_PER_THEME = 32;
+
+  private static final WeakHashMap<Resources.Theme, ThemeTextAppearances> cache =
+      new WeakHashMap<>();
+
+  private TextAppearanceCache() {}
+
+  /**
+   * Returns the {@link TextAppearance} for the style resource {@code id}, parsed with the theme of
+   * {@code context}.
+   */
+  @NonNull
+  public static TextAppearance get(@NonNull Context context, @StyleRes int id) {
+    Resources.Theme theme = context.getTheme();
+    Configuration configuration = context.getResources().getConfiguration();
+    synchronized (cache) {
+      ThemeTextAppearances textAppearances = cache.get(theme);
+      if (textAppearances == null) {
+        textAppearances = new ThemeTextAppearances(configuration);
+        cache.put(theme, textAppearances);
+      } else if (!textAppearances.configuration.equals(configuration)) {
+        // Text sizes, colors and fonts may depend on the configuration.
+        textAppearances.configuration.setTo(configuration);
+        textAppearances.evictAll();
+      }
+
+      TextAppearance textAppearance = textAppearances.get(id);
+      if (textAppearance == null) {
+        textAppearance = new TextAppearance(context, id);
+        textAppearances.put(id, textAppearance);
+      }
+      return textAppearance;
+    }
+  }
+
+  /** Drops all cached text appearances. */
+  public static void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  /** The text appearances cached for a single theme. */
+  private static final class ThemeTextAppearances extends LruCache<Integer, TextAppearance> {
+
+    /** The configuration the text appearances were parsed with. */
+    final Configuration configuration;
+
+    ThemeTextAppearances(Configuration configuration) {
+      super(MAX_TEXT_APPEARANCES_PER_THEME);
+      this.configuration = new Configuration(configuration);
+    }
+  }
+}
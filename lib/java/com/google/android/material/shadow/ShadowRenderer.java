@@ -29,6 +29,7 @@ import android.graphics.RectF;
 import android.graphics.Region.Op;
 import android.graphics.Shader;
 import androidx.annotation.RestrictTo;
+import androidx.collection.LruCache;
 import androidx.core.graphics.ColorUtils;
 
 /**
@@ -46,6 +47,21 @@ public class ShadowRenderer {
 
   private static final int COLOR_ALPHA_END = 0;
 
+  /** Maximum number of distinct shadow gradients shared between all renderers. */
+  private static final int MAX_CACHED_GRADIENTS = 64;
+
+  private static final int GRADIENT_EDGE = 0;
+  private static final int GRADIENT_CORNER_OUTSIDE = 1;
+  private static final int GRADIENT_CORNER_INSIDE = 2;
+
+  /**
+   * Gradients shared by all renderers. Gradients are always created relative to the origin, so the
+   * same {@link Shader} can be used for every edge with the same elevation and for every corner
+   * with the same radius and elevation, regardless of where they are drawn.
+   */
+  private static final LruCache<GradientKey, Shader> gradientCache =
+      new LruCache<>(MAX_CACHED_GRADIENTS);
+
   private final Paint shadowPaint;
   private final Paint cornerShadowPaint;
   private final Paint edgeShadowPaint;
@@ -63,6 +79,7 @@ public class ShadowRenderer {
   private static final float[] cornerPositions = new float[] {0f, 0f, .5f, 1f};
 
   private final Path scratch = new Path();
+  private final GradientKey scratchGradientKey = new GradientKey();
 
   public ShadowRenderer() {
     this(Color.BLACK);
@@ -91,22 +108,16 @@ public class ShadowRenderer {
     bounds.bottom += elevation;
     bounds.offset(0, -elevation);
 
-    edgeColors[0] = shadowEndColor;
-    edgeColors[1] = shadowMiddleColor;
-    edgeColors[2] = shadowStartColor;
+    // Draw the edge relative to its top left so that the gradient only depends on the elevation.
+    float left = bounds.left;
+    float top = bounds.top;
+    bounds.offset(-left, -top);
 
-    edgeShadowPaint.setShader(
-        new LinearGradient(
-            bounds.left,
-            bounds.top,
-            bounds.left,
-            bounds.bottom,
-            edgeColors,
-            edgePositions,
-            Shader.TileMode.CLAMP));
+    edgeShadowPaint.setShader(getEdgeGradient(bounds.height()));
 
     canvas.save();
     canvas.concat(transform);
+    canvas.translate(left, top);
     canvas.drawRect(bounds, edgeShadowPaint);
     canvas.restore();
   }
@@ -124,45 +135,32 @@ public class ShadowRenderer {
 
     boolean drawShadowInsideBounds = sweepAngle < 0;
 
+    // Draw the corner relative to its center so that the gradient only depends on the radius and
+    // the elevation.
+    float centerX = bounds.centerX();
+    float centerY = bounds.centerY();
+    bounds.offset(-centerX, -centerY);
+
     Path arcBounds = scratch;
 
-    if (drawShadowInsideBounds) {
-      cornerColors[0] = 0;
-      cornerColors[1] = shadowEndColor;
-      cornerColors[2] = shadowMiddleColor;
-      cornerColors[3] = shadowStartColor;
-    } else {
+    if (!drawShadowInsideBounds) {
       // Calculate the arc bounds to prevent drawing shadow in the same part of the arc.
       arcBounds.rewind();
-      arcBounds.moveTo(bounds.centerX(), bounds.centerY());
+      arcBounds.moveTo(0, 0);
       arcBounds.arcTo(bounds, startAngle, sweepAngle);
       arcBounds.close();
 
       bounds.inset(-elevation, -elevation);
-      cornerColors[0] = 0;
-      cornerColors[1] = shadowStartColor;
-      cornerColors[2] = shadowMiddleColor;
-      cornerColors[3] = shadowEndColor;
     }
 
-    float startRatio = 1f - (elevation / (bounds.width() / 2f));
-    float midRatio = startRatio + ((1f - startRatio) / 2f);
-    cornerPositions[1] = startRatio;
-    cornerPositions[2] = midRatio;
-
     cornerShadowPaint.setShader(
-        new RadialGradient(
-            bounds.centerX(),
-            bounds.centerY(),
-            bounds.width() / 2,
-            cornerColors,
-            cornerPositions,
-            Shader.TileMode.CLAMP));
+        getCornerGradient(bounds.width() / 2, elevation, drawShadowInsideBounds));
 
     // TODO: handle oval bounds by scaling the canvas.
 
     canvas.save();
     canvas.concat(matrix);
+    canvas.translate(centerX, centerY);
 
     if (!drawShadowInsideBounds) {
       canvas.clipPath(arcBounds, Op.DIFFERENCE);
@@ -175,4 +173,99 @@ public class ShadowRenderer {
   public Paint getShadowPaint() {
     return shadowPaint;
   }
+
+  /** Returns the shared gradient for an edge shadow of the given height starting at the origin. */
+  private Shader getEdgeGradient(float height) {
+    GradientKey key = scratchGradientKey.set(GRADIENT_EDGE, height, 0, shadowStartColor);
+    Shader gradient = gradientCache.get(key);
+    if (gradient == null) {
+      edgeColors[0] = shadowEndColor;
+      edgeColors[1] = shadowMiddleColor;
+      edgeColors[2] = shadowStartColor;
+      gradient =
+          new LinearGradient(0, 0, 0, height, edgeColors, edgePositions, Shader.TileMode.CLAMP);
+      gradientCache.put(new GradientKey(key), gradient);
+    }
+    return gradient;
+  }
+
+  /** Returns the shared gradient for a corner shadow of the given radius centered at the origin. */
+  private Shader getCornerGradient(float radius, int elevation, boolean drawShadowInsideBounds) {
+    GradientKey key =
+        scratchGradientKey.set(
+            drawShadowInsideBounds ? GRADIENT_CORNER_INSIDE : GRADIENT_CORNER_OUTSIDE,
+            radius,
+            elevation,
+            shadowStartColor);
+    Shader gradient = gradientCache.get(key);
+    if (gradient == null) {
+      if (drawShadowInsideBounds) {
+        cornerColors[0] = 0;
+        cornerColors[1] = shadowEndColor;
+        cornerColors[2] = shadowMiddleColor;
+        cornerColors[3] = shadowStartColor;
+      } else {
+        cornerColors[0] = 0;
+        cornerColors[1] = shadowStartColor;
+        cornerColors[2] = shadowMiddleColor;
+        cornerColors[3] = shadowEndColor;
+      }
+
+      float startRatio = 1f - (elevation / radius);
+      float midRatio = startRatio + ((1f - startRatio) / 2f);
+      cornerPositions[1] = startRatio;
+      cornerPositions[2] = midRatio;
+
+      gradient =
+          new RadialGradient(0, 0, radius, cornerColors, cornerPositions, Shader.TileMode.CLAMP);
+      gradientCache.put(new GradientKey(key), gradient);
+    }
+    return gradient;
+  }
+
+  /** Identifies a shadow gradient by its type, geometry and color. */
+  private static final class GradientKey {
+    private int type;
+    private float size;
+    private int elevation;
+    private int color;
+
+    GradientKey() {}
+
+    GradientKey(GradientKey other) {
+      set(other.type, other.size, other.elevation, other.color);
+    }
+
+    GradientKey set(int type, float size, int elevation, int color) {
+      this.type = type;
+      this.size = size;
+      this.elevation = elevation;
+      this.color = color;
+      return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof GradientKey)) {
+        return false;
+      }
+      GradientKey that = (GradientKey) o;
+      return type == that.type
+          && Float.compare(size, that.size) == 0
+          && elevation == that.elevation
+          && color == that.color;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = type;
+      result = 31 * result + Float.floatToIntBits(size);
+      result = 31 * result + elevation;
+      result = 31 * result + color;
+      return result;
+    }
+  }
 }
@@ -27,6 +27,7 @@ package com.google.android.material.shape;
 public class CornerTreatment implements Cloneable {
 
   protected float cornerSize;
+  private boolean frozen;
 
   public CornerTreatment() {
     // Default Constructor has no size. Using this treatment for all corners will draw a square
@@ -61,13 +62,28 @@ public class CornerTreatment implements Cloneable {
   }
 
   public void setCornerSize(float cornerSize) {
+    if (frozen) {
+      throw new UnsupportedOperationException(
+          "This CornerTreatment belongs to an immutable ShapeAppearanceModel. Use clone() to"
+              + " create a modifiable copy.");
+    }
     this.cornerSize = cornerSize;
   }
 
+  /**
+   * Makes {@link #setCornerSize(float)} throw, so that the treatment can be shared by an immutable
+   * {@link ShapeAppearanceModel}. Clones of a frozen treatment are not frozen.
+   */
+  void freeze() {
+    frozen = true;
+  }
+
   @Override
   public CornerTreatment clone() {
     try {
-      return (CornerTreatment) super.clone();
+      CornerTreatment clone = (CornerTreatment) super.clone();
+      clone.frozen = false;
+      return clone;
     } catch (CloneNotSupportedException e) {
       throw new AssertionError(e); // This should never happen, because CornerTreatment handles the
       // cloning, so all subclasses of CornerTreatment will support cloning.
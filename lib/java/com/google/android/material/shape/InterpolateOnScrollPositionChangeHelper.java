@@ -18,24 +18,28 @@ package com.google.android.material.shape;
 
 import android.view.View;
 import android.view.ViewTreeObserver;
-import android.view.ViewTreeObserver.OnScrollChangedListener;
 import android.widget.ScrollView;
 
-/** Helper class to handle shape interpolation when shaped views enter or exit the window. */
+/**
+ * Helper class to handle shape interpolation when shaped views enter or exit the window.
+ *
+ * <p>All helpers listening to the same {@link ScrollView} share a single scroll listener, and are
+ * updated together right before the next frame is drawn.
+ */
 public class InterpolateOnScrollPositionChangeHelper {
 
+  /** Interpolation changes smaller than this are not visible, and don't trigger a redraw. */
+  private static final float INTERPOLATION_EPSILON = 0.001f;
+
   private View shapedView;
   private MaterialShapeDrawable materialShapeDrawable;
   private ScrollView containingScrollView;
   private final int[] scrollLocation = new int[2];
   private final int[] containerLocation = new int[2];
-  private final ViewTreeObserver.OnScrollChangedListener scrollChangedListener =
-      new OnScrollChangedListener() {
-        @Override
-        public void onScrollChanged() {
-          updateInterpolationForScreenPosition();
-        }
-      };
+
+  // The scroll view this helper is registered with, if it's listening for scroll changes.
+  private ScrollView registeredScrollView;
+  private ViewTreeObserver viewTreeObserver;
 
   /**
    * Instantiate a scroll position helper.
@@ -70,6 +74,9 @@ public class InterpolateOnScrollPositionChangeHelper {
    */
   public void setContainingScrollView(ScrollView containingScrollView) {
     this.containingScrollView = containingScrollView;
+    if (viewTreeObserver != null) {
+      register(viewTreeObserver);
+    }
   }
 
   /**
@@ -79,7 +86,8 @@ public class InterpolateOnScrollPositionChangeHelper {
    * interpolated.
    */
   public void startListeningForScrollChanges(ViewTreeObserver viewTreeObserver) {
-    viewTreeObserver.addOnScrollChangedListener(scrollChangedListener);
+    this.viewTreeObserver = viewTreeObserver;
+    register(viewTreeObserver);
   }
 
   /**
@@ -89,7 +97,26 @@ public class InterpolateOnScrollPositionChangeHelper {
    * interpolated.
    */
   public void stopListeningForScrollChanges(ViewTreeObserver viewTreeObserver) {
-    viewTreeObserver.removeOnScrollChangedListener(scrollChangedListener);
+    this.viewTreeObserver = null;
+    unregister();
+  }
+
+  private void register(ViewTreeObserver viewTreeObserver) {
+    if (registeredScrollView == containingScrollView) {
+      return;
+    }
+    unregister();
+    if (containingScrollView != null) {
+      ScrollInterpolationCoordinator.register(containingScrollView, this, viewTreeObserver);
+      registeredScrollView = containingScrollView;
+    }
+  }
+
+  private void unregister() {
+    if (registeredScrollView != null) {
+      ScrollInterpolationCoordinator.unregister(registeredScrollView, this);
+      registeredScrollView = null;
+    }
   }
 
   /**
@@ -109,23 +136,41 @@ public class InterpolateOnScrollPositionChangeHelper {
 
     containingScrollView.getLocationInWindow(scrollLocation);
     containingScrollView.getChildAt(0).getLocationInWindow(containerLocation);
-    int y = shapedView.getTop() - scrollLocation[1] + containerLocation[1];
+    updateInterpolation(
+        containerLocation[1] - scrollLocation[1], containingScrollView.getHeight());
+  }
+
+  /**
+   * Updates the {@link MaterialShapeDrawable}'s interpolation, and invalidates the {@link View} if
+   * the interpolation changed visibly.
+   *
+   * @param containerOffset the vertical offset of the scroll view's content from the scroll view.
+   * @param windowHeight the height of the scroll view.
+   */
+  void updateInterpolation(int containerOffset, int windowHeight) {
+    int y = shapedView.getTop() + containerOffset;
     int viewHeight = shapedView.getHeight();
-    int windowHeight = containingScrollView.getHeight();
 
-    // Off the top of the screen.
+    float interpolation;
     if (y < 0) {
-      materialShapeDrawable.setInterpolation(
-          Math.max(0f, Math.min(1f, 1f + (float) y / (float) viewHeight)));
-      shapedView.invalidate();
+      // Off the top of the screen.
+      interpolation = Math.max(0f, Math.min(1f, 1f + (float) y / (float) viewHeight));
     } else if (y + viewHeight > windowHeight) {
       int distanceOffScreen = y + viewHeight - windowHeight;
-      materialShapeDrawable.setInterpolation(
-          Math.max(0f, Math.min(1f, 1f - (float) distanceOffScreen / (float) viewHeight)));
-      shapedView.invalidate();
-    } else if (materialShapeDrawable.getInterpolation() != 1f) {
-      materialShapeDrawable.setInterpolation(1f);
-      shapedView.invalidate();
+      interpolation =
+          Math.max(0f, Math.min(1f, 1f - (float) distanceOffScreen / (float) viewHeight));
+    } else {
+      interpolation = 1f;
+    }
+
+    float currentInterpolation = materialShapeDrawable.getInterpolation();
+    if (interpolation == currentInterpolation
+        || (Math.abs(interpolation - currentInterpolation) < INTERPOLATION_EPSILON
+            && interpolation != 0f
+            && interpolation != 1f)) {
+      return;
     }
+    materialShapeDrawable.setInterpolation(interpolation);
+    shapedView.invalidate();
   }
 }
@@ -85,8 +85,23 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
    */
   public static final int SHADOW_COMPAT_MODE_ALWAYS = 2;
 
+  /**
+   * Always draw fake shadows like {@link #SHADOW_COMPAT_MODE_ALWAYS}, and keep the rendered shadow
+   * for as long as the drawable lives. The shadow is only rendered again when the shape, size or
+   * shadow changes, so drawing it is a single bitmap draw. On API 26 and above, hardware
+   * accelerated canvases draw a hardware copy of the shadow, which is only uploaded to the GPU when
+   * the shadow changes. This is best for shapes with a fake shadow which are redrawn often, e.g.
+   * while animating, at the cost of the memory used by the shadow.
+   */
+  public static final int SHADOW_COMPAT_MODE_ALWAYS_CACHED = 3;
+
   /** Determines when compatibility shadow is drawn vs. native elevation shadows. */
-  @IntDef({SHADOW_COMPAT_MODE_DEFAULT, SHADOW_COMPAT_MODE_NEVER, SHADOW_COMPAT_MODE_ALWAYS})
+  @IntDef({
+    SHADOW_COMPAT_MODE_DEFAULT,
+    SHADOW_COMPAT_MODE_NEVER,
+    SHADOW_COMPAT_MODE_ALWAYS,
+    SHADOW_COMPAT_MODE_ALWAYS_CACHED
+  })
   @Retention(RetentionPolicy.SOURCE)
   public @interface CompatibilityShadowMode {}
 
@@ -107,14 +122,24 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
   private final RectF insetRectF = new RectF();
   private final Region transparentRegion = new Region();
   private final Region scratchRegion = new Region();
-  private ShapeAppearanceModel strokeShapeAppearance;
+  private final Rect canvasClipBounds = new Rect();
+  @Nullable private Canvas shadowCanvas;
+  private final ShadowLayerCache.Key shadowLayerKey = new ShadowLayerCache.Key();
+  // Shadow layers kept by this drawable in SHADOW_COMPAT_MODE_ALWAYS_CACHED.
+  @Nullable private Bitmap pinnedShadowLayer;
+  @Nullable private Bitmap hardwareShadowLayer;
+  // Whether the last call to getShadowLayer() had to render the layer again.
+  private boolean shadowLayerRendered;
 
   private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
   private final Paint strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
 
   private final ShadowRenderer shadowRenderer = new ShadowRenderer();
+  // The color last given to the shadow renderer, whose default is black.
+  @ColorInt private int shadowColor = Color.BLACK;
   private final PathListener pathShadowListener;
   private final ShapeAppearancePathProvider pathProvider = new ShapeAppearancePathProvider();
+  private final ShapePathCache pathCache = new ShapePathCache();
 
   @Nullable private PorterDuffColorFilter tintFilter;
   @Nullable private PorterDuffColorFilter strokeTintFilter;
@@ -144,17 +169,21 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
     clearPaint.setXfermode(new PorterDuffXfermode(Mode.DST_OUT));
     updateTintFilter();
     updateColorsForState(getState(), false);
-    // Listens to additions of corners and edges, to create the shadow operations.
+    for (int i = 0; i < 4; i++) {
+      cornerShadowOperation[i] = new ShadowCompatOperation();
+      edgeShadowOperation[i] = new ShadowCompatOperation();
+    }
+    // Listens to additions of corners and edges, to update the shadow operations.
     pathShadowListener =
         new PathListener() {
           @Override
           public void onCornerPathCreated(ShapePath cornerPath, Matrix transform, int count) {
-            cornerShadowOperation[count] = cornerPath.createShadowCompatOperation(transform);
+            cornerPath.getShadowCompatOperation(transform, cornerShadowOperation[count]);
           }
 
           @Override
           public void onEdgePathCreated(ShapePath edgePath, Matrix transform, int count) {
-            edgeShadowOperation[count] = edgePath.createShadowCompatOperation(transform);
+            edgePath.getShadowCompatOperation(transform, edgeShadowOperation[count]);
           }
         };
   }
@@ -411,7 +440,13 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
   }
 
   public void setCornerRadius(float cornerRadius) {
-    drawableState.shapeAppearanceModel.setCornerRadius(cornerRadius);
+    ShapeAppearanceModel shapeAppearanceModel = drawableState.shapeAppearanceModel;
+    if (shapeAppearanceModel.isImmutable()) {
+      drawableState.shapeAppearanceModel =
+          shapeAppearanceModel.toBuilder().setCornerRadius(cornerRadius).build();
+    } else {
+      shapeAppearanceModel.setCornerRadius(cornerRadius);
+    }
     invalidateSelf();
   }
 
@@ -446,7 +481,13 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
   public void setShadowCompatibilityMode(@CompatibilityShadowMode int mode) {
     if (drawableState.shadowCompatMode != mode) {
       drawableState.shadowCompatMode = mode;
-      invalidateSelfIgnoreShape();
+      // Layers are either kept by the drawable or by the ShadowLayerCache, depending on the mode.
+      pinnedShadowLayer = null;
+      hardwareShadowLayer = null;
+      shadowLayerKey.invalidate();
+      // The shape needs to be recalculated, since the shadow operations are only calculated when
+      // they could be needed.
+      invalidateSelf();
     }
   }
 
@@ -458,8 +499,7 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
    */
   @Deprecated
   public boolean isShadowEnabled() {
-    return drawableState.shadowCompatMode == SHADOW_COMPAT_MODE_DEFAULT
-        || drawableState.shadowCompatMode == SHADOW_COMPAT_MODE_ALWAYS;
+    return drawableState.shadowCompatMode != SHADOW_COMPAT_MODE_NEVER;
   }
 
   /**
@@ -685,7 +725,7 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
    * @param shadowColor desired color.
    */
   public void setShadowColor(int shadowColor) {
-    shadowRenderer.setShadowColor(shadowColor);
+    updateShadowColor(shadowColor);
     drawableState.useTintColorForShadow = false;
     invalidateSelfIgnoreShape();
   }
@@ -713,7 +753,13 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
   private boolean hasCompatShadow() {
     return drawableState.shadowCompatMode != SHADOW_COMPAT_MODE_NEVER
         && drawableState.shadowCompatRadius > 0
-        && (drawableState.shadowCompatMode == SHADOW_COMPAT_MODE_ALWAYS || requiresCompatShadow());
+        && (isCompatShadowAlwaysDrawn() || requiresCompatShadow());
+  }
+
+  /** Returns whether the compatibility shadow is drawn instead of native shadows. */
+  private boolean isCompatShadowAlwaysDrawn() {
+    return drawableState.shadowCompatMode == SHADOW_COMPAT_MODE_ALWAYS
+        || drawableState.shadowCompatMode == SHADOW_COMPAT_MODE_ALWAYS_CACHED;
   }
 
   /** Returns whether the shape has a fill. */
@@ -750,6 +796,7 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
     if (pathDirty) {
       calculateStrokePath();
       calculatePath(getBoundsAsRectF(), path);
+      shadowLayerKey.invalidate();
       pathDirty = false;
     }
 
@@ -759,29 +806,18 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
 
       prepareCanvasForShadow(canvas);
 
-      // Drawing the shadow in a bitmap lets us use the clear paint rather than using clipPath to
-      // prevent drawing shadow under the shape. clipPath has problems :-/
-      Bitmap shadowLayer =
-          Bitmap.createBitmap(
-              getBounds().width() + drawableState.shadowCompatRadius * 2,
-              getBounds().height() + drawableState.shadowCompatRadius * 2,
-              Bitmap.Config.ARGB_8888);
-      Canvas shadowCanvas = new Canvas(shadowLayer);
-
-      // Top Left of shadow (left - shadowCompatRadius, top - shadowCompatRadius) should be drawn at
-      // (0, 0) on shadowCanvas. Offset is handled by prepareCanvasForShadow and drawCompatShadow.
+      // Top Left of shadow (left - shadowCompatRadius, top - shadowCompatRadius) is drawn at (0, 0)
+      // of the shadow layer. Offset is handled by prepareCanvasForShadow and drawCompatShadow.
       float shadowLeft = getBounds().left - drawableState.shadowCompatRadius;
       float shadowTop = getBounds().top - drawableState.shadowCompatRadius;
-      shadowCanvas.translate(-shadowLeft, -shadowTop);
-
-      drawCompatShadow(shadowCanvas);
-
+      Bitmap shadowLayer = getShadowLayer(shadowLeft, shadowTop);
+      if (drawableState.shadowCompatMode == SHADOW_COMPAT_MODE_ALWAYS_CACHED
+          && VERSION.SDK_INT >= VERSION_CODES.O
+          && canvas.isHardwareAccelerated()) {
+        shadowLayer = getHardwareShadowLayer(shadowLayer);
+      }
       canvas.drawBitmap(shadowLayer, shadowLeft, shadowTop, null);
 
-      // Because we create the bitmap every time, we can recycle it. We may need to stop doing this
-      // if we end up keeping the bitmap in memory for performance.
-      shadowLayer.recycle();
-
       // Restore the canvas to the same size it was before drawing any shadows.
       canvas.restore();
     }
@@ -797,6 +833,88 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
     strokePaint.setAlpha(prevStrokeAlpha);
   }
 
+  /**
+   * Returns a bitmap containing the compatibility shadow. The bitmap is kept in the {@link
+   * ShadowLayerCache}, or by this drawable in {@link #SHADOW_COMPAT_MODE_ALWAYS_CACHED}, and is
+   * only rendered again when one of the inputs of the shadow changes, or when it has been evicted
+   * from the cache.
+   */
+  private Bitmap getShadowLayer(float shadowLeft, float shadowTop) {
+    boolean pinned = drawableState.shadowCompatMode == SHADOW_COMPAT_MODE_ALWAYS_CACHED;
+    int width = getBounds().width() + drawableState.shadowCompatRadius * 2;
+    int height = getBounds().height() + drawableState.shadowCompatRadius * 2;
+    Bitmap shadowLayer = pinned ? pinnedShadowLayer : ShadowLayerCache.get(shadowLayerKey);
+    if (shadowLayer != null
+        && shadowLayerKey.matches(
+            width,
+            height,
+            drawableState.interpolation,
+            drawableState.shadowCompatRadius,
+            drawableState.shadowCompatOffset,
+            drawableState.shadowCompatRotation)) {
+      shadowLayerRendered = false;
+      return shadowLayer;
+    }
+
+    // Re-use the previous layer if the size hasn't changed, rather than allocating a new one.
+    if (shadowLayer != null
+        && shadowLayer.getWidth() == width
+        && shadowLayer.getHeight() == height) {
+      shadowLayer.eraseColor(Color.TRANSPARENT);
+    } else {
+      shadowLayer = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+    if (shadowCanvas == null) {
+      shadowCanvas = new Canvas();
+    }
+    shadowCanvas.setBitmap(shadowLayer);
+    int saveCount = shadowCanvas.save();
+    shadowCanvas.translate(-shadowLeft, -shadowTop);
+
+    // Drawing the shadow in a bitmap lets us use the clear paint rather than using clipPath to
+    // prevent drawing shadow under the shape. clipPath has problems :-/
+    drawCompatShadow(shadowCanvas);
+
+    shadowCanvas.restoreToCount(saveCount);
+    shadowCanvas.setBitmap(null);
+
+    shadowLayerKey.set(
+        width,
+        height,
+        drawableState.interpolation,
+        drawableState.shadowCompatRadius,
+        drawableState.shadowCompatOffset,
+        drawableState.shadowCompatRotation);
+    if (pinned) {
+      pinnedShadowLayer = shadowLayer;
+      hardwareShadowLayer = null;
+    } else {
+      ShadowLayerCache.put(shadowLayerKey, shadowLayer);
+    }
+    shadowLayerRendered = true;
+    return shadowLayer;
+  }
+
+  /**
+   * Returns an immutable hardware copy of {@code shadowLayer}, which is uploaded to the GPU once
+   * rather than every time the shadow layer is drawn. Falls back to {@code shadowLayer} if the copy
+   * can't be made.
+   *
+   * <p>The copy is only made once the layer has stayed the same for a frame. While the shadow
+   * changes every frame, for example during an animation, copying it would allocate and upload a
+   * new bitmap each frame, so the software layer is drawn instead.
+   */
+  @TargetApi(VERSION_CODES.O)
+  private Bitmap getHardwareShadowLayer(Bitmap shadowLayer) {
+    if (hardwareShadowLayer == null) {
+      if (shadowLayerRendered) {
+        return shadowLayer;
+      }
+      hardwareShadowLayer = shadowLayer.copy(Bitmap.Config.HARDWARE, false);
+    }
+    return hardwareShadowLayer != null ? hardwareShadowLayer : shadowLayer;
+  }
+
   /**
    * Draw the path or try to draw a round rect if possible.
    *
@@ -830,8 +948,15 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
   }
 
   private void drawStrokeShape(Canvas canvas) {
-    drawShape(
-        canvas, strokePaint, pathInsetByStroke, strokeShapeAppearance, getBoundsInsetByStroke());
+    ShapeAppearanceModel shapeAppearanceModel = drawableState.shapeAppearanceModel;
+    if (shapeAppearanceModel.isRoundRect()) {
+      // The corners of the stroke are adjusted in the same way as in calculateStrokePath().
+      float cornerSize =
+          adjustCornerSizeForStrokeSize(shapeAppearanceModel.getTopRightCorner().getCornerSize());
+      canvas.drawRoundRect(getBoundsInsetByStroke(), cornerSize, cornerSize, strokePaint);
+    } else {
+      canvas.drawPath(pathInsetByStroke, strokePaint);
+    }
   }
 
   private void prepareCanvasForShadow(Canvas canvas) {
@@ -851,7 +976,7 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
     if (VERSION.SDK_INT < VERSION_CODES.LOLLIPOP) {
       // Add space and offset the canvas for the shadows. Otherwise any shadows drawn outside would
       // be clipped and not visible.
-      Rect canvasClipBounds = canvas.getClipBounds();
+      canvas.getClipBounds(canvasClipBounds);
       canvasClipBounds.inset(-drawableState.shadowCompatRadius, -drawableState.shadowCompatRadius);
       canvasClipBounds.offset(-Math.abs(shadowOffsetX), -Math.abs(shadowOffsetY));
       canvas.clipRect(canvasClipBounds, Region.Op.REPLACE);
@@ -907,6 +1032,29 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
   }
 
   private void calculatePathForSize(RectF bounds, Path path) {
+    int shadowCompatMode = drawableState.shadowCompatMode;
+    if (shadowCompatMode != SHADOW_COMPAT_MODE_NEVER
+        && (isCompatShadowAlwaysDrawn() || VERSION.SDK_INT < VERSION_CODES.LOLLIPOP)) {
+      // The compat shadow will be drawn, so the shadow operations have to be calculated as well.
+      calculatePathWithShadowOperations(bounds, path);
+      return;
+    }
+
+    ShapeAppearanceModel shapeAppearanceModel = drawableState.shapeAppearanceModel;
+    float interpolation = drawableState.interpolation;
+    if (!pathCache.get(shapeAppearanceModel, interpolation, bounds, 0, path)) {
+      pathProvider.calculatePath(
+          shapeAppearanceModel, pathCache.getCalculatedInterpolation(interpolation), bounds, path);
+      pathCache.put(bounds, path);
+    }
+
+    if (shadowCompatMode != SHADOW_COMPAT_MODE_NEVER && !path.isConvex()) {
+      // Native shadows can't be drawn for concave paths, so the compat shadow will be drawn.
+      calculatePathWithShadowOperations(bounds, path);
+    }
+  }
+
+  private void calculatePathWithShadowOperations(RectF bounds, Path path) {
     pathProvider.calculatePath(
         drawableState.shapeAppearanceModel,
         drawableState.interpolation,
@@ -917,7 +1065,16 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
 
   /** Calculates the path that can be used to draw the stroke entirely inside the shape */
   private void calculateStrokePath() {
-    strokeShapeAppearance = new ShapeAppearanceModel(getShapeAppearanceModel());
+    ShapeAppearanceModel shapeAppearanceModel = getShapeAppearanceModel();
+    float interpolation = drawableState.interpolation;
+    RectF bounds = getBoundsInsetByStroke();
+    float strokeInset = getStrokeInsetLength();
+    if (pathCache.get(
+        shapeAppearanceModel, interpolation, bounds, strokeInset, pathInsetByStroke)) {
+      return;
+    }
+
+    ShapeAppearanceModel strokeShapeAppearance = new ShapeAppearanceModel(shapeAppearanceModel);
     float cornerSizeTopLeft = strokeShapeAppearance.getTopLeftCorner().cornerSize;
     float cornerSizeTopRight = strokeShapeAppearance.getTopRightCorner().cornerSize;
     float cornerSizeBottomRight = strokeShapeAppearance.getBottomRightCorner().cornerSize;
@@ -933,9 +1090,10 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
 
     pathProvider.calculatePath(
         strokeShapeAppearance,
-        drawableState.interpolation,
-        getBoundsInsetByStroke(),
+        pathCache.getCalculatedInterpolation(interpolation),
+        bounds,
         pathInsetByStroke);
+    pathCache.put(bounds, pathInsetByStroke);
   }
 
   private float adjustCornerSizeForStrokeSize(float cornerSize) {
@@ -946,7 +1104,7 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
   @TargetApi(VERSION_CODES.LOLLIPOP)
   @Override
   public void getOutline(Outline outline) {
-    if (drawableState.shadowCompatMode == SHADOW_COMPAT_MODE_ALWAYS) {
+    if (isCompatShadowAlwaysDrawn()) {
       // Don't draw the native shadow if we're always rendering with compat shadow.
       return;
     }
@@ -980,8 +1138,19 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
     tintFilter = calculateTintFilter(drawableState.tintList, drawableState.tintMode);
     strokeTintFilter = calculateTintFilter(drawableState.strokeTintList, drawableState.tintMode);
     if (drawableState.useTintColorForShadow) {
-      shadowRenderer.setShadowColor(
-          drawableState.tintList.getColorForState(getState(), Color.TRANSPARENT));
+      updateShadowColor(drawableState.tintList.getColorForState(getState(), Color.TRANSPARENT));
+    }
+  }
+
+  /**
+   * Sets the color of the compat shadow, and only invalidates the shadow layer if the color
+   * changed, since this is called on every state change.
+   */
+  private void updateShadowColor(@ColorInt int shadowColor) {
+    if (this.shadowColor != shadowColor) {
+      this.shadowColor = shadowColor;
+      shadowRenderer.setShadowColor(shadowColor);
+      shadowLayerKey.invalidate();
     }
   }
 
@@ -1083,7 +1252,11 @@ public class MaterialShapeDrawable extends Drawable implements TintAwareDrawable
     }
 
     public MaterialShapeDrawableState(MaterialShapeDrawableState orig) {
-      shapeAppearanceModel = new ShapeAppearanceModel(orig.shapeAppearanceModel);
+      // Immutable models can be shared between drawables.
+      shapeAppearanceModel =
+          orig.shapeAppearanceModel.isImmutable()
+              ? orig.shapeAppearanceModel
+              : new ShapeAppearanceModel(orig.shapeAppearanceModel);
       strokeWidth = orig.strokeWidth;
       colorFilter = orig.colorFilter;
       fillColor = orig.fillColor;
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import com.google.android.material.R;
+
+import android.view.ViewTreeObserver;
+import android.view.ViewTreeObserver.OnPreDrawListener;
+import android.view.ViewTreeObserver.OnScrollChangedListener;
+import android.widget.ScrollView;
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Updates the interpolation of all {@link InterpolateOnScrollPositionChangeHelper}s inside a
+ * {@link ScrollView}.
+ *
+ * <p>A single scroll listener is registered per scroll view, no matter how many shaped views it
+ * contains. Scroll events are coalesced into one update right before the next frame is drawn,
+ * and the window positions of the scroll view and its content are queried once per update rather
+ * than once per shaped view.
+ *
+ * <p>The coordinator is kept as a tag of its scroll view, so it doesn't outlive it.
+ */
+final class ScrollInterpolationCoordinator {
+
+  private final ScrollView scrollView;
+  private final List<InterpolateOnScrollPositionChangeHelper> helpers = new ArrayList<>();
+  private final int[] scrollLocation = new int[2];
+  private final int[] containerLocation = new int[2];
+
+  private ViewTreeObserver viewTreeObserver;
+  private boolean updatePending;
+
+  private final OnScrollChangedListener scrollChangedListener =
+      new OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+          updatePending = true;
+        }
+      };
+
+  private final OnPreDrawListener preDrawListener =
+      new OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+          if (updatePending) {
+            updatePending = false;
+            updateInterpolations();
+          }
+          return true;
+        }
+      };
+
+  private ScrollInterpolationCoordinator(ScrollView scrollView) {
+    this.scrollView = scrollView;
+  }
+
+  /**
+   * Starts updating the interpolation of {@code helper} when {@code scrollView} is scrolled.
+   *
+   * @param viewTreeObserver the {@link ViewTreeObserver} of the helper's shaped view, used if this
+   *     is the first helper registered for {@code scrollView}.
+   */
+  static void register(
+      @NonNull ScrollView scrollView,
+      @NonNull InterpolateOnScrollPositionChangeHelper helper,
+      @NonNull ViewTreeObserver viewTreeObserver) {
+    ScrollInterpolationCoordinator coordinator = getCoordinator(scrollView);
+    if (coordinator == null) {
+      coordinator = new ScrollInterpolationCoordinator(scrollView);
+      scrollView.setTag(R.id.mtrl_internal_scroll_interpolation_coordinator_tag, coordinator);
+    }
+    coordinator.add(helper, viewTreeObserver);
+  }
+
+  /** Stops updating the interpolation of {@code helper} when {@code scrollView} is scrolled. */
+  static void unregister(
+      @NonNull ScrollView scrollView, @NonNull InterpolateOnScrollPositionChangeHelper helper) {
+    ScrollInterpolationCoordinator coordinator = getCoordinator(scrollView);
+    if (coordinator != null && coordinator.remove(helper)) {
+      scrollView.setTag(R.id.mtrl_internal_scroll_interpolation_coordinator_tag, null);
+    }
+  }
+
+  private static ScrollInterpolationCoordinator getCoordinator(ScrollView scrollView) {
+    return (ScrollInterpolationCoordinator)
+        scrollView.getTag(R.id.mtrl_internal_scroll_interpolation_coordinator_tag);
+  }
+
+  private void add(
+      InterpolateOnScrollPositionChangeHelper helper, ViewTreeObserver viewTreeObserver) {
+    if (helpers.contains(helper)) {
+      return;
+    }
+    helpers.add(helper);
+    if (this.viewTreeObserver == null) {
+      this.viewTreeObserver = viewTreeObserver;
+      viewTreeObserver.addOnScrollChangedListener(scrollChangedListener);
+      viewTreeObserver.addOnPreDrawListener(preDrawListener);
+    }
+  }
+
+  /** Removes {@code helper}, and returns whether this coordinator has no helpers left. */
+  private boolean remove(InterpolateOnScrollPositionChangeHelper helper) {
+    helpers.remove(helper);
+    if (!helpers.isEmpty()) {
+      return false;
+    }
+    if (viewTreeObserver != null) {
+      // The observer of a detached view is merged into the window's observer once it's attached.
+      ViewTreeObserver observer =
+          viewTreeObserver.isAlive() ? viewTreeObserver : scrollView.getViewTreeObserver();
+      observer.removeOnScrollChangedListener(scrollChangedListener);
+      observer.removeOnPreDrawListener(preDrawListener);
+      viewTreeObserver = null;
+    }
+    updatePending = false;
+    return true;
+  }
+
+  private void updateInterpolations() {
+    if (scrollView.getChildCount() == 0) {
+      // No container inside scroll view, no healing/growing.
+      throw new IllegalStateException(
+          "Scroll bar must contain a child to calculate interpolation.");
+    }
+
+    scrollView.getLocationInWindow(scrollLocation);
+    scrollView.getChildAt(0).getLocationInWindow(containerLocation);
+    int containerOffset = containerLocation[1] - scrollLocation[1];
+    int windowHeight = scrollView.getHeight();
+    for (int i = 0; i < helpers.size(); i++) {
+      helpers.get(i).updateInterpolation(containerOffset, windowHeight);
+    }
+  }
+}
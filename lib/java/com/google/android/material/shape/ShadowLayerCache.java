@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import android.graphics.Bitmap;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.collection.LruCache;
+
+/**
+ * A process-wide cache of the compatibility shadow layers rendered by {@link
+ * MaterialShapeDrawable}.
+ *
+ * <p>All drawables share a single memory budget. When the budget is exceeded the least recently
+ * used shadow layers are evicted, and their drawables render them again the next time they are
+ * drawn.
+ */
+final class ShadowLayerCache {
+
+  /** Shadow layers may use up to 1/32 of the maximum heap size of the app. */
+  private static final int MAX_SIZE_BYTES = (int) (Runtime.getRuntime().maxMemory() / 32);
+
+  private static final LruCache<Key, Bitmap> cache =
+      new LruCache<Key, Bitmap>(MAX_SIZE_BYTES) {
+        @Override
+        protected int sizeOf(@NonNull Key key, @NonNull Bitmap shadowLayer) {
+          return shadowLayer.getByteCount();
+        }
+      };
+
+  private ShadowLayerCache() {}
+
+  /** Returns the shadow layer cached for {@code key}, or null if it was never cached or evicted. */
+  @Nullable
+  static Bitmap get(@NonNull Key key) {
+    Bitmap shadowLayer = cache.get(key);
+    if (shadowLayer != null && shadowLayer.isRecycled()) {
+      cache.remove(key);
+      return null;
+    }
+    return shadowLayer;
+  }
+
+  /** Caches {@code shadowLayer} for {@code key}, evicting other shadow layers if necessary. */
+  static void put(@NonNull Key key, @NonNull Bitmap shadowLayer) {
+    cache.put(key, shadowLayer);
+  }
+
+  /** Evicts all cached shadow layers. */
+  static void evictAll() {
+    cache.evictAll();
+  }
+
+  /**
+   * Identifies the shadow layer of a single {@link MaterialShapeDrawable}, along with the inputs
+   * the layer was last rendered with.
+   *
+   * <p>Keys use identity equality, so a drawable can update its key in place without affecting
+   * where the layer is stored in the cache.
+   */
+  static final class Key {
+
+    private boolean valid;
+    private int width;
+    private int height;
+    private float interpolation;
+    private int shadowRadius;
+    private int shadowOffset;
+    private int shadowRotation;
+
+    /** Returns whether the cached layer was rendered with exactly the given inputs. */
+    boolean matches(
+        int width,
+        int height,
+        float interpolation,
+        int shadowRadius,
+        int shadowOffset,
+        int shadowRotation) {
+      return valid
+          && this.width == width
+          && this.height == height
+          && this.interpolation == interpolation
+          && this.shadowRadius == shadowRadius
+          && this.shadowOffset == shadowOffset
+          && this.shadowRotation == shadowRotation;
+    }
+
+    /** Records the inputs the cached layer has just been rendered with. */
+    void set(
+        int width,
+        int height,
+        float interpolation,
+        int shadowRadius,
+        int shadowOffset,
+        int shadowRotation) {
+      this.valid = true;
+      this.width = width;
+      this.height = height;
+      this.interpolation = interpolation;
+      this.shadowRadius = shadowRadius;
+      this.shadowOffset = shadowOffset;
+      this.shadowRotation = shadowRotation;
+    }
+
+    /**
+     * Marks the cached layer as stale. This is used for inputs which are not tracked by the key,
+     * such as the shape itself or the color of the shadow.
+     */
+    void invalidate() {
+      valid = false;
+    }
+  }
+}
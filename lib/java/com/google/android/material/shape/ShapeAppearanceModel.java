@@ -31,12 +31,27 @@ import androidx.annotation.RestrictTo;
 import androidx.annotation.StyleRes;
 import android.util.AttributeSet;
 import android.view.ContextThemeWrapper;
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
 
 /**
  * This class models the edges and corners of a shape, which are used by {@link
  * MaterialShapeDrawable} to generate and render the shape for a view's background.
+ *
+ * <p>Models created with a constructor are mutable, and are only equal to themselves. Models
+ * created with a {@link Builder} are immutable, are compared by value with a precomputed hash code,
+ * and can be shared between views and {@link #intern() interned}, so that identical shapes are
+ * represented by a single instance.
  */
 public class ShapeAppearanceModel {
+
+  /** Canonical instances returned by {@link #intern()}. */
+  private static final WeakHashMap<ShapeAppearanceModel, WeakReference<ShapeAppearanceModel>>
+      internedModels = new WeakHashMap<>();
+
+  private final boolean immutable;
+  private int hashCode;
+
   private CornerTreatment topLeftCorner;
   private CornerTreatment topRightCorner;
   private CornerTreatment bottomRightCorner;
@@ -48,6 +63,7 @@ public class ShapeAppearanceModel {
 
   /** Constructs a default path generator with default edge and corner treatments. */
   public ShapeAppearanceModel() {
+    immutable = false;
     setTopLeftCorner(MaterialShapeUtils.createDefaultCornerTreatment());
     setTopRightCorner(MaterialShapeUtils.createDefaultCornerTreatment());
     setBottomRightCorner(MaterialShapeUtils.createDefaultCornerTreatment());
@@ -59,7 +75,12 @@ public class ShapeAppearanceModel {
     setLeftEdge(MaterialShapeUtils.createDefaultEdgeTreatment());
   }
 
+  /**
+   * Constructs a mutable copy of {@code shapeAppearanceModel}. The copy is mutable even if the
+   * original model is immutable.
+   */
   public ShapeAppearanceModel(ShapeAppearanceModel shapeAppearanceModel) {
+    immutable = false;
     topLeftCorner = shapeAppearanceModel.getTopLeftCorner().clone();
     topRightCorner = shapeAppearanceModel.getTopRightCorner().clone();
     bottomRightCorner = shapeAppearanceModel.getBottomRightCorner().clone();
@@ -82,6 +103,7 @@ public class ShapeAppearanceModel {
       @AttrRes int defStyleAttr,
       @StyleRes int defStyleRes,
       int defaultCornerSize) {
+    immutable = false;
     TypedArray a =
         context.obtainStyledAttributes(attrs, R.styleable.MaterialShape, defStyleAttr, defStyleRes);
 
@@ -133,12 +155,69 @@ public class ShapeAppearanceModel {
     a.recycle();
   }
 
+  private ShapeAppearanceModel(Builder builder) {
+    immutable = true;
+    topLeftCorner = builder.topLeftCorner.clone();
+    topRightCorner = builder.topRightCorner.clone();
+    bottomRightCorner = builder.bottomRightCorner.clone();
+    bottomLeftCorner = builder.bottomLeftCorner.clone();
+
+    topEdge = builder.topEdge.clone();
+    rightEdge = builder.rightEdge.clone();
+    bottomEdge = builder.bottomEdge.clone();
+    leftEdge = builder.leftEdge.clone();
+
+    topLeftCorner.freeze();
+    topRightCorner.freeze();
+    bottomRightCorner.freeze();
+    bottomLeftCorner.freeze();
+
+    hashCode = computeHashCode();
+  }
+
+  /** Returns a {@link Builder} for an immutable model with default edge and corner treatments. */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Returns a {@link Builder} initialized with the edge and corner treatments of this model. */
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  /**
+   * Returns whether this model is immutable. Immutable models are created with a {@link Builder},
+   * and throw an {@link UnsupportedOperationException} when one of their setters is called.
+   */
+  public boolean isImmutable() {
+    return immutable;
+  }
+
+  /**
+   * Returns a canonical immutable model which is equal to this model. Interning the models of
+   * identical shapes lets them share a single instance, which makes comparing them cheap.
+   */
+  public ShapeAppearanceModel intern() {
+    // Mutable models are only equal to themselves, so they are looked up by an immutable copy.
+    ShapeAppearanceModel model = immutable ? this : toBuilder().build();
+    synchronized (internedModels) {
+      WeakReference<ShapeAppearanceModel> internedReference = internedModels.get(model);
+      ShapeAppearanceModel interned = internedReference != null ? internedReference.get() : null;
+      if (interned == null) {
+        interned = model;
+        internedModels.put(interned, new WeakReference<>(interned));
+      }
+      return interned;
+    }
+  }
+
   /**
    * Sets all corner treatments.
    *
    * @param cornerTreatment the corner treatment to use for all four corners.
    */
   public void setAllCorners(CornerTreatment cornerTreatment) {
+    checkMutable();
     topLeftCorner = cornerTreatment.clone();
     topRightCorner = cornerTreatment.clone();
     bottomRightCorner = cornerTreatment.clone();
@@ -150,6 +229,7 @@ public class ShapeAppearanceModel {
   }
 
   public void setCornerRadius(float cornerRadius) {
+    checkMutable();
     topLeftCorner.setCornerSize(cornerRadius);
     topRightCorner.setCornerSize(cornerRadius);
     bottomRightCorner.setCornerSize(cornerRadius);
@@ -161,6 +241,7 @@ public class ShapeAppearanceModel {
       float topRightCornerRadius,
       float bottomRightCornerRadius,
       float bottomLeftCornerRadius) {
+    checkMutable();
     topLeftCorner.setCornerSize(topLeftCornerRadius);
     topRightCorner.setCornerSize(topRightCornerRadius);
     bottomRightCorner.setCornerSize(bottomRightCornerRadius);
@@ -173,6 +254,7 @@ public class ShapeAppearanceModel {
    * @param edgeTreatment the edge treatment to use for all four edges.
    */
   public void setAllEdges(EdgeTreatment edgeTreatment) {
+    checkMutable();
     leftEdge = edgeTreatment.clone();
     topEdge = edgeTreatment.clone();
     rightEdge = edgeTreatment.clone();
@@ -192,6 +274,7 @@ public class ShapeAppearanceModel {
       CornerTreatment topRightCorner,
       CornerTreatment bottomRightCorner,
       CornerTreatment bottomLeftCorner) {
+    checkMutable();
     this.topLeftCorner = topLeftCorner;
     this.topRightCorner = topRightCorner;
     this.bottomRightCorner = bottomRightCorner;
@@ -211,6 +294,7 @@ public class ShapeAppearanceModel {
       EdgeTreatment topEdge,
       EdgeTreatment rightEdge,
       EdgeTreatment bottomEdge) {
+    checkMutable();
     this.leftEdge = leftEdge;
     this.topEdge = topEdge;
     this.rightEdge = rightEdge;
@@ -233,6 +317,7 @@ public class ShapeAppearanceModel {
    * @param topLeftCorner the desired treatment.
    */
   public void setTopLeftCorner(CornerTreatment topLeftCorner) {
+    checkMutable();
     this.topLeftCorner = topLeftCorner;
   }
 
@@ -261,6 +346,7 @@ public class ShapeAppearanceModel {
    * @param topRightCorner the desired treatment.
    */
   public void setTopRightCorner(CornerTreatment topRightCorner) {
+    checkMutable();
     this.topRightCorner = topRightCorner;
   }
 
@@ -289,6 +375,7 @@ public class ShapeAppearanceModel {
    * @param bottomRightCorner the desired treatment.
    */
   public void setBottomRightCorner(CornerTreatment bottomRightCorner) {
+    checkMutable();
     this.bottomRightCorner = bottomRightCorner;
   }
 
@@ -317,6 +404,7 @@ public class ShapeAppearanceModel {
    * @param bottomLeftCorner the desired treatment.
    */
   public void setBottomLeftCorner(CornerTreatment bottomLeftCorner) {
+    checkMutable();
     this.bottomLeftCorner = bottomLeftCorner;
   }
 
@@ -335,6 +423,7 @@ public class ShapeAppearanceModel {
    * @param topEdge the desired treatment.
    */
   public void setTopEdge(EdgeTreatment topEdge) {
+    checkMutable();
     this.topEdge = topEdge;
   }
 
@@ -353,6 +442,7 @@ public class ShapeAppearanceModel {
    * @param rightEdge the desired treatment.
    */
   public void setRightEdge(EdgeTreatment rightEdge) {
+    checkMutable();
     this.rightEdge = rightEdge;
   }
 
@@ -371,6 +461,7 @@ public class ShapeAppearanceModel {
    * @param bottomEdge the desired treatment.
    */
   public void setBottomEdge(EdgeTreatment bottomEdge) {
+    checkMutable();
     this.bottomEdge = bottomEdge;
   }
 
@@ -389,6 +480,7 @@ public class ShapeAppearanceModel {
    * @param leftEdge the desired treatment.
    */
   public void setLeftEdge(EdgeTreatment leftEdge) {
+    checkMutable();
     this.leftEdge = leftEdge;
   }
 
@@ -430,4 +522,242 @@ public class ShapeAppearanceModel {
 
     return hasDefaultEdges && cornersHaveSameSize && hasRoundedCorners;
   }
+
+  /**
+   * Immutable models are equal if all of their corner and edge treatments draw the same shape.
+   * Treatments which aren't part of the library are only equal to themselves. The precomputed hash
+   * codes are compared first, so unequal models are cheap to tell apart.
+   *
+   * <p>Mutable models are only equal to themselves, so that they can't be lost in a hash-based
+   * collection by being modified after they were added to it.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ShapeAppearanceModel)) {
+      return false;
+    }
+    ShapeAppearanceModel that = (ShapeAppearanceModel) o;
+    if (!immutable || !that.immutable || hashCode != that.hashCode) {
+      return false;
+    }
+    return cornersEqual(topLeftCorner, that.topLeftCorner)
+        && cornersEqual(topRightCorner, that.topRightCorner)
+        && cornersEqual(bottomRightCorner, that.bottomRightCorner)
+        && cornersEqual(bottomLeftCorner, that.bottomLeftCorner)
+        && edgesEqual(topEdge, that.topEdge)
+        && edgesEqual(rightEdge, that.rightEdge)
+        && edgesEqual(bottomEdge, that.bottomEdge)
+        && edgesEqual(leftEdge, that.leftEdge);
+  }
+
+  @Override
+  public int hashCode() {
+    return immutable ? hashCode : System.identityHashCode(this);
+  }
+
+  private int computeHashCode() {
+    int result = cornerHashCode(topLeftCorner);
+    result = 31 * result + cornerHashCode(topRightCorner);
+    result = 31 * result + cornerHashCode(bottomRightCorner);
+    result = 31 * result + cornerHashCode(bottomLeftCorner);
+    result = 31 * result + edgeHashCode(topEdge);
+    result = 31 * result + edgeHashCode(rightEdge);
+    result = 31 * result + edgeHashCode(bottomEdge);
+    result = 31 * result + edgeHashCode(leftEdge);
+    return result;
+  }
+
+  /**
+   * Returns whether two corner treatments draw the same corner. Only the library's own treatments
+   * are compared by value. Any other treatment may have state that isn't visible here, so it is
+   * only equal to itself.
+   */
+  private static boolean cornersEqual(CornerTreatment a, CornerTreatment b) {
+    return a == b
+        || (a.getClass() == b.getClass()
+            && isLibraryCornerTreatment(a)
+            && Float.compare(a.cornerSize, b.cornerSize) == 0);
+  }
+
+  private static int cornerHashCode(CornerTreatment cornerTreatment) {
+    return isLibraryCornerTreatment(cornerTreatment)
+        ? 31 * cornerTreatment.getClass().hashCode()
+            + Float.floatToIntBits(cornerTreatment.cornerSize)
+        : System.identityHashCode(cornerTreatment);
+  }
+
+  private static boolean isLibraryCornerTreatment(CornerTreatment cornerTreatment) {
+    Class<?> treatmentClass = cornerTreatment.getClass();
+    return treatmentClass == CornerTreatment.class
+        || treatmentClass == RoundedCornerTreatment.class
+        || treatmentClass == CutCornerTreatment.class;
+  }
+
+  /** Returns whether two edge treatments draw the same edge. See {@link #cornersEqual}. */
+  private static boolean edgesEqual(EdgeTreatment a, EdgeTreatment b) {
+    if (a == b) {
+      return true;
+    }
+    if (a.getClass() != b.getClass()) {
+      return false;
+    }
+    if (a.getClass() == EdgeTreatment.class) {
+      return true;
+    }
+    return a.getClass() == TriangleEdgeTreatment.class
+        && ((TriangleEdgeTreatment) a).isSameTriangle((TriangleEdgeTreatment) b);
+  }
+
+  private static int edgeHashCode(EdgeTreatment edgeTreatment) {
+    if (edgeTreatment.getClass() == EdgeTreatment.class) {
+      return EdgeTreatment.class.hashCode();
+    }
+    if (edgeTreatment.getClass() == TriangleEdgeTreatment.class) {
+      return ((TriangleEdgeTreatment) edgeTreatment).triangleHashCode();
+    }
+    return System.identityHashCode(edgeTreatment);
+  }
+
+  private void checkMutable() {
+    if (immutable) {
+      throw new UnsupportedOperationException(
+          "This ShapeAppearanceModel is immutable. Use toBuilder() to create a modified copy.");
+    }
+  }
+
+  /**
+   * Builds immutable {@link ShapeAppearanceModel}s.
+   *
+   * <p>The treatments passed to the builder are copied when the model is built, so they can safely
+   * be modified afterwards. The corner treatments of an immutable model are frozen, and throw an
+   * {@link UnsupportedOperationException} when their size is set. Use {@link
+   * ShapeAppearanceModel#toBuilder()} to derive a modified model instead.
+   */
+  public static final class Builder {
+
+    private CornerTreatment topLeftCorner = MaterialShapeUtils.createDefaultCornerTreatment();
+    private CornerTreatment topRightCorner = MaterialShapeUtils.createDefaultCornerTreatment();
+    private CornerTreatment bottomRightCorner = MaterialShapeUtils.createDefaultCornerTreatment();
+    private CornerTreatment bottomLeftCorner = MaterialShapeUtils.createDefaultCornerTreatment();
+    private EdgeTreatment topEdge = MaterialShapeUtils.createDefaultEdgeTreatment();
+    private EdgeTreatment rightEdge = MaterialShapeUtils.createDefaultEdgeTreatment();
+    private EdgeTreatment bottomEdge = MaterialShapeUtils.createDefaultEdgeTreatment();
+    private EdgeTreatment leftEdge = MaterialShapeUtils.createDefaultEdgeTreatment();
+
+    private Builder() {}
+
+    private Builder(ShapeAppearanceModel other) {
+      topLeftCorner = other.topLeftCorner;
+      topRightCorner = other.topRightCorner;
+      bottomRightCorner = other.bottomRightCorner;
+      bottomLeftCorner = other.bottomLeftCorner;
+      topEdge = other.topEdge;
+      rightEdge = other.rightEdge;
+      bottomEdge = other.bottomEdge;
+      leftEdge = other.leftEdge;
+    }
+
+    /** Sets the corner treatment of all four corners. */
+    public Builder setAllCorners(CornerTreatment cornerTreatment) {
+      topLeftCorner = cornerTreatment;
+      topRightCorner = cornerTreatment;
+      bottomRightCorner = cornerTreatment;
+      bottomLeftCorner = cornerTreatment;
+      return this;
+    }
+
+    /** Sets the corner treatment of all four corners to the given family and size. */
+    public Builder setAllCorners(@CornerFamily int cornerFamily, @Dimension int cornerSize) {
+      return setAllCorners(MaterialShapeUtils.createCornerTreatment(cornerFamily, cornerSize));
+    }
+
+    /** Sets the size of all four corners, keeping their current treatments. */
+    public Builder setCornerRadius(float cornerRadius) {
+      return setCornerRadii(cornerRadius, cornerRadius, cornerRadius, cornerRadius);
+    }
+
+    /** Sets the size of each corner, keeping their current treatments. */
+    public Builder setCornerRadii(
+        float topLeftCornerRadius,
+        float topRightCornerRadius,
+        float bottomRightCornerRadius,
+        float bottomLeftCornerRadius) {
+      topLeftCorner = withCornerSize(topLeftCorner, topLeftCornerRadius);
+      topRightCorner = withCornerSize(topRightCorner, topRightCornerRadius);
+      bottomRightCorner = withCornerSize(bottomRightCorner, bottomRightCornerRadius);
+      bottomLeftCorner = withCornerSize(bottomLeftCorner, bottomLeftCornerRadius);
+      return this;
+    }
+
+    /** Sets the corner treatment of the top-left corner. */
+    public Builder setTopLeftCorner(CornerTreatment topLeftCorner) {
+      this.topLeftCorner = topLeftCorner;
+      return this;
+    }
+
+    /** Sets the corner treatment of the top-right corner. */
+    public Builder setTopRightCorner(CornerTreatment topRightCorner) {
+      this.topRightCorner = topRightCorner;
+      return this;
+    }
+
+    /** Sets the corner treatment of the bottom-right corner. */
+    public Builder setBottomRightCorner(CornerTreatment bottomRightCorner) {
+      this.bottomRightCorner = bottomRightCorner;
+      return this;
+    }
+
+    /** Sets the corner treatment of the bottom-left corner. */
+    public Builder setBottomLeftCorner(CornerTreatment bottomLeftCorner) {
+      this.bottomLeftCorner = bottomLeftCorner;
+      return this;
+    }
+
+    /** Sets the edge treatment of all four edges. */
+    public Builder setAllEdges(EdgeTreatment edgeTreatment) {
+      topEdge = edgeTreatment;
+      rightEdge = edgeTreatment;
+      bottomEdge = edgeTreatment;
+      leftEdge = edgeTreatment;
+      return this;
+    }
+
+    /** Sets the edge treatment of the top edge. */
+    public Builder setTopEdge(EdgeTreatment topEdge) {
+      this.topEdge = topEdge;
+      return this;
+    }
+
+    /** Sets the edge treatment of the right edge. */
+    public Builder setRightEdge(EdgeTreatment rightEdge) {
+      this.rightEdge = rightEdge;
+      return this;
+    }
+
+    /** Sets the edge treatment of the bottom edge. */
+    public Builder setBottomEdge(EdgeTreatment bottomEdge) {
+      this.bottomEdge = bottomEdge;
+      return this;
+    }
+
+    /** Sets the edge treatment of the left edge. */
+    public Builder setLeftEdge(EdgeTreatment leftEdge) {
+      this.leftEdge = leftEdge;
+      return this;
+    }
+
+    /** Returns a new immutable {@link ShapeAppearanceModel}. */
+    public ShapeAppearanceModel build() {
+      return new ShapeAppearanceModel(this);
+    }
+
+    private static CornerTreatment withCornerSize(CornerTreatment cornerTreatment, float size) {
+      CornerTreatment resized = cornerTreatment.clone();
+      resized.setCornerSize(size);
+      return resized;
+    }
+  }
 }
@@ -42,13 +42,22 @@ public class ShapeAppearancePathProvider {
     void onEdgePathCreated(ShapePath edgePath, Matrix transform, int count);
   }
 
+  // Unit offsets from each corner to the points where its corner treatment starts and ends, in the
+  // order top-right, bottom-right, bottom-left, top-left.
+  private static final int[] CORNER_START_X = {-1, 0, 1, 0};
+  private static final int[] CORNER_START_Y = {0, -1, 0, 1};
+  private static final int[] CORNER_END_X = {0, -1, 0, 1};
+  private static final int[] CORNER_END_Y = {1, 0, -1, 0};
+
   // Inter-method state.
   private final ShapePath[] cornerPaths = new ShapePath[4];
   private final Matrix[] cornerTransforms = new Matrix[4];
   private final Matrix[] edgeTransforms = new Matrix[4];
 
   // Pre-allocated objects that are re-used several times during path computation and rendering.
+  private final ShapeAppearancePathSpec spec = new ShapeAppearancePathSpec();
   private final PointF pointF = new PointF();
+  private final RectF arcBounds = new RectF();
   private final ShapePath shapePath = new ShapePath();
   private final float[] scratch = new float[2];
   private final float[] scratch2 = new float[2];
@@ -90,9 +99,11 @@ public class ShapeAppearancePathProvider {
       PathListener pathListener,
       Path path) {
     path.rewind();
-    ShapeAppearancePathSpec spec =
-        new ShapeAppearancePathSpec(
-            shapeAppearanceModel, interpolation, bounds, pathListener, path);
+    if (pathListener == null
+        && calculateSimplePath(shapeAppearanceModel, interpolation, bounds, path)) {
+      return;
+    }
+    spec.set(shapeAppearanceModel, interpolation, bounds, pathListener, path);
 
     // Calculate the transformations (rotations and translations) necessary for each edge and
     // corner treatment.
@@ -111,6 +122,86 @@ public class ShapeAppearancePathProvider {
     }
 
     path.close();
+    spec.clear();
+  }
+
+  /**
+   * Writes shapes made of rounded, cut or default corners and flat edges to {@code path} directly,
+   * without creating and transforming a {@link ShapePath} for every corner and edge.
+   *
+   * @return false if the shape has other treatments, and needs to be calculated by applying each
+   *     treatment in turn.
+   */
+  private boolean calculateSimplePath(
+      ShapeAppearanceModel shapeAppearanceModel, float interpolation, RectF bounds, Path path) {
+    if (!ShapePathCache.isDefaultEdge(shapeAppearanceModel.getTopEdge())
+        || !ShapePathCache.isDefaultEdge(shapeAppearanceModel.getRightEdge())
+        || !ShapePathCache.isDefaultEdge(shapeAppearanceModel.getBottomEdge())
+        || !ShapePathCache.isDefaultEdge(shapeAppearanceModel.getLeftEdge())) {
+      return false;
+    }
+    for (int index = 0; index < 4; index++) {
+      CornerTreatment cornerTreatment = getCornerTreatmentForIndex(index, shapeAppearanceModel);
+      if (ShapePathCache.getCornerFamily(cornerTreatment)
+          == ShapePathCache.CORNER_FAMILY_UNSUPPORTED) {
+        return false;
+      }
+    }
+
+    // Like the generic calculation, start from the top-right corner to keep the path convex on API
+    // level 21 and 22.
+    for (int index = 0; index < 4; index++) {
+      getCoordinatesOfCorner(index, bounds, pointF);
+      appendSimpleCornerPath(
+          getCornerTreatmentForIndex(index, shapeAppearanceModel),
+          index,
+          interpolation,
+          pointF.x,
+          pointF.y,
+          path);
+    }
+    path.close();
+    return true;
+  }
+
+  private void appendSimpleCornerPath(
+      CornerTreatment cornerTreatment,
+      int index,
+      float interpolation,
+      float cornerX,
+      float cornerY,
+      Path path) {
+    int cornerFamily = ShapePathCache.getCornerFamily(cornerTreatment);
+    float size =
+        cornerFamily == ShapePathCache.CORNER_FAMILY_NONE
+            ? 0
+            : cornerTreatment.getCornerSize() * interpolation;
+
+    float startX = cornerX + CORNER_START_X[index] * size;
+    float startY = cornerY + CORNER_START_Y[index] * size;
+    if (index == 0) {
+      path.moveTo(startX, startY);
+    } else {
+      path.lineTo(startX, startY);
+    }
+    if (size == 0) {
+      return;
+    }
+
+    if (cornerFamily == ShapePathCache.CORNER_FAMILY_CUT) {
+      path.lineTo(cornerX + CORNER_END_X[index] * size, cornerY + CORNER_END_Y[index] * size);
+    } else {
+      // The corner is one of the corners of the arc's bounds, and the opposite corner lies two
+      // radii away along both edges.
+      float oppositeX = cornerX + (CORNER_START_X[index] + CORNER_END_X[index]) * 2 * size;
+      float oppositeY = cornerY + (CORNER_START_Y[index] + CORNER_END_Y[index]) * 2 * size;
+      arcBounds.set(
+          Math.min(cornerX, oppositeX),
+          Math.min(cornerY, oppositeY),
+          Math.max(cornerX, oppositeX),
+          Math.max(cornerY, oppositeY));
+      path.arcTo(arcBounds, (270 + 90 * index) % 360, 90, false);
+    }
   }
 
   private void setCornerPathAndTransform(ShapeAppearancePathSpec spec, int index) {
@@ -239,21 +330,24 @@ public class ShapeAppearancePathProvider {
     return 90 * (index + 1 % 4);
   }
 
-  /** Necessary information to map a {@link ShapeAppearanceModel} into a Path. */
+  /**
+   * Necessary information to map a {@link ShapeAppearanceModel} into a Path. A single spec is
+   * re-used for every path calculated by a provider.
+   */
   static final class ShapeAppearancePathSpec {
 
-    @NonNull public final ShapeAppearanceModel shapeAppearanceModel;
-    @NonNull public final Path path;
-    @NonNull public final RectF bounds;
+    public ShapeAppearanceModel shapeAppearanceModel;
+    public Path path;
+    public RectF bounds;
 
-    @Nullable public final PathListener pathListener;
+    @Nullable public PathListener pathListener;
 
-    public final float interpolation;
+    public float interpolation;
 
-    ShapeAppearancePathSpec(
+    void set(
         @NonNull ShapeAppearanceModel shapeAppearanceModel,
         float interpolation,
-        RectF bounds,
+        @NonNull RectF bounds,
         @Nullable PathListener pathListener,
         Path path) {
       this.pathListener = pathListener;
@@ -262,5 +356,13 @@ public class ShapeAppearancePathProvider {
       this.bounds = bounds;
       this.path = path;
     }
+
+    /** Releases the references held for the last calculated path. */
+    void clear() {
+      shapeAppearanceModel = null;
+      bounds = null;
+      pathListener = null;
+      path = null;
+    }
   }
 }
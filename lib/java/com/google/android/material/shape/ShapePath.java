@@ -21,19 +21,22 @@ import android.graphics.Matrix;
 import android.graphics.Path;
 import android.graphics.RectF;
 import com.google.android.material.shadow.ShadowRenderer;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Represents the descriptive path of a shape. Path segments are stored in sequence so that
  * transformations can be applied to them when the {@link android.graphics.Path} is produced by the
- * {@link MaterialShapeDrawable}.
+ * {@link MaterialShapeDrawable}. Segments are stored in primitive arrays which are re-used when the
+ * ShapePath is reset, so rebuilding a ShapePath doesn't allocate.
  */
 public class ShapePath {
 
   private static final float ANGLE_UP = 270;
   protected static final float ANGLE_LEFT = 180;
 
+  private static final int OPERATION_LINE = 0;
+  private static final int OPERATION_QUAD = 1;
+  private static final int OPERATION_ARC = 2;
+
   public float startX;
   public float startY;
   public float endX;
@@ -41,8 +44,13 @@ public class ShapePath {
   public float currentShadowAngle;
   public float endShadowAngle;
 
-  private final List<PathOperation> operations = new ArrayList<>();
-  private final List<ShadowCompatOperation> shadowCompatOperations = new ArrayList<>();
+  private final OperationBuffer operations = new OperationBuffer();
+  private final OperationBuffer shadowCompatOperations = new OperationBuffer();
+
+  // Pre-allocated objects that are re-used every time this ShapePath is applied to a Path.
+  private final Matrix inverse = new Matrix();
+  private final RectF rectF = new RectF();
+  private final float[] scratch = new float[4];
 
   public ShapePath() {
     reset(0, 0);
@@ -74,18 +82,13 @@ public class ShapePath {
    * @param y the y to which the line should be drawn.
    */
   public void lineTo(float x, float y) {
-    PathLineOperation operation = new PathLineOperation();
-    operation.x = x;
-    operation.y = y;
-    operations.add(operation);
-
-    LineShadowOperation shadowOperation = new LineShadowOperation(operation, endX, endY);
+    operations.add(OPERATION_LINE, x, y, 0, 0, 0, 0);
 
     // The previous endX and endY is the starting point for this shadow operation.
-    addShadowCompatOperation(
-        shadowOperation,
-        ANGLE_UP + shadowOperation.getAngle(),
-        ANGLE_UP + shadowOperation.getAngle());
+    float shadowAngle = ANGLE_UP + getLineAngle(endX, endY, x, y);
+    addConnectingShadowIfNecessary(shadowAngle);
+    shadowCompatOperations.add(OPERATION_LINE, endX, endY, x, y, 0, 0);
+    currentShadowAngle = shadowAngle;
 
     endX = x;
     endY = y;
@@ -100,12 +103,7 @@ public class ShapePath {
    * @param toY the end y of the arc.
    */
   public void quadToPoint(float controlX, float controlY, float toX, float toY) {
-    PathQuadOperation operation = new PathQuadOperation();
-    operation.controlX = controlX;
-    operation.controlY = controlY;
-    operation.endX = toX;
-    operation.endY = toY;
-    operations.add(operation);
+    operations.add(OPERATION_QUAD, controlX, controlY, toX, toY, 0, 0);
 
     endX = toX;
     endY = toY;
@@ -123,21 +121,16 @@ public class ShapePath {
    */
   public void addArc(float left, float top, float right, float bottom, float startAngle,
       float sweepAngle) {
-    PathArcOperation operation = new PathArcOperation(left, top, right, bottom);
-    operation.startAngle = startAngle;
-    operation.sweepAngle = sweepAngle;
-    operations.add(operation);
+    operations.add(OPERATION_ARC, left, top, right, bottom, startAngle, sweepAngle);
 
-    ArcShadowOperation arcShadowOperation = new ArcShadowOperation(operation);
     float endAngle = startAngle + sweepAngle;
     // Flip the startAngle and endAngle when drawing the shadow inside the bounds. They represent
     // the angles from the center of the circle to the start or end of the arc, respectively. When
     // the shadow is drawn inside the arc, it is going the opposite direction.
     boolean drawShadowInsideBounds = sweepAngle < 0;
-    addShadowCompatOperation(
-        arcShadowOperation,
-        drawShadowInsideBounds ? (180 + startAngle) % 360 : startAngle,
-        drawShadowInsideBounds ? (180 + endAngle) % 360 : endAngle);
+    addConnectingShadowIfNecessary(drawShadowInsideBounds ? (180 + startAngle) % 360 : startAngle);
+    shadowCompatOperations.add(OPERATION_ARC, left, top, right, bottom, startAngle, sweepAngle);
+    currentShadowAngle = drawShadowInsideBounds ? (180 + endAngle) % 360 : endAngle;
 
     endX = (left + right) * 0.5f
         + (right - left) / 2 * (float) Math.cos(Math.toRadians(startAngle + sweepAngle));
@@ -152,45 +145,53 @@ public class ShapePath {
    * @param path the path to which this ShapePath is applied
    */
   public void applyToPath(Matrix transform, Path path) {
-    for (int i = 0, size = operations.size(); i < size; i++) {
-      PathOperation operation = operations.get(i);
-      operation.applyToPath(transform, path);
+    boolean inverseDirty = true;
+    for (int i = 0; i < operations.size; i++) {
+      int offset = i * OperationBuffer.VALUES_PER_OPERATION;
+      float[] values = operations.values;
+      switch (operations.types[i]) {
+        case OPERATION_LINE:
+          scratch[0] = values[offset];
+          scratch[1] = values[offset + 1];
+          transform.mapPoints(scratch, 0, scratch, 0, 1);
+          path.lineTo(scratch[0], scratch[1]);
+          break;
+        case OPERATION_QUAD:
+          System.arraycopy(values, offset, scratch, 0, 4);
+          transform.mapPoints(scratch);
+          path.quadTo(scratch[0], scratch[1], scratch[2], scratch[3]);
+          break;
+        case OPERATION_ARC:
+        default:
+          // An arc can't be mapped point by point, so it is added to the path in the coordinate
+          // space of this ShapePath instead.
+          if (inverseDirty) {
+            transform.invert(inverse);
+            inverseDirty = false;
+          }
+          path.transform(inverse);
+          rectF.set(values[offset], values[offset + 1], values[offset + 2], values[offset + 3]);
+          path.arcTo(rectF, values[offset + 4], values[offset + 5], false);
+          path.transform(transform);
+          break;
+      }
     }
   }
 
   /**
-   * Creates a ShadowCompatOperation to draw compatibility shadow under the matrix transform for the
-   * whole path defined by this ShapePath.
+   * Writes the operations needed to draw compatibility shadow under the matrix transform for the
+   * whole path defined by this ShapePath to {@code shadowCompatOperation}. The operation can be
+   * re-used, so that recalculating a path doesn't allocate new operations.
    */
-  ShadowCompatOperation createShadowCompatOperation(final Matrix transform) {
+  void getShadowCompatOperation(Matrix transform, ShadowCompatOperation shadowCompatOperation) {
     // If the shadowCompatOperations don't end on the desired endShadowAngle, add an arc to do so.
     addConnectingShadowIfNecessary(endShadowAngle);
-    final List<ShadowCompatOperation> operations = new ArrayList<>(shadowCompatOperations);
-    return new ShadowCompatOperation() {
-      @Override
-      public void draw(
-          Matrix matrix, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
-        for (ShadowCompatOperation op : operations) {
-          op.draw(transform, shadowRenderer, shadowElevation, canvas);
-        }
-      }
-    };
+    shadowCompatOperation.set(shadowCompatOperations, transform);
   }
 
   /**
-   * Adds a {@link ShadowCompatOperation}, adding an {@link ArcShadowOperation} if needed in order
-   * to connect the previous shadow end to the new shadow operation's beginning.
-   */
-  private void addShadowCompatOperation(
-      ShadowCompatOperation shadowOperation, float startShadowAngle, float endShadowAngle) {
-    addConnectingShadowIfNecessary(startShadowAngle);
-    shadowCompatOperations.add(shadowOperation);
-    currentShadowAngle = endShadowAngle;
-  }
-
-  /**
-   * Create an {@link ArcShadowOperation} to fill in a shadow between the currently drawn shadow and
-   * the next shadow angle, if there would be a gap.
+   * Create an arc shadow operation to fill in a shadow between the currently drawn shadow and the
+   * next shadow angle, if there would be a gap.
    */
   private void addConnectingShadowIfNecessary(float nextShadowAngle) {
     if (currentShadowAngle == nextShadowAngle) {
@@ -202,83 +203,126 @@ public class ShapePath {
       // Shadows are actually overlapping, so don't draw anything.
       return;
     }
-    PathArcOperation pathArcOperation = new PathArcOperation(endX, endY, endX, endY);
-    pathArcOperation.startAngle = currentShadowAngle;
-    pathArcOperation.sweepAngle = shadowSweep;
-    shadowCompatOperations.add(new ArcShadowOperation(pathArcOperation));
+    shadowCompatOperations.add(
+        OPERATION_ARC, endX, endY, endX, endY, currentShadowAngle, shadowSweep);
     currentShadowAngle = nextShadowAngle;
   }
 
+  private static float getLineAngle(float startX, float startY, float endX, float endY) {
+    return (float) Math.toDegrees(Math.atan((endY - startY) / (endX - startX)));
+  }
+
   /**
-   * Interface to hold operations that will draw a compatible shadow in the case that native shadows
-   * can't be rendered.
+   * Draws compatible shadow in the case that native shadows can't be rendered. Operations are
+   * written by {@link ShapePath#getShadowCompatOperation(Matrix, ShadowCompatOperation)}, and can
+   * be drawn any number of times without allocating.
    */
-  abstract static class ShadowCompatOperation {
-
-    static final Matrix IDENTITY_MATRIX = new Matrix();
-
-    /** Draws the operation on the canvas */
-    public final void draw(ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
-      draw(IDENTITY_MATRIX, shadowRenderer, shadowElevation, canvas);
-    }
+  static final class ShadowCompatOperation {
 
-    /** Draws the operation with the matrix transform on the canvas */
-    public abstract void draw(
-        Matrix transform, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas);
-  }
+    private final OperationBuffer operations = new OperationBuffer();
+    private final Matrix transform = new Matrix();
 
-  /** Sets up the correct shadow to be drawn for a line. */
-  static class LineShadowOperation extends ShadowCompatOperation {
+    // Pre-allocated objects that are re-used every time the shadow is drawn.
+    private final Matrix edgeTransform = new Matrix();
+    private final RectF rectF = new RectF();
 
-    private final PathLineOperation operation;
-    private final float startX;
-    private final float startY;
+    void set(OperationBuffer operations, Matrix transform) {
+      this.operations.set(operations);
+      this.transform.set(transform);
+    }
 
-    public LineShadowOperation(PathLineOperation operation, float startX, float startY) {
-      this.operation = operation;
-      this.startX = startX;
-      this.startY = startY;
+    /** Draws the operation on the canvas */
+    void draw(ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
+      for (int i = 0; i < operations.size; i++) {
+        int offset = i * OperationBuffer.VALUES_PER_OPERATION;
+        float[] values = operations.values;
+        if (operations.types[i] == OPERATION_LINE) {
+          drawLineShadow(
+              values[offset],
+              values[offset + 1],
+              values[offset + 2],
+              values[offset + 3],
+              shadowRenderer,
+              shadowElevation,
+              canvas);
+        } else {
+          rectF.set(values[offset], values[offset + 1], values[offset + 2], values[offset + 3]);
+          shadowRenderer.drawCornerShadow(
+              canvas, transform, rectF, shadowElevation, values[offset + 4], values[offset + 5]);
+        }
+      }
     }
 
-    @Override
-    public void draw(
-        Matrix transform, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
-      final float height = operation.y - startY;
-      final float width = operation.x - startX;
-      final RectF rect = new RectF(0, 0, (float) Math.hypot(height, width), 0);
-      final Matrix edgeTransform = new Matrix(transform);
+    /** Sets up the correct shadow to be drawn for a line. */
+    private void drawLineShadow(
+        float startX,
+        float startY,
+        float endX,
+        float endY,
+        ShadowRenderer shadowRenderer,
+        int shadowElevation,
+        Canvas canvas) {
+      rectF.set(0, 0, (float) Math.hypot(endY - startY, endX - startX), 0);
+      edgeTransform.set(transform);
       // transform & rotate the canvas so that the rect passed to drawEdgeShadow is horizontal.
       edgeTransform.preTranslate(startX, startY);
-      edgeTransform.preRotate(getAngle());
-      shadowRenderer.drawEdgeShadow(canvas, edgeTransform, rect, shadowElevation);
-    }
-
-    float getAngle() {
-      return (float) Math.toDegrees(Math.atan((operation.y - startY) / (operation.x - startX)));
+      edgeTransform.preRotate(getLineAngle(startX, startY, endX, endY));
+      shadowRenderer.drawEdgeShadow(canvas, edgeTransform, rectF, shadowElevation);
     }
   }
 
-  /** Sets up the shadow to be drawn for an arc. */
-  static class ArcShadowOperation extends ShadowCompatOperation {
+  /**
+   * A growable list of operations stored as primitive arrays, so that a ShapePath can be rebuilt
+   * without allocating once the arrays have grown to fit its operations.
+   */
+  static final class OperationBuffer {
+
+    static final int VALUES_PER_OPERATION = 6;
+    private static final int INITIAL_CAPACITY = 8;
+
+    int[] types = new int[INITIAL_CAPACITY];
+    float[] values = new float[INITIAL_CAPACITY * VALUES_PER_OPERATION];
+    int size;
+
+    void add(int type, float v0, float v1, float v2, float v3, float v4, float v5) {
+      ensureCapacity(size + 1);
+      int offset = size * VALUES_PER_OPERATION;
+      types[size] = type;
+      values[offset] = v0;
+      values[offset + 1] = v1;
+      values[offset + 2] = v2;
+      values[offset + 3] = v3;
+      values[offset + 4] = v4;
+      values[offset + 5] = v5;
+      size++;
+    }
 
-    private final PathArcOperation operation;
+    void set(OperationBuffer other) {
+      ensureCapacity(other.size);
+      System.arraycopy(other.types, 0, types, 0, other.size);
+      System.arraycopy(other.values, 0, values, 0, other.size * VALUES_PER_OPERATION);
+      size = other.size;
+    }
 
-    public ArcShadowOperation(PathArcOperation operation) {
-      this.operation = operation;
+    void clear() {
+      size = 0;
     }
 
-    @Override
-    public void draw(
-        Matrix transform, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
-      float startAngle = operation.startAngle;
-      float sweepAngle = operation.sweepAngle;
-      RectF rect = new RectF(operation.left, operation.top, operation.right, operation.bottom);
-      shadowRenderer.drawCornerShadow(
-          canvas, transform, rect, shadowElevation, startAngle, sweepAngle);
+    private void ensureCapacity(int capacity) {
+      if (capacity <= types.length) {
+        return;
+      }
+      int newCapacity = Math.max(capacity, types.length * 2);
+      int[] newTypes = new int[newCapacity];
+      float[] newValues = new float[newCapacity * VALUES_PER_OPERATION];
+      System.arraycopy(types, 0, newTypes, 0, size);
+      System.arraycopy(values, 0, newValues, 0, size * VALUES_PER_OPERATION);
+      types = newTypes;
+      values = newValues;
     }
   }
 
-  /** Interface for a path operation to be appended to the operations list. */
+  /** Interface for a path operation which can be applied to a path. */
   public abstract static class PathOperation {
     protected final Matrix matrix = new Matrix();
 
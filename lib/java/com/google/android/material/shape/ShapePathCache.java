@@ -0,0 +1,248 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+import androidx.annotation.NonNull;
+import androidx.collection.LruCache;
+
+/**
+ * A cache of the {@link Path}s calculated for a {@link ShapeAppearanceModel}, shared by all {@link
+ * MaterialShapeDrawable}s.
+ *
+ * <p>Paths are keyed on the shape, the size of the bounds, the interpolation and the stroke inset,
+ * and are stored relative to the top left of their bounds so that a path can be re-used wherever
+ * the shape is drawn. The interpolations of cached paths are quantized, so paths which are
+ * interpolated while scrolling can be re-used as well. Paths which aren't cached keep their exact
+ * interpolation.
+ *
+ * <p>Only shapes made of the library's rounded, cut and default corner treatments and default edge
+ * treatments are cached, since these are entirely described by their class and corner size.
+ */
+final class ShapePathCache {
+
+  /** Maximum number of paths shared between all drawables. */
+  private static final int MAX_CACHED_PATHS = 64;
+
+  /** Interpolations are rounded to the closest multiple of 1 / INTERPOLATION_STEPS. */
+  private static final int INTERPOLATION_STEPS = 1000;
+
+  static final int CORNER_FAMILY_NONE = 0;
+  static final int CORNER_FAMILY_ROUNDED = 1;
+  static final int CORNER_FAMILY_CUT = 2;
+  static final int CORNER_FAMILY_UNSUPPORTED = -1;
+
+  private static final LruCache<Key, Path> cache = new LruCache<>(MAX_CACHED_PATHS);
+
+  /** The key of the last lookup, re-used so that lookups don't allocate. */
+  private final Key scratchKey = new Key();
+
+  private static int quantizeInterpolation(float interpolation) {
+    return Math.round(interpolation * INTERPOLATION_STEPS);
+  }
+
+  /**
+   * Writes the cached path for the given shape to {@code path}.
+   *
+   * @param shapeAppearanceModel the shape of the path.
+   * @param interpolation the interpolation of the path, which is quantized to look it up.
+   * @param bounds the bounds of the path.
+   * @param strokeInset the amount by which the corners of the shape are inset for a stroke, or 0.
+   * @param path the returned path out-var.
+   * @return true if a cached path was found, false if the path needs to be calculated. In that case
+   *     it should be calculated with {@link #getCalculatedInterpolation(float)}, and can then be
+   *     added to the cache with {@link #put(RectF, Path)}.
+   */
+  boolean get(
+      @NonNull ShapeAppearanceModel shapeAppearanceModel,
+      float interpolation,
+      @NonNull RectF bounds,
+      float strokeInset,
+      @NonNull Path path) {
+    if (!scratchKey.set(shapeAppearanceModel, interpolation, bounds, strokeInset)) {
+      return false;
+    }
+    Path cachedPath = cache.get(scratchKey);
+    if (cachedPath == null) {
+      return false;
+    }
+    path.set(cachedPath);
+    path.offset(bounds.left, bounds.top);
+    return true;
+  }
+
+  /**
+   * Returns the interpolation with which to calculate the path that the last call to {@link
+   * #get(ShapeAppearanceModel, float, RectF, float, Path)} failed to find. Paths which will be
+   * cached are calculated with the quantized interpolation they are looked up with, while other
+   * paths keep the exact interpolation.
+   */
+  float getCalculatedInterpolation(float interpolation) {
+    return scratchKey.cacheable
+        ? quantizeInterpolation(interpolation) / (float) INTERPOLATION_STEPS
+        : interpolation;
+  }
+
+  /**
+   * Caches {@code path}, which was calculated after the last call to {@link
+   * #get(ShapeAppearanceModel, float, RectF, float, Path)} failed to find a cached path.
+   */
+  void put(@NonNull RectF bounds, @NonNull Path path) {
+    if (!scratchKey.cacheable) {
+      return;
+    }
+    Path cachedPath = new Path(path);
+    cachedPath.offset(-bounds.left, -bounds.top);
+    cache.put(new Key(scratchKey), cachedPath);
+  }
+
+  /**
+   * Returns the family of a library corner treatment, or {@link #CORNER_FAMILY_UNSUPPORTED} for
+   * subclasses, whose paths can't be described by their class and corner size alone.
+   */
+  static int getCornerFamily(CornerTreatment cornerTreatment) {
+    Class<?> treatmentClass = cornerTreatment.getClass();
+    if (treatmentClass == RoundedCornerTreatment.class) {
+      return CORNER_FAMILY_ROUNDED;
+    } else if (treatmentClass == CutCornerTreatment.class) {
+      return CORNER_FAMILY_CUT;
+    } else if (treatmentClass == CornerTreatment.class) {
+      return CORNER_FAMILY_NONE;
+    }
+    return CORNER_FAMILY_UNSUPPORTED;
+  }
+
+  /** Returns whether {@code edgeTreatment} is a flat edge. */
+  static boolean isDefaultEdge(EdgeTreatment edgeTreatment) {
+    return edgeTreatment.getClass() == EdgeTreatment.class;
+  }
+
+  /** Identifies a cached path. Keys are immutable once they have been added to the cache. */
+  private static final class Key {
+
+    private boolean cacheable;
+    private int cornerFamilies;
+    private float topLeftCornerSize;
+    private float topRightCornerSize;
+    private float bottomRightCornerSize;
+    private float bottomLeftCornerSize;
+    private float width;
+    private float height;
+    private int interpolation;
+    private float strokeInset;
+    private int hashCode;
+
+    Key() {}
+
+    Key(Key other) {
+      cacheable = other.cacheable;
+      cornerFamilies = other.cornerFamilies;
+      topLeftCornerSize = other.topLeftCornerSize;
+      topRightCornerSize = other.topRightCornerSize;
+      bottomRightCornerSize = other.bottomRightCornerSize;
+      bottomLeftCornerSize = other.bottomLeftCornerSize;
+      width = other.width;
+      height = other.height;
+      interpolation = other.interpolation;
+      strokeInset = other.strokeInset;
+      hashCode = other.hashCode;
+    }
+
+    /** Sets this key to the given shape, and returns whether the shape can be cached. */
+    boolean set(
+        ShapeAppearanceModel shapeAppearanceModel,
+        float interpolation,
+        RectF bounds,
+        float strokeInset) {
+      cacheable = false;
+      if (!isDefaultEdge(shapeAppearanceModel.getTopEdge())
+          || !isDefaultEdge(shapeAppearanceModel.getRightEdge())
+          || !isDefaultEdge(shapeAppearanceModel.getBottomEdge())
+          || !isDefaultEdge(shapeAppearanceModel.getLeftEdge())) {
+        return false;
+      }
+
+      CornerTreatment topLeftCorner = shapeAppearanceModel.getTopLeftCorner();
+      CornerTreatment topRightCorner = shapeAppearanceModel.getTopRightCorner();
+      CornerTreatment bottomRightCorner = shapeAppearanceModel.getBottomRightCorner();
+      CornerTreatment bottomLeftCorner = shapeAppearanceModel.getBottomLeftCorner();
+      int topLeftFamily = getCornerFamily(topLeftCorner);
+      int topRightFamily = getCornerFamily(topRightCorner);
+      int bottomRightFamily = getCornerFamily(bottomRightCorner);
+      int bottomLeftFamily = getCornerFamily(bottomLeftCorner);
+      if (topLeftFamily == CORNER_FAMILY_UNSUPPORTED
+          || topRightFamily == CORNER_FAMILY_UNSUPPORTED
+          || bottomRightFamily == CORNER_FAMILY_UNSUPPORTED
+          || bottomLeftFamily == CORNER_FAMILY_UNSUPPORTED) {
+        return false;
+      }
+
+      cacheable = true;
+      cornerFamilies =
+          topLeftFamily | topRightFamily << 2 | bottomRightFamily << 4 | bottomLeftFamily << 6;
+      topLeftCornerSize = topLeftCorner.getCornerSize();
+      topRightCornerSize = topRightCorner.getCornerSize();
+      bottomRightCornerSize = bottomRightCorner.getCornerSize();
+      bottomLeftCornerSize = bottomLeftCorner.getCornerSize();
+      width = bounds.width();
+      height = bounds.height();
+      this.interpolation = quantizeInterpolation(interpolation);
+      this.strokeInset = strokeInset;
+
+      int result = cornerFamilies;
+      result = 31 * result + Float.floatToIntBits(topLeftCornerSize);
+      result = 31 * result + Float.floatToIntBits(topRightCornerSize);
+      result = 31 * result + Float.floatToIntBits(bottomRightCornerSize);
+      result = 31 * result + Float.floatToIntBits(bottomLeftCornerSize);
+      result = 31 * result + Float.floatToIntBits(width);
+      result = 31 * result + Float.floatToIntBits(height);
+      result = 31 * result + this.interpolation;
+      result = 31 * result + Float.floatToIntBits(strokeInset);
+      hashCode = result;
+      return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return cacheable
+          && that.cacheable
+          && hashCode == that.hashCode
+          && cornerFamilies == that.cornerFamilies
+          && Float.compare(topLeftCornerSize, that.topLeftCornerSize) == 0
+          && Float.compare(topRightCornerSize, that.topRightCornerSize) == 0
+          && Float.compare(bottomRightCornerSize, that.bottomRightCornerSize) == 0
+          && Float.compare(bottomLeftCornerSize, that.bottomLeftCornerSize) == 0
+          && Float.compare(width, that.width) == 0
+          && Float.compare(height, that.height) == 0
+          && interpolation == that.interpolation
+          && Float.compare(strokeInset, that.strokeInset) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -46,4 +46,13 @@ public class TriangleEdgeTreatment extends EdgeTreatment implements Cloneable {
     shapePath.lineTo(center + (size * interpolation), 0);
     shapePath.lineTo(length, 0);
   }
+
+  /** Returns whether {@code other} draws the same triangle as this treatment. */
+  boolean isSameTriangle(TriangleEdgeTreatment other) {
+    return Float.compare(size, other.size) == 0 && inside == other.inside;
+  }
+
+  int triangleHashCode() {
+    return 31 * Float.floatToIntBits(size) + (inside ? 1 : 0);
+  }
 }
@@ -232,6 +232,8 @@ public abstract class BaseTransientBottomBar<B extends BaseTransientBottomBar<B>
   protected final SnackbarBaseLayout view;
   private final com.google.android.material.snackbar.ContentViewCallback contentViewCallback;
   private int duration;
+  private int queuePriority;
+  @Nullable private Object queueKey;
   @Nullable private View anchorView;
 
   private final int originalBottomMargin;
@@ -414,6 +416,55 @@ public abstract class BaseTransientBottomBar<B extends BaseTransientBottomBar<B>
     return duration;
   }
 
+  /**
+   * Set the priority of this {@link BaseTransientBottomBar} when it's queued with {@link
+   * #enqueue()}. Queued bars with a higher priority are shown first, and queued bars with the same
+   * priority are shown in the order they were queued in.
+   *
+   * @param priority The priority, which is 0 by default.
+   */
+  @NonNull
+  public B setQueuePriority(int priority) {
+    this.queuePriority = priority;
+    return (B) this;
+  }
+
+  /**
+   * Return the queue priority.
+   *
+   * @see #setQueuePriority(int)
+   */
+  public int getQueuePriority() {
+    return queuePriority;
+  }
+
+  /**
+   * Set a key for what this {@link BaseTransientBottomBar} is about, such as the progress of a
+   * sync, so that frequent updates about it don't pile up in the queue.
+   *
+   * <p>When this bar is queued with {@link #enqueue()}, a queued bar with an equal key is dismissed
+   * with {@link BaseCallback#DISMISS_EVENT_CONSECUTIVE} and replaced by this one. A shown bar with
+   * an equal key is dismissed right away, and this one is shown next.
+   *
+   * @param key The key, compared with {@link Object#equals(Object)}, or null to never replace
+   *     another bar.
+   */
+  @NonNull
+  public B setQueueKey(@Nullable Object key) {
+    this.queueKey = key;
+    return (B) this;
+  }
+
+  /**
+   * Return the queue key.
+   *
+   * @see #setQueueKey(Object)
+   */
+  @Nullable
+  public Object getQueueKey() {
+    return queueKey;
+  }
+
   /** Returns the {@link AnimationMode}. */
   @AnimationMode
   public int getAnimationMode() {
@@ -487,6 +538,31 @@ public abstract class BaseTransientBottomBar<B extends BaseTransientBottomBar<B>
     SnackbarManager.getInstance().show(getDuration(), managerCallback);
   }
 
+  /**
+   * Queue the {@link BaseTransientBottomBar} to be shown once the bar currently shown, and any
+   * queued bar with a higher or equal {@link #setQueuePriority(int) priority}, have been dismissed.
+   * Unlike {@link #show()}, this doesn't dismiss the bar currently shown.
+   *
+   * <p>This can be called from any thread. When more bars are queued than allowed by {@link
+   * #setMaxQueueSize(int)}, the oldest of the queued bars with the lowest priority is dismissed
+   * with {@link BaseCallback#DISMISS_EVENT_CONSECUTIVE}.
+   *
+   * @see #setQueueKey(Object)
+   */
+  public void enqueue() {
+    SnackbarManager.getInstance().enqueue(getDuration(), managerCallback, queuePriority, queueKey);
+  }
+
+  /**
+   * Set how many bars can wait in the queue of bars shown with {@link #enqueue()}, which is 8 by
+   * default.
+   *
+   * @param maxQueueSize The maximum number of queued bars.
+   */
+  public static void setMaxQueueSize(int maxQueueSize) {
+    SnackbarManager.getInstance().setMaxQueueSize(maxQueueSize);
+  }
+
   /** Dismiss the {@link BaseTransientBottomBar}. */
   public void dismiss() {
     dispatchDismiss(BaseCallback.DISMISS_EVENT_MANUAL);
@@ -542,7 +618,7 @@ public abstract class BaseTransientBottomBar<B extends BaseTransientBottomBar<B>
 
   /**
    * Returns whether this {@link BaseTransientBottomBar} is currently being shown, or is queued to
-   * be shown next.
+   * be shown.
    */
   public boolean isShownOrQueued() {
     return SnackbarManager.getInstance().isCurrentOrNext(managerCallback);
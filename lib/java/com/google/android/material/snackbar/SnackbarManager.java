@@ -19,23 +19,40 @@ package com.google.android.material.snackbar;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /** Manages {@link Snackbar}s. */
 class SnackbarManager {
 
   static final int MSG_TIMEOUT = 0;
+  static final int MSG_DRAIN_QUEUE = 1;
+
+  static final int DEFAULT_MAX_QUEUE_SIZE = 8;
 
   private static final int SHORT_DURATION_MS = 1500;
   private static final int LONG_DURATION_MS = 2750;
 
-  private static SnackbarManager snackbarManager;
+  private static volatile SnackbarManager snackbarManager;
 
   static SnackbarManager getInstance() {
-    if (snackbarManager == null) {
-      snackbarManager = new SnackbarManager();
+    // Snackbars can be enqueued from any thread, so make sure they all share one instance.
+    SnackbarManager instance = snackbarManager;
+    if (instance == null) {
+      synchronized (SnackbarManager.class) {
+        instance = snackbarManager;
+        if (instance == null) {
+          instance = snackbarManager = new SnackbarManager();
+        }
+      }
     }
-    return snackbarManager;
+    return instance;
   }
 
   private final Object lock;
@@ -44,7 +61,19 @@ class SnackbarManager {
   private SnackbarRecord currentSnackbar;
   private SnackbarRecord nextSnackbar;
 
-  private SnackbarManager() {
+  // Snackbars enqueued from any thread, without taking the lock, which wait here until the main
+  // thread moves them into the queue.
+  private final ConcurrentLinkedQueue<SnackbarRecord> pendingQueuedSnackbars =
+      new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean queueDrainScheduled = new AtomicBoolean();
+
+  // Snackbars waiting to be shown after the current and next Snackbars, sorted by priority and
+  // then by the order they were enqueued in.
+  private final List<SnackbarRecord> queuedSnackbars = new ArrayList<>();
+  private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+
+  @VisibleForTesting
+  SnackbarManager() {
     lock = new Object();
     handler =
         new Handler(
@@ -56,6 +85,9 @@ class SnackbarManager {
                   case MSG_TIMEOUT:
                     handleTimeout((SnackbarRecord) message.obj);
                     return true;
+                  case MSG_DRAIN_QUEUE:
+                    drainQueue();
+                    return true;
                 }
                 return false;
               }
@@ -83,7 +115,9 @@ class SnackbarManager {
         // We'll just update the duration
         nextSnackbar.duration = duration;
       } else {
-        // Else, we need to create a new record and queue it
+        // Else, we need to create a new record and queue it. If the Snackbar was enqueued, it's
+        // shown now instead of again later.
+        removeQueuedSnackbarLocked(callback);
         nextSnackbar = new SnackbarRecord(duration, callback);
       }
 
@@ -100,12 +134,45 @@ class SnackbarManager {
     }
   }
 
+  /**
+   * Queues a Snackbar to be shown once the current and next Snackbars, and any queued Snackbar with
+   * a higher or equal priority, have been dismissed. Unlike {@link #show(int, Callback)}, this
+   * doesn't dismiss the current Snackbar, and it can be called from any thread without blocking.
+   *
+   * @param key If not null, a queued Snackbar with an equal key is dropped in favor of this one,
+   *     and a current Snackbar with an equal key is dismissed right away to show this one.
+   */
+  public void enqueue(int duration, Callback callback, int priority, @Nullable Object key) {
+    SnackbarRecord record = new SnackbarRecord(duration, callback, priority, key);
+    record.queuedCallback = callback;
+    pendingQueuedSnackbars.offer(record);
+    if (queueDrainScheduled.compareAndSet(false, true)) {
+      handler.sendMessage(Message.obtain(handler, MSG_DRAIN_QUEUE));
+    }
+  }
+
+  /**
+   * Sets how many Snackbars can wait in the queue. Beyond that, the oldest of the queued Snackbars
+   * with the lowest priority is dismissed.
+   */
+  public void setMaxQueueSize(int maxQueueSize) {
+    synchronized (lock) {
+      this.maxQueueSize = Math.max(0, maxQueueSize);
+      trimQueueLocked();
+    }
+  }
+
   public void dismiss(Callback callback, int event) {
     synchronized (lock) {
       if (isCurrentSnackbarLocked(callback)) {
         cancelSnackbarLocked(currentSnackbar, event);
       } else if (isNextSnackbarLocked(callback)) {
         cancelSnackbarLocked(nextSnackbar, event);
+      } else {
+        SnackbarRecord record = removeQueuedSnackbarLocked(callback);
+        if (record != null) {
+          cancelSnackbarLocked(record, event);
+        }
       }
     }
   }
@@ -119,9 +186,7 @@ class SnackbarManager {
       if (isCurrentSnackbarLocked(callback)) {
         // If the callback is from a Snackbar currently show, remove it and show a new one
         currentSnackbar = null;
-        if (nextSnackbar != null) {
-          showNextSnackbarLocked();
-        }
+        showNextSnackbarLocked();
       }
     }
   }
@@ -164,18 +229,31 @@ class SnackbarManager {
 
   public boolean isCurrentOrNext(Callback callback) {
     synchronized (lock) {
-      return isCurrentSnackbarLocked(callback) || isNextSnackbarLocked(callback);
+      return isCurrentSnackbarLocked(callback)
+          || isNextSnackbarLocked(callback)
+          || isQueuedSnackbarLocked(callback);
     }
   }
 
   private static class SnackbarRecord {
     final WeakReference<Callback> callback;
+    // Enqueued Snackbars aren't referenced by anything else until they are shown, so their record
+    // keeps them alive while they wait.
+    @Nullable Callback queuedCallback;
     int duration;
     boolean paused;
+    final int priority;
+    @Nullable final Object key;
 
     SnackbarRecord(int duration, Callback callback) {
+      this(duration, callback, 0, null);
+    }
+
+    SnackbarRecord(int duration, Callback callback, int priority, @Nullable Object key) {
       this.callback = new WeakReference<>(callback);
       this.duration = duration;
+      this.priority = priority;
+      this.key = key;
     }
 
     boolean isSnackbar(Callback callback) {
@@ -184,20 +262,117 @@ class SnackbarManager {
   }
 
   private void showNextSnackbarLocked() {
-    if (nextSnackbar != null) {
+    while (nextSnackbar != null || !queuedSnackbars.isEmpty()) {
+      if (nextSnackbar == null) {
+        nextSnackbar = queuedSnackbars.remove(0);
+      }
       currentSnackbar = nextSnackbar;
       nextSnackbar = null;
 
       final Callback callback = currentSnackbar.callback.get();
+      // Once shown, the Snackbar's view keeps it alive
+      currentSnackbar.queuedCallback = null;
       if (callback != null) {
         callback.show();
-      } else {
-        // The callback doesn't exist any more, clear out the Snackbar
-        currentSnackbar = null;
+        return;
+      }
+      // The callback doesn't exist any more, clear out the Snackbar and try the next one
+      currentSnackbar = null;
+    }
+  }
+
+  void drainQueue() {
+    // Reset the flag before polling, so that a Snackbar enqueued after the last poll schedules
+    // another drain.
+    queueDrainScheduled.set(false);
+    synchronized (lock) {
+      SnackbarRecord record;
+      while ((record = pendingQueuedSnackbars.poll()) != null) {
+        addToQueueLocked(record);
+      }
+      if (currentSnackbar == null) {
+        showNextSnackbarLocked();
       }
     }
   }
 
+  private void addToQueueLocked(SnackbarRecord record) {
+    final Callback callback = record.callback.get();
+    if (callback == null) {
+      return;
+    }
+    if (isCurrentSnackbarLocked(callback)) {
+      // The Snackbar is already shown, so just update its duration like show() does
+      currentSnackbar.duration = record.duration;
+      handler.removeCallbacksAndMessages(currentSnackbar);
+      scheduleTimeoutLocked(currentSnackbar);
+      return;
+    }
+    if (isNextSnackbarLocked(callback)) {
+      nextSnackbar.duration = record.duration;
+      return;
+    }
+
+    // Replace an earlier request for the same Snackbar, and drop any queued Snackbar with the
+    // same key
+    for (int i = queuedSnackbars.size() - 1; i >= 0; i--) {
+      SnackbarRecord queued = queuedSnackbars.get(i);
+      if (queued.isSnackbar(callback)) {
+        queuedSnackbars.remove(i);
+      } else if (record.key != null && record.key.equals(queued.key)) {
+        queuedSnackbars.remove(i);
+        cancelSnackbarLocked(queued, Snackbar.Callback.DISMISS_EVENT_CONSECUTIVE);
+      }
+    }
+
+    if (record.key != null
+        && currentSnackbar != null
+        && nextSnackbar == null
+        && record.key.equals(currentSnackbar.key)) {
+      // Show the newer Snackbar in place of the current one as soon as it's dismissed
+      queuedSnackbars.add(0, record);
+      cancelSnackbarLocked(currentSnackbar, Snackbar.Callback.DISMISS_EVENT_CONSECUTIVE);
+      return;
+    }
+
+    int index = queuedSnackbars.size();
+    while (index > 0 && queuedSnackbars.get(index - 1).priority < record.priority) {
+      index--;
+    }
+    queuedSnackbars.add(index, record);
+    trimQueueLocked();
+  }
+
+  private void trimQueueLocked() {
+    while (queuedSnackbars.size() > maxQueueSize) {
+      // Drop the oldest of the Snackbars with the lowest priority
+      int index = queuedSnackbars.size() - 1;
+      int lowestPriority = queuedSnackbars.get(index).priority;
+      while (index > 0 && queuedSnackbars.get(index - 1).priority == lowestPriority) {
+        index--;
+      }
+      cancelSnackbarLocked(
+          queuedSnackbars.remove(index), Snackbar.Callback.DISMISS_EVENT_CONSECUTIVE);
+    }
+  }
+
+  @Nullable
+  private SnackbarRecord removeQueuedSnackbarLocked(Callback callback) {
+    for (int i = 0; i < queuedSnackbars.size(); i++) {
+      if (queuedSnackbars.get(i).isSnackbar(callback)) {
+        return queuedSnackbars.remove(i);
+      }
+    }
+    for (Iterator<SnackbarRecord> it = pendingQueuedSnackbars.iterator(); it.hasNext(); ) {
+      SnackbarRecord record = it.next();
+      if (record.isSnackbar(callback)) {
+        it.remove();
+        return record;
+      }
+    }
+    return null;
+  }
+
   private boolean cancelSnackbarLocked(SnackbarRecord record, int event) {
     final Callback callback = record.callback.get();
     if (callback != null) {
@@ -217,6 +392,20 @@ class SnackbarManager {
     return nextSnackbar != null && nextSnackbar.isSnackbar(callback);
   }
 
+  private boolean isQueuedSnackbarLocked(Callback callback) {
+    for (int i = 0; i < queuedSnackbars.size(); i++) {
+      if (queuedSnackbars.get(i).isSnackbar(callback)) {
+        return true;
+      }
+    }
+    for (SnackbarRecord record : pendingQueuedSnackbars) {
+      if (record.isSnackbar(callback)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void scheduleTimeoutLocked(SnackbarRecord r) {
     if (r.duration == Snackbar.LENGTH_INDEFINITE) {
       // If we're set to indefinite, we don't want to set a timeout
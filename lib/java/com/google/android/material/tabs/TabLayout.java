@@ -2557,6 +2557,12 @@ public class TabLayout extends HorizontalScrollView {
     private final Paint selectedIndicatorPaint;
     private final GradientDrawable defaultSelectionIndicator;
 
+    // The wrapped and tinted selection indicator, re-used across frames until the indicator
+    // drawable or its color changes.
+    @Nullable private Drawable selectedIndicatorSource;
+    @Nullable private Drawable selectedIndicator;
+    private int selectedIndicatorTint;
+
     int selectedPosition = -1;
     float selectionOffset;
 
@@ -2863,26 +2869,38 @@ public class TabLayout extends HorizontalScrollView {
 
       // Draw the selection indicator on top of tab item backgrounds
       if (indicatorLeft >= 0 && indicatorRight > indicatorLeft) {
-        Drawable selectedIndicator;
-        selectedIndicator =
-            DrawableCompat.wrap(
-                tabSelectedIndicator != null ? tabSelectedIndicator : defaultSelectionIndicator);
+        Drawable selectedIndicator = getTintedSelectedIndicator();
         selectedIndicator.setBounds(indicatorLeft, indicatorTop, indicatorRight, indicatorBottom);
-        if (selectedIndicatorPaint != null) {
-          if (VERSION.SDK_INT == VERSION_CODES.LOLLIPOP) {
-            // Drawable doesn't implement setTint in API 21
-            selectedIndicator.setColorFilter(
-                selectedIndicatorPaint.getColor(), PorterDuff.Mode.SRC_IN);
-          } else {
-            DrawableCompat.setTint(selectedIndicator, selectedIndicatorPaint.getColor());
-          }
-        }
         selectedIndicator.draw(canvas);
       }
 
       // Draw the tab item contents (icon and label) on top of the background + indicator layers
       super.draw(canvas);
     }
+
+    /**
+     * Returns the selection indicator, wrapped and tinted with the indicator color. Wrapping and
+     * tinting allocate, so they're only redone when the indicator drawable or color changes.
+     */
+    private Drawable getTintedSelectedIndicator() {
+      Drawable source =
+          tabSelectedIndicator != null ? tabSelectedIndicator : defaultSelectionIndicator;
+      int tint = selectedIndicatorPaint.getColor();
+      if (source != selectedIndicatorSource || selectedIndicator == null) {
+        selectedIndicatorSource = source;
+        selectedIndicator = DrawableCompat.wrap(source);
+      } else if (tint == selectedIndicatorTint) {
+        return selectedIndicator;
+      }
+      selectedIndicatorTint = tint;
+      if (VERSION.SDK_INT == VERSION_CODES.LOLLIPOP) {
+        // Drawable doesn't implement setTint in API 21
+        selectedIndicator.setColorFilter(tint, PorterDuff.Mode.SRC_IN);
+      } else {
+        DrawableCompat.setTint(selectedIndicator, tint);
+      }
+      return selectedIndicator;
+    }
   }
 
   private static ColorStateList createColorStateList(int defaultColor, int selectedColor) {
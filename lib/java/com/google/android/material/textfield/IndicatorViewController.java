@@ -18,13 +18,12 @@ package com.google.android.material.textfield;
 
 import com.google.android.material.R;
 
-import static android.view.View.TRANSLATION_Y;
 import static android.view.View.VISIBLE;
 
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
-import android.animation.AnimatorSet;
-import android.animation.ObjectAnimator;
+import android.animation.ValueAnimator;
+import android.animation.ValueAnimator.AnimatorUpdateListener;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.graphics.Typeface;
@@ -33,7 +32,6 @@ import androidx.annotation.IntDef;
 import androidx.annotation.Nullable;
 import androidx.annotation.StyleRes;
 import com.google.android.material.animation.AnimationUtils;
-import com.google.android.material.animation.AnimatorSetCompat;
 import androidx.core.view.ViewCompat;
 import androidx.legacy.widget.Space;
 import androidx.core.widget.TextViewCompat;
@@ -47,8 +45,6 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Controller for indicator views underneath the text input line in {@link
@@ -98,7 +94,8 @@ final class IndicatorViewController {
 
   private FrameLayout captionArea;
   private int captionViewsAdded;
-  @Nullable private Animator captionAnimator;
+  @Nullable private ValueAnimator captionAnimator;
+  @Nullable private CaptionAnimation captionAnimation;
   private final float captionTranslationYPx;
   private int captionDisplayed;
   private int captionToShow;
@@ -201,56 +198,20 @@ final class IndicatorViewController {
       boolean animate) {
 
     if (animate) {
-      final AnimatorSet captionAnimator = new AnimatorSet();
-      this.captionAnimator = captionAnimator;
-      List<Animator> captionAnimatorList = new ArrayList<>();
-
-      createCaptionAnimators(
-          captionAnimatorList,
-          helperTextEnabled,
-          helperTextView,
-          CAPTION_STATE_HELPER_TEXT,
-          captionToHide,
-          captionToShow);
+      if (captionAnimator == null) {
+        captionAnimation = new CaptionAnimation();
+        captionAnimator = ValueAnimator.ofFloat(0f, 1f);
+        captionAnimator.setInterpolator(AnimationUtils.LINEAR_INTERPOLATOR);
+        captionAnimator.addUpdateListener(captionAnimation);
+        captionAnimator.addListener(captionAnimation);
+      }
 
-      createCaptionAnimators(
-          captionAnimatorList,
-          errorEnabled,
-          errorView,
-          CAPTION_STATE_ERROR,
+      captionAnimation.setCaptions(
           captionToHide,
-          captionToShow);
-
-      AnimatorSetCompat.playTogether(captionAnimator, captionAnimatorList);
-      final TextView captionViewToHide = getCaptionViewFromDisplayState(captionToHide);
-      final TextView captionViewToShow = getCaptionViewFromDisplayState(captionToShow);
-
-      captionAnimator.addListener(
-          new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animator) {
-              captionDisplayed = captionToShow;
-              IndicatorViewController.this.captionAnimator = null;
-              if (captionViewToHide != null) {
-                captionViewToHide.setVisibility(View.INVISIBLE);
-                if (captionToHide == CAPTION_STATE_ERROR && errorView != null) {
-                  errorView.setText(null);
-                }
-
-                if (captionViewToShow != null) {
-                  captionViewToShow.setTranslationY(0f);
-                  captionViewToShow.setAlpha(1f);
-                }
-              }
-            }
-
-            @Override
-            public void onAnimationStart(Animator animator) {
-              if (captionViewToShow != null) {
-                captionViewToShow.setVisibility(VISIBLE);
-              }
-            }
-          });
+          captionToShow,
+          getAnimatedCaptionView(helperTextEnabled, helperTextView),
+          getAnimatedCaptionView(errorEnabled, errorView));
+      captionAnimator.setDuration(captionAnimation.getDuration());
       captionAnimator.start();
     } else {
       setCaptionViewVisibilities(captionToHide, captionToShow);
@@ -287,46 +248,114 @@ final class IndicatorViewController {
     captionDisplayed = captionToShow;
   }
 
-  private void createCaptionAnimators(
-      List<Animator> captionAnimatorList,
-      boolean captionEnabled,
-      TextView captionView,
-      @CaptionDisplayState int captionState,
-      @CaptionDisplayState int captionToHide,
-      @CaptionDisplayState int captionToShow) {
-    // If caption view is null or not enabled, do nothing.
-    if (captionView == null || !captionEnabled) {
-      return;
+  /** Returns the caption view, if it exists and is enabled, so that it can be animated. */
+  @Nullable
+  private static TextView getAnimatedCaptionView(boolean captionEnabled, TextView captionView) {
+    return captionEnabled ? captionView : null;
+  }
+
+  void cancelCaptionAnimator() {
+    if (captionAnimator != null) {
+      captionAnimator.cancel();
     }
-    // If the caption view should be shown, set alpha to 1f.
-    if ((captionState == captionToShow) || (captionState == captionToHide)) {
-      captionAnimatorList.add(
-          createCaptionOpacityAnimator(captionView, captionToShow == captionState));
-      if (captionToShow == captionState) {
-        captionAnimatorList.add(createCaptionTranslationYAnimator(captionView));
+  }
+
+  /**
+   * Fades out the caption to hide, and fades and slides in the caption to show. A single animator
+   * drives both, and is retargeted for each transition instead of being created again.
+   */
+  private final class CaptionAnimation extends AnimatorListenerAdapter
+      implements AnimatorUpdateListener {
+
+    @CaptionDisplayState private int captionToHide;
+    @CaptionDisplayState private int captionToShow;
+    @Nullable private TextView captionViewToHide;
+    @Nullable private TextView captionViewToShow;
+    // The views whose opacity and translation are animated.
+    @Nullable private TextView fadeOutView;
+    @Nullable private TextView fadeInView;
+    private float fadeOutStartAlpha;
+    private float fadeInStartAlpha;
+
+    void setCaptions(
+        @CaptionDisplayState int captionToHide,
+        @CaptionDisplayState int captionToShow,
+        @Nullable TextView animatedHelperTextView,
+        @Nullable TextView animatedErrorView) {
+      this.captionToHide = captionToHide;
+      this.captionToShow = captionToShow;
+      captionViewToHide = getCaptionViewFromDisplayState(captionToHide);
+      captionViewToShow = getCaptionViewFromDisplayState(captionToShow);
+
+      fadeOutView = null;
+      fadeInView = null;
+      setAnimatedView(CAPTION_STATE_HELPER_TEXT, animatedHelperTextView);
+      setAnimatedView(CAPTION_STATE_ERROR, animatedErrorView);
+    }
+
+    private void setAnimatedView(
+        @CaptionDisplayState int captionState, @Nullable TextView captionView) {
+      if (captionView == null) {
+        return;
+      }
+      if (captionState == captionToShow) {
+        fadeInView = captionView;
+        fadeInStartAlpha = captionView.getAlpha();
+      } else if (captionState == captionToHide) {
+        fadeOutView = captionView;
+        fadeOutStartAlpha = captionView.getAlpha();
       }
     }
-  }
 
-  private ObjectAnimator createCaptionOpacityAnimator(TextView captionView, boolean display) {
-    float endValue = display ? 1f : 0f;
-    ObjectAnimator opacityAnimator = ObjectAnimator.ofFloat(captionView, View.ALPHA, endValue);
-    opacityAnimator.setDuration(CAPTION_OPACITY_FADE_ANIMATION_DURATION);
-    opacityAnimator.setInterpolator(AnimationUtils.LINEAR_INTERPOLATOR);
-    return opacityAnimator;
-  }
+    long getDuration() {
+      return fadeInView != null
+          ? CAPTION_TRANSLATE_Y_ANIMATION_DURATION
+          : CAPTION_OPACITY_FADE_ANIMATION_DURATION;
+    }
 
-  private ObjectAnimator createCaptionTranslationYAnimator(TextView captionView) {
-    ObjectAnimator translationYAnimator =
-        ObjectAnimator.ofFloat(captionView, TRANSLATION_Y, -captionTranslationYPx, 0f);
-    translationYAnimator.setDuration(CAPTION_TRANSLATE_Y_ANIMATION_DURATION);
-    translationYAnimator.setInterpolator(AnimationUtils.LINEAR_OUT_SLOW_IN_INTERPOLATOR);
-    return translationYAnimator;
-  }
+    @Override
+    public void onAnimationUpdate(ValueAnimator animator) {
+      float playTime = animator.getAnimatedFraction() * getDuration();
+      float fadeFraction = Math.min(1f, playTime / CAPTION_OPACITY_FADE_ANIMATION_DURATION);
+      if (fadeOutView != null) {
+        fadeOutView.setAlpha(AnimationUtils.lerp(fadeOutStartAlpha, 0f, fadeFraction));
+      }
+      if (fadeInView != null) {
+        fadeInView.setAlpha(AnimationUtils.lerp(fadeInStartAlpha, 1f, fadeFraction));
+        float translateFraction =
+            AnimationUtils.LINEAR_OUT_SLOW_IN_INTERPOLATOR.getInterpolation(
+                Math.min(1f, playTime / CAPTION_TRANSLATE_Y_ANIMATION_DURATION));
+        fadeInView.setTranslationY(
+            AnimationUtils.lerp(-captionTranslationYPx, 0f, translateFraction));
+      }
+    }
 
-  void cancelCaptionAnimator() {
-    if (captionAnimator != null) {
-      captionAnimator.cancel();
+    @Override
+    public void onAnimationStart(Animator animator) {
+      if (captionViewToShow != null) {
+        captionViewToShow.setVisibility(VISIBLE);
+      }
+    }
+
+    @Override
+    public void onAnimationEnd(Animator animator) {
+      captionDisplayed = captionToShow;
+      if (captionViewToHide != null) {
+        captionViewToHide.setVisibility(View.INVISIBLE);
+        if (captionToHide == CAPTION_STATE_ERROR && errorView != null) {
+          errorView.setText(null);
+        }
+
+        if (captionViewToShow != null) {
+          captionViewToShow.setTranslationY(0f);
+          captionViewToShow.setAlpha(1f);
+        }
+      }
+      // Don't hold on to the views until the next transition.
+      captionViewToHide = null;
+      captionViewToShow = null;
+      fadeOutView = null;
+      fadeInView = null;
     }
   }
 
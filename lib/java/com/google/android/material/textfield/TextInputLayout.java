@@ -24,6 +24,7 @@ import static com.google.android.material.textfield.IndicatorViewController.COUN
 import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.ColorStateList;
+import android.content.res.Configuration;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.PorterDuff;
@@ -154,6 +155,9 @@ public class TextInputLayout extends LinearLayout {
 
   private static final int INVALID_MAX_LENGTH = -1;
 
+  /** How far past the max length the counter texts are still cached. */
+  private static final int COUNTER_CACHE_OVERFLOW = 16;
+
   private static final String LOG_TAG = "TextInputLayout";
 
   private final FrameLayout inputFrame;
@@ -169,6 +173,15 @@ public class TextInputLayout extends LinearLayout {
   private int counterOverflowTextAppearance;
   private int counterTextAppearance;
 
+  // The counter texts and content descriptions formatted so far, by length, so that deleting and
+  // retyping doesn't format the same strings again. Only lengths up to a little past the max length
+  // are cached, so the caches stay bounded. Cleared when the max length or the configuration
+  // changes.
+  private final SparseArray<String> counterTexts = new SparseArray<>();
+  private final SparseArray<String> counterContentDescriptions = new SparseArray<>();
+  // The length the counter was last updated for.
+  private int counterLength = -1;
+
   @Nullable private ColorStateList counterTextColor;
   @Nullable private ColorStateList counterOverflowTextColor;
 
@@ -242,6 +255,8 @@ public class TextInputLayout extends LinearLayout {
 
   // Only used for testing
   private boolean hintExpanded;
+  // Whether the EditText had text the last time the label state was updated.
+  private boolean labelStateHasText;
 
   final CollapsingTextHelper collapsingTextHelper = new CollapsingTextHelper(this);
 
@@ -854,8 +869,12 @@ public class TextInputLayout extends LinearLayout {
         new TextWatcher() {
           @Override
           public void afterTextChanged(Editable s) {
-            updateLabelState(!restoringSavedState);
-            if (counterEnabled) {
+            // Typing only affects the label when the text becomes empty or non-empty, and only
+            // affects the counter when the length changes.
+            if (labelStateHasText == TextUtils.isEmpty(s)) {
+              updateLabelState(!restoringSavedState);
+            }
+            if (counterEnabled && counterLength != s.length()) {
               updateCounter(s.length());
             }
           }
@@ -924,6 +943,7 @@ public class TextInputLayout extends LinearLayout {
   private void updateLabelState(boolean animate, boolean force) {
     final boolean isEnabled = isEnabled();
     final boolean hasText = editText != null && !TextUtils.isEmpty(editText.getText());
+    labelStateHasText = hasText;
     final boolean hasFocus = editText != null && editText.hasFocus();
     final boolean errorShouldBeShown = indicatorViewController.errorShouldBeShown();
 
@@ -1388,6 +1408,7 @@ public class TextInputLayout extends LinearLayout {
       } else {
         counterMaxLength = INVALID_MAX_LENGTH;
       }
+      clearCounterTexts();
       if (counterEnabled) {
         updateCounter();
       }
@@ -1402,8 +1423,9 @@ public class TextInputLayout extends LinearLayout {
 
   void updateCounter(int length) {
     boolean wasCounterOverflowed = counterOverflowed;
+    counterLength = length;
     if (counterMaxLength == INVALID_MAX_LENGTH) {
-      counterView.setText(String.valueOf(length));
+      counterView.setText(getCounterText(length));
       counterView.setContentDescription(null);
       counterOverflowed = false;
     } else {
@@ -1415,8 +1437,7 @@ public class TextInputLayout extends LinearLayout {
             counterView, ViewCompat.ACCESSIBILITY_LIVE_REGION_NONE);
       }
       counterOverflowed = length > counterMaxLength;
-      updateCounterContentDescription(
-          getContext(), counterView, length, counterMaxLength, counterOverflowed);
+      counterView.setContentDescription(getCounterContentDescription(length));
 
       if (wasCounterOverflowed != counterOverflowed) {
         updateCounterTextAppearanceAndColor();
@@ -1427,8 +1448,7 @@ public class TextInputLayout extends LinearLayout {
               counterView, ViewCompat.ACCESSIBILITY_LIVE_REGION_POLITE);
         }
       }
-      counterView.setText(
-          getContext().getString(R.string.character_counter_pattern, length, counterMaxLength));
+      counterView.setText(getCounterText(length));
     }
     if (editText != null && wasCounterOverflowed != counterOverflowed) {
       updateLabelState(false);
@@ -1437,19 +1457,57 @@ public class TextInputLayout extends LinearLayout {
     }
   }
 
-  private static void updateCounterContentDescription(
-      Context context,
-      TextView counterView,
-      int length,
-      int counterMaxLength,
-      boolean counterOverflowed) {
-    counterView.setContentDescription(
-        context.getString(
-            counterOverflowed
-                ? R.string.character_counter_overflowed_content_description
-                : R.string.character_counter_content_description,
-            length,
-            counterMaxLength));
+  private String getCounterText(int length) {
+    if (counterMaxLength == INVALID_MAX_LENGTH) {
+      return String.valueOf(length);
+    }
+    boolean cacheable = isCounterTextCacheable(length);
+    String counterText = cacheable ? counterTexts.get(length) : null;
+    if (counterText == null) {
+      counterText =
+          getContext().getString(R.string.character_counter_pattern, length, counterMaxLength);
+      if (cacheable) {
+        counterTexts.put(length, counterText);
+      }
+    }
+    return counterText;
+  }
+
+  private String getCounterContentDescription(int length) {
+    boolean cacheable = isCounterTextCacheable(length);
+    String contentDescription = cacheable ? counterContentDescriptions.get(length) : null;
+    if (contentDescription == null) {
+      contentDescription =
+          getContext()
+              .getString(
+                  length > counterMaxLength
+                      ? R.string.character_counter_overflowed_content_description
+                      : R.string.character_counter_content_description,
+                  length,
+                  counterMaxLength);
+      if (cacheable) {
+        counterContentDescriptions.put(length, contentDescription);
+      }
+    }
+    return contentDescription;
+  }
+
+  private boolean isCounterTextCacheable(int length) {
+    return counterMaxLength != INVALID_MAX_LENGTH
+        && length <= counterMaxLength + COUNTER_CACHE_OVERFLOW;
+  }
+
+  private void clearCounterTexts() {
+    counterTexts.clear();
+    counterContentDescriptions.clear();
+  }
+
+  @Override
+  protected void onConfigurationChanged(Configuration newConfig) {
+    super.onConfigurationChanged(newConfig);
+    // The counter strings depend on the locale.
+    clearCounterTexts();
+    updateCounter();
   }
 
   @Override
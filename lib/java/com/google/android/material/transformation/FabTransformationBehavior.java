@@ -76,6 +76,17 @@ public abstract class FabTransformationBehavior extends ExpandableTransformation
   private final RectF tmpRectF1 = new RectF();
   private final RectF tmpRectF2 = new RectF();
   private final int[] tmpArray = new int[2];
+  private final RevealInfo tmpRevealInfo = new RevealInfo(0f, 0f, 0f);
+
+  // Reused to collect the animators and listeners of each transformation.
+  private final List<Animator> animations = new ArrayList<>();
+  private final List<AnimatorListener> listeners = new ArrayList<>();
+
+  // The motion specs of the last transformations in each direction, and the context they were
+  // created for.
+  @Nullable private Context motionSpecContext;
+  @Nullable private FabTransformationSpec expandMotionSpec;
+  @Nullable private FabTransformationSpec collapseMotionSpec;
 
   // The original translation of the dependency. Used to translate the dependency back to its
   // original position.
@@ -118,15 +129,15 @@ public abstract class FabTransformationBehavior extends ExpandableTransformation
   @Override
   protected AnimatorSet onCreateExpandedStateChangeAnimation(
       final View dependency, final View child, final boolean expanded, boolean isAnimating) {
-    FabTransformationSpec spec = onCreateMotionSpec(child.getContext(), expanded);
+    FabTransformationSpec spec = getMotionSpec(child.getContext(), expanded);
 
     if (expanded) {
       dependencyOriginalTranslationX = dependency.getTranslationX();
       dependencyOriginalTranslationY = dependency.getTranslationY();
     }
 
-    List<Animator> animations = new ArrayList<>();
-    List<AnimatorListener> listeners = new ArrayList<>();
+    List<Animator> animations = this.animations;
+    List<AnimatorListener> listeners = this.listeners;
 
     if (VERSION.SDK_INT >= VERSION_CODES.LOLLIPOP) {
       createElevationAnimation(
@@ -182,11 +193,38 @@ public abstract class FabTransformationBehavior extends ExpandableTransformation
     for (int i = 0, count = listeners.size(); i < count; i++) {
       set.addListener(listeners.get(i));
     }
+    animations.clear();
+    listeners.clear();
     return set;
   }
 
+  /**
+   * Creates the motion spec for a transformation in the given direction.
+   *
+   * <p>The returned spec is reused for later transformations in the same direction, as long as the
+   * child's context stays the same.
+   */
   protected abstract FabTransformationSpec onCreateMotionSpec(Context context, boolean expanded);
 
+  private FabTransformationSpec getMotionSpec(Context context, boolean expanded) {
+    if (context != motionSpecContext) {
+      motionSpecContext = context;
+      expandMotionSpec = null;
+      collapseMotionSpec = null;
+    }
+    if (expanded) {
+      if (expandMotionSpec == null) {
+        expandMotionSpec = onCreateMotionSpec(context, true);
+      }
+      return expandMotionSpec;
+    } else {
+      if (collapseMotionSpec == null) {
+        collapseMotionSpec = onCreateMotionSpec(context, false);
+      }
+      return collapseMotionSpec;
+    }
+  }
+
   @TargetApi(VERSION_CODES.LOLLIPOP)
   private void createElevationAnimation(
       View dependency,
@@ -381,8 +419,8 @@ public abstract class FabTransformationBehavior extends ExpandableTransformation
 
     if (expanded) {
       if (!currentlyAnimating) {
-        circularRevealChild.setRevealInfo(
-            new RevealInfo(revealCenterX, revealCenterY, dependencyRadius));
+        tmpRevealInfo.set(revealCenterX, revealCenterY, dependencyRadius);
+        circularRevealChild.setRevealInfo(tmpRevealInfo);
       }
       float fromRadius =
           currentlyAnimating ? circularRevealChild.getRevealInfo().radius : dependencyRadius;
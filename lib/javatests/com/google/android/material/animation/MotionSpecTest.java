@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.animation;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import androidx.appcompat.view.ContextThemeWrapper;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.animation.MotionSpec}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class MotionSpecTest {
+
+  private Context context;
+
+  @Before
+  public void createContext() {
+    context =
+        new ContextThemeWrapper(
+            ApplicationProvider.getApplicationContext(), R.style.Theme_MaterialComponents_Light);
+  }
+
+  @After
+  public void clearCache() {
+    MotionSpec.clearCache();
+  }
+
+  @Test
+  public void createFromResource_calledTwice_returnsEqualCopies() {
+    MotionSpec first =
+        MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+    MotionSpec second =
+        MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+
+    assertThat(first.hasTiming("scale")).isTrue();
+    assertThat(second).isEqualTo(first);
+    assertThat(second).isNotSameAs(first);
+  }
+
+  @Test
+  public void createFromResource_changedSpec_doesNotChangeCachedSpec() {
+    MotionSpec first =
+        MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+    first.setTiming("scale", new MotionTiming(10, 20));
+
+    MotionSpec second =
+        MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+
+    assertThat(second.getTiming("scale").getDuration()).isEqualTo(200);
+  }
+
+  @Test
+  public void createFromResource_otherTheme_inflatesResource() {
+    Context otherContext =
+        new ContextThemeWrapper(
+            ApplicationProvider.getApplicationContext(), R.style.Theme_MaterialComponents);
+
+    MotionSpec first =
+        MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+    MotionSpec second =
+        MotionSpec.createFromResource(otherContext, R.animator.design_fab_show_motion_spec);
+
+    assertThat(second).isEqualTo(first);
+  }
+
+  @Test
+  public void copyConstructor_copiesTimings() {
+    MotionSpec spec = new MotionSpec();
+    spec.setTiming("alpha", new MotionTiming(0, 100));
+
+    MotionSpec copy = new MotionSpec(spec);
+    spec.setTiming("alpha", new MotionTiming(0, 300));
+
+    assertThat(copy.getTiming("alpha").getDuration()).isEqualTo(100);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.appbar;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.appbar.AppBarLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class AppBarLayoutTest {
+
+  private final List<Integer> offsets = new ArrayList<>();
+  private final List<Integer> offsetDeltas = new ArrayList<>();
+  private AppBarLayout appBarLayout;
+
+  @Before
+  public void createAppBarLayout() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    AppCompatActivity activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    appBarLayout = new AppBarLayout(activity);
+    activity.setContentView(appBarLayout);
+
+    appBarLayout.addOnOffsetChangedListener(
+        new AppBarLayout.OnOffsetChangedListener() {
+          @Override
+          public void onOffsetChanged(AppBarLayout appBarLayout, int verticalOffset) {
+            offsets.add(verticalOffset);
+          }
+        });
+    appBarLayout.addOnOffsetDeltaChangedListener(
+        new AppBarLayout.OnOffsetDeltaChangedListener() {
+          @Override
+          public void onOffsetDeltaChanged(
+              AppBarLayout appBarLayout, int verticalOffset, int offsetDelta, float velocity) {
+            offsetDeltas.add(offsetDelta);
+          }
+        });
+  }
+
+  @Test
+  public void postOffsetUpdates_notCoalesced_dispatchesEveryOffset() {
+    appBarLayout.postOffsetUpdates(-10);
+    appBarLayout.postOffsetUpdates(-25);
+
+    assertThat(offsets).containsExactly(-10, -25).inOrder();
+    assertThat(offsetDeltas).containsExactly(-10, -15).inOrder();
+  }
+
+  @Test
+  public void postOffsetUpdates_coalesced_dispatchesLatestOffsetBeforeDraw() {
+    appBarLayout.setOffsetUpdatesCoalesced(true);
+    appBarLayout.postOffsetUpdates(-10);
+    appBarLayout.postOffsetUpdates(-25);
+    assertThat(offsets).isEmpty();
+
+    appBarLayout.getViewTreeObserver().dispatchOnPreDraw();
+    appBarLayout.getViewTreeObserver().dispatchOnPreDraw();
+
+    assertThat(offsets).containsExactly(-25);
+    assertThat(offsetDeltas).containsExactly(-25);
+  }
+
+  @Test
+  public void dispatchOffsetUpdates_coalesced_supersedesPendingOffset() {
+    appBarLayout.setOffsetUpdatesCoalesced(true);
+    appBarLayout.postOffsetUpdates(-10);
+    appBarLayout.dispatchOffsetUpdates(-5);
+    appBarLayout.getViewTreeObserver().dispatchOnPreDraw();
+
+    assertThat(offsets).containsExactly(-5);
+  }
+
+  @Test
+  public void setOffsetUpdatesCoalesced_false_dispatchesPendingOffset() {
+    appBarLayout.setOffsetUpdatesCoalesced(true);
+    appBarLayout.postOffsetUpdates(-10);
+    appBarLayout.setOffsetUpdatesCoalesced(false);
+
+    assertThat(offsets).containsExactly(-10);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.appbar;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import android.content.Context;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.animation.AccelerateInterpolator;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.appbar.AppBarLayout.LayoutParams;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.appbar.ChildOffsetIndex}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ChildOffsetIndexTest {
+
+  private static final int CHILD_HEIGHT = 100;
+  private static final int CHILD_COUNT = 5;
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+  private AppBarLayout appBarLayout;
+
+  @Before
+  public void createAppBarLayout() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    appBarLayout = new AppBarLayout(context);
+    for (int i = 0; i < CHILD_COUNT; i++) {
+      LayoutParams lp = new LayoutParams(LayoutParams.MATCH_PARENT, CHILD_HEIGHT);
+      lp.setScrollFlags(LayoutParams.SCROLL_FLAG_SCROLL);
+      appBarLayout.addView(new View(context), lp);
+    }
+    layout();
+  }
+
+  @Test
+  public void indexOfChildOnOffset_matchesChildBounds() {
+    assertMatchesChildBounds();
+  }
+
+  @Test
+  public void indexOfChildOnOffset_withHiddenChildren_matchesChildBounds() {
+    // Hidden children keep the position they had before they were hidden.
+    appBarLayout.getChildAt(1).setVisibility(View.GONE);
+    appBarLayout.getChildAt(3).setVisibility(View.GONE);
+    layout();
+
+    assertMatchesChildBounds();
+  }
+
+  @Test
+  public void indexOfChildOnOffset_afterRelayout_matchesNewChildBounds() {
+    // Let the index capture the current positions, before the children are resized.
+    appBarLayout.getChildOffsetIndex();
+    appBarLayout.getChildAt(0).getLayoutParams().height = CHILD_HEIGHT * 2;
+    appBarLayout.requestLayout();
+    layout();
+
+    assertMatchesChildBounds();
+  }
+
+  @Test
+  public void interpolateOffset_withoutInterpolator_returnsOffset() {
+    assertThat(appBarLayout.getChildOffsetIndex().interpolateOffset(-150)).isEqualTo(-150);
+  }
+
+  @Test
+  public void interpolateOffset_withInterpolator_interpolatesWithinChild() {
+    ((LayoutParams) appBarLayout.getChildAt(1).getLayoutParams())
+        .setScrollInterpolator(new AccelerateInterpolator());
+    appBarLayout.requestLayout();
+    layout();
+
+    // Half way through the second child, which the interpolator turns into a quarter of the way.
+    assertThat(appBarLayout.getChildOffsetIndex().interpolateOffset(-150)).isEqualTo(-125);
+  }
+
+  private void layout() {
+    appBarLayout.measure(
+        MeasureSpec.makeMeasureSpec(CHILD_HEIGHT, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+    appBarLayout.layout(0, 0, appBarLayout.getMeasuredWidth(), appBarLayout.getMeasuredHeight());
+  }
+
+  private void assertMatchesChildBounds() {
+    ChildOffsetIndex childOffsetIndex = appBarLayout.getChildOffsetIndex();
+    for (int offset = 0; offset <= CHILD_HEIGHT * (CHILD_COUNT + 1); offset++) {
+      assertWithMessage("Index of child on offset %s", offset)
+          .that(childOffsetIndex.indexOfChildOnOffset(offset))
+          .isEqualTo(findChildOnOffset(offset));
+    }
+  }
+
+  /** Finds the first child on {@code offset} by checking the bounds of every child. */
+  private int findChildOnOffset(int offset) {
+    for (int i = 0; i < appBarLayout.getChildCount(); i++) {
+      View child = appBarLayout.getChildAt(i);
+      if (offset >= child.getTop() && offset <= child.getBottom()) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.bottomnavigation;
+
+import com.google.android.material.R;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.view.Menu;
+import android.view.View.MeasureSpec;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.testing.AllocationTrackingRule;
+import com.google.android.material.testing.NoOpCanvas;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link BottomNavigationItemView}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public final class BottomNavigationItemViewTest {
+
+  private static final int WIDTH = 360;
+  private static final int HEIGHT = 56;
+
+  @Rule public final AllocationTrackingRule allocations = new AllocationTrackingRule();
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+  private final Canvas canvas = new NoOpCanvas();
+  private BottomNavigationItemView itemView;
+
+  @Before
+  public void createItemView() {
+    context.setTheme(R.style.Theme_AppCompat);
+    BottomNavigationView bottomNavigation = new BottomNavigationView(context);
+    // Labels and ripples are drawn by framework views and drawables, which aren't under test here.
+    bottomNavigation.setLabelVisibilityMode(LabelVisibilityMode.LABEL_VISIBILITY_UNLABELED);
+    bottomNavigation.setItemBackground(null);
+    Menu menu = bottomNavigation.getMenu();
+    menu.add(Menu.NONE, 123, Menu.NONE, "first item").setIcon(new ColorDrawable(Color.RED));
+    menu.add(Menu.NONE, 456, Menu.NONE, "second item").setIcon(new ColorDrawable(Color.RED));
+
+    BottomNavigationMenuView menuView = (BottomNavigationMenuView) bottomNavigation.getChildAt(0);
+    itemView = (BottomNavigationItemView) menuView.getChildAt(0);
+  }
+
+  @Test
+  public void measureLayoutAndDraw_doesNotAllocate() {
+    final int widthMeasureSpec = MeasureSpec.makeMeasureSpec(WIDTH / 2, MeasureSpec.EXACTLY);
+    final int heightMeasureSpec = MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY);
+
+    allocations.assertDoesNotAllocate(
+        new Runnable() {
+          @Override
+          public void run() {
+            // Skip the measure cache, so that the item is measured every time.
+            itemView.forceLayout();
+            itemView.measure(widthMeasureSpec, heightMeasureSpec);
+            itemView.layout(0, 0, itemView.getMeasuredWidth(), itemView.getMeasuredHeight());
+            itemView.draw(canvas);
+          }
+        });
+  }
+}
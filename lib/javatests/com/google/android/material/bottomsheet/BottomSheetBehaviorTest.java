@@ -0,0 +1,197 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.bottomsheet;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.appcompat.app.AppCompatActivity;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import androidx.coordinatorlayout.widget.CoordinatorLayout;
+import androidx.customview.view.AbsSavedState;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+import org.robolectric.shadows.ShadowLooper;
+
+/** Tests for {@link com.google.android.material.bottomsheet.BottomSheetBehavior}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class BottomSheetBehaviorTest {
+
+  private static final int PARENT_HEIGHT = 1000;
+  private static final int PEEK_HEIGHT = 200;
+
+  private final List<Integer> slideTops = new ArrayList<>();
+  private final List<String> events = new ArrayList<>();
+  private CoordinatorLayout coordinator;
+  private FrameLayout bottomSheet;
+  private BottomSheetBehavior<FrameLayout> behavior;
+
+  @Before
+  public void createBottomSheet() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    AppCompatActivity activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    coordinator = new CoordinatorLayout(activity);
+    bottomSheet = new FrameLayout(activity);
+    behavior = new BottomSheetBehavior<>();
+    behavior.setPeekHeight(PEEK_HEIGHT);
+    CoordinatorLayout.LayoutParams lp =
+        new CoordinatorLayout.LayoutParams(
+            ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+    lp.setBehavior(behavior);
+    coordinator.addView(bottomSheet, lp);
+    activity.setContentView(coordinator);
+    layout();
+
+    behavior.setBottomSheetCallback(
+        new BottomSheetBehavior.BottomSheetCallback() {
+          @Override
+          public void onStateChanged(View bottomSheet, int newState) {
+            events.add("state " + newState);
+          }
+
+          @Override
+          public void onSlide(View bottomSheet, float slideOffset) {
+            // The collapsed offset is 800 and the expanded offset is 0.
+            int top = Math.round(800 - slideOffset * 800);
+            slideTops.add(top);
+            events.add("slide " + top);
+          }
+        });
+  }
+
+  @Test
+  public void dispatchOnSlide_notCoalesced_callsCallbackForEveryOffset() {
+    behavior.dispatchOnSlide(700);
+    behavior.dispatchOnSlide(600);
+
+    assertThat(slideTops).containsExactly(700, 600).inOrder();
+  }
+
+  @Test
+  public void dispatchOnSlide_coalesced_callsCallbackOncePerFrameWithLatestOffset() {
+    behavior.setSlideCallbacksCoalesced(true);
+    behavior.dispatchOnSlide(700);
+    behavior.dispatchOnSlide(600);
+    assertThat(slideTops).isEmpty();
+
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+    assertThat(slideTops).containsExactly(600);
+  }
+
+  @Test
+  public void dispatchOnSlide_throttled_callsCallbackWithLatestOffsetAfterInterval() {
+    behavior.setSlideCallbackMinInterval(100);
+    behavior.dispatchOnSlide(700);
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    behavior.dispatchOnSlide(600);
+    behavior.dispatchOnSlide(500);
+    assertThat(slideTops).containsExactly(700);
+
+    ShadowLooper.idleMainLooper(100);
+
+    assertThat(slideTops).containsExactly(700, 500).inOrder();
+  }
+
+  @Test
+  public void setStateInternal_restingState_deliversPendingSlideFirst() {
+    behavior.setSlideCallbacksCoalesced(true);
+    behavior.setStateInternal(BottomSheetBehavior.STATE_DRAGGING);
+    behavior.dispatchOnSlide(10);
+    behavior.setStateInternal(BottomSheetBehavior.STATE_EXPANDED);
+
+    assertThat(events)
+        .containsExactly(
+            "state " + BottomSheetBehavior.STATE_DRAGGING,
+            "slide 10",
+            "state " + BottomSheetBehavior.STATE_EXPANDED)
+        .inOrder();
+  }
+
+  @Test
+  public void onStateChangedListener_calledOnStateChangesOnly() {
+    final List<Integer> states = new ArrayList<>();
+    behavior.addOnStateChangedListener(
+        new BottomSheetBehavior.OnStateChangedListener() {
+          @Override
+          public void onStateChanged(View bottomSheet, int newState) {
+            states.add(newState);
+          }
+        });
+    behavior.setBottomSheetCallback(null);
+
+    behavior.setStateInternal(BottomSheetBehavior.STATE_DRAGGING);
+    behavior.dispatchOnSlide(500);
+    behavior.setStateInternal(BottomSheetBehavior.STATE_EXPANDED);
+
+    assertThat(states)
+        .containsExactly(BottomSheetBehavior.STATE_DRAGGING, BottomSheetBehavior.STATE_EXPANDED)
+        .inOrder();
+  }
+
+  @Test
+  public void restoreInstanceState_halfExpandedAtAnchor_laysOutAtAnchor() {
+    behavior.setAnchorOffsets(300);
+    behavior.onRestoreInstanceState(
+        coordinator,
+        bottomSheet,
+        new BottomSheetBehavior.SavedState(
+            AbsSavedState.EMPTY_STATE, BottomSheetBehavior.STATE_HALF_EXPANDED, 300));
+
+    layout();
+
+    assertThat(behavior.getState()).isEqualTo(BottomSheetBehavior.STATE_HALF_EXPANDED);
+    assertThat(bottomSheet.getTop()).isEqualTo(300);
+    BottomSheetBehavior.SavedState savedState =
+        (BottomSheetBehavior.SavedState) behavior.onSaveInstanceState(coordinator, bottomSheet);
+    assertThat(savedState.anchorOffset).isEqualTo(300);
+  }
+
+  @Test
+  public void setAnchorOffsets_withoutSettledAnchor_laysOutAtHalfExpandedOffset() {
+    behavior.onRestoreInstanceState(
+        coordinator,
+        bottomSheet,
+        new BottomSheetBehavior.SavedState(
+            AbsSavedState.EMPTY_STATE, BottomSheetBehavior.STATE_HALF_EXPANDED, 300));
+    behavior.setAnchorOffsets(400);
+
+    layout();
+
+    assertThat(bottomSheet.getTop()).isEqualTo(PARENT_HEIGHT / 2);
+  }
+
+  private void layout() {
+    coordinator.requestLayout();
+    coordinator.measure(
+        MeasureSpec.makeMeasureSpec(PARENT_HEIGHT, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(PARENT_HEIGHT, MeasureSpec.EXACTLY));
+    coordinator.layout(0, 0, PARENT_HEIGHT, PARENT_HEIGHT);
+  }
+}
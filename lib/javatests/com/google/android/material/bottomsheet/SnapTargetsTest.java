@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.bottomsheet;
+
+import static com.google.android.material.bottomsheet.BottomSheetBehavior.STATE_COLLAPSED;
+import static com.google.android.material.bottomsheet.BottomSheetBehavior.STATE_EXPANDED;
+import static com.google.android.material.bottomsheet.BottomSheetBehavior.STATE_HALF_EXPANDED;
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.bottomsheet.SnapTargets}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class SnapTargetsTest {
+
+  private static final int UP = -1;
+  private static final int DOWN = 1;
+
+  private final SnapTargets snapTargets = new SnapTargets();
+
+  @Before
+  public void addTargets() {
+    // Added out of order, as the anchors of a sheet are.
+    snapTargets.add(800, STATE_COLLAPSED);
+    snapTargets.add(0, STATE_EXPANDED);
+    snapTargets.add(500, STATE_HALF_EXPANDED);
+    snapTargets.add(200, STATE_HALF_EXPANDED);
+    snapTargets.add(650, STATE_HALF_EXPANDED);
+  }
+
+  @Test
+  public void add_keepsTargetsSorted() {
+    assertThat(snapTargets.size()).isEqualTo(5);
+    for (int i = 1; i < snapTargets.size(); i++) {
+      assertThat(snapTargets.getOffset(i)).isGreaterThan(snapTargets.getOffset(i - 1));
+    }
+    assertThat(snapTargets.getState(0)).isEqualTo(STATE_EXPANDED);
+    assertThat(snapTargets.getState(4)).isEqualTo(STATE_COLLAPSED);
+  }
+
+  @Test
+  public void add_existingOffset_keepsFirstState() {
+    snapTargets.add(800, STATE_EXPANDED);
+
+    assertThat(snapTargets.size()).isEqualTo(5);
+    assertThat(snapTargets.getState(4)).isEqualTo(STATE_COLLAPSED);
+  }
+
+  @Test
+  public void indexOfNearest_tie_favorsLowerTarget() {
+    assertThat(snapTargets.getOffset(snapTargets.indexOfNearest(100))).isEqualTo(200);
+    assertThat(snapTargets.getOffset(snapTargets.indexOfNearest(99))).isEqualTo(0);
+  }
+
+  @Test
+  public void indexOfNearest_outsideTargets_returnsClosestEnd() {
+    assertThat(snapTargets.indexOfNearest(-50)).isEqualTo(0);
+    assertThat(snapTargets.indexOfNearest(1000)).isEqualTo(4);
+  }
+
+  @Test
+  public void indexOfSettleTarget_withoutDirection_returnsNearest() {
+    assertThat(offsetOfSettleTarget(480, 0, 0)).isEqualTo(500);
+  }
+
+  @Test
+  public void indexOfSettleTarget_slowFling_returnsNextTargetInDirection() {
+    assertThat(offsetOfSettleTarget(480, UP, 470)).isEqualTo(200);
+    assertThat(offsetOfSettleTarget(480, DOWN, 490)).isEqualTo(500);
+  }
+
+  @Test
+  public void indexOfSettleTarget_fastFling_returnsTargetNearestToProjection() {
+    assertThat(offsetOfSettleTarget(480, UP, -300)).isEqualTo(0);
+    assertThat(offsetOfSettleTarget(480, DOWN, 700)).isEqualTo(650);
+    assertThat(offsetOfSettleTarget(480, DOWN, 2000)).isEqualTo(800);
+  }
+
+  @Test
+  public void indexOfSettleTarget_projectionAgainstDirection_returnsNextTargetInDirection() {
+    assertThat(offsetOfSettleTarget(480, UP, 800)).isEqualTo(200);
+    assertThat(offsetOfSettleTarget(480, DOWN, 0)).isEqualTo(500);
+  }
+
+  @Test
+  public void indexOfSettleTarget_pastLastTargetInDirection_returnsLastTarget() {
+    assertThat(offsetOfSettleTarget(0, UP, -100)).isEqualTo(0);
+    assertThat(offsetOfSettleTarget(800, DOWN, 900)).isEqualTo(800);
+  }
+
+  private int offsetOfSettleTarget(int offset, int direction, float projectedOffset) {
+    return snapTargets.getOffset(
+        snapTargets.indexOfSettleTarget(offset, direction, projectedOffset));
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.chip;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/**
+ * Tests for {@link com.google.android.material.chip.ChipAdapter} and {@link
+ * com.google.android.material.chip.ChipFlowLayoutManager}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ChipAdapterTest {
+
+  private static final int ITEM_COUNT = 1000;
+  private static final int WIDTH = 300;
+  private static final int HEIGHT = 400;
+
+  private final List<Long> checkedIds = new ArrayList<>();
+  private RecyclerView recyclerView;
+  private ChipFlowLayoutManager layoutManager;
+  private ChipAdapter adapter;
+
+  @Before
+  public void createRecyclerView() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    AppCompatActivity activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    recyclerView = new RecyclerView(activity);
+    layoutManager = new ChipFlowLayoutManager();
+    adapter = createAdapter(/* filterChips= */ false);
+    adapter.setOnCheckedChangeListener(
+        new ChipAdapter.OnCheckedChangeListener() {
+          @Override
+          public void onCheckedChanged(ChipAdapter adapter, long checkedId) {
+            checkedIds.add(checkedId);
+          }
+        });
+    recyclerView.setLayoutManager(layoutManager);
+    recyclerView.setAdapter(adapter);
+    activity.setContentView(recyclerView);
+    layout();
+  }
+
+  private static ChipAdapter createAdapter(final boolean filterChips) {
+    return new ChipAdapter() {
+      @Override
+      protected Chip onCreateChip(ViewGroup parent, int viewType) {
+        if (!filterChips) {
+          return super.onCreateChip(parent, viewType);
+        }
+        return (Chip)
+            LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.test_filter_chip, parent, false);
+      }
+
+      @Override
+      protected void onBindChip(Chip chip, int position) {
+        chip.setText("Chip " + position);
+      }
+
+      @Override
+      public int getItemCount() {
+        return ITEM_COUNT;
+      }
+    };
+  }
+
+  private void layout() {
+    recyclerView.measure(
+        MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+    recyclerView.layout(0, 0, WIDTH, HEIGHT);
+  }
+
+  @Test
+  public void layout_onlyLaysOutVisibleChips() {
+    assertThat(recyclerView.getChildCount()).isGreaterThan(1);
+    assertThat(recyclerView.getChildCount()).isLessThan(ITEM_COUNT);
+    assertThat(layoutManager.findFirstVisibleItemPosition()).isEqualTo(0);
+
+    View first = recyclerView.getChildAt(0);
+    View second = recyclerView.getChildAt(1);
+    assertThat(second.getTop()).isEqualTo(first.getTop());
+    assertThat(second.getLeft()).isAtLeast(first.getRight());
+  }
+
+  @Test
+  public void scrollBy_recyclesChipsOutOfView() {
+    int childCount = recyclerView.getChildCount();
+
+    recyclerView.scrollBy(0, HEIGHT * 4);
+
+    assertThat(layoutManager.findFirstVisibleItemPosition()).isGreaterThan(0);
+    assertThat(recyclerView.getChildCount()).isAtMost(childCount * 2);
+
+    recyclerView.scrollBy(0, -HEIGHT * 4);
+
+    assertThat(layoutManager.findFirstVisibleItemPosition()).isEqualTo(0);
+    assertThat(recyclerView.getChildAt(0).getTop()).isEqualTo(0);
+  }
+
+  @Test
+  public void onCreateChip_createsCheckableChips() {
+    assertThat(getChip(0).isCheckable()).isTrue();
+  }
+
+  @Test
+  public void check_singleSelection_unchecksPreviousChip() {
+    adapter.setSingleSelection(true);
+
+    adapter.check(1);
+    adapter.check(2);
+
+    assertThat(adapter.getCheckedItemId()).isEqualTo(2L);
+    assertThat(getChip(1).isChecked()).isFalse();
+    assertThat(getChip(2).isChecked()).isTrue();
+    assertThat(checkedIds).containsExactly(1L, 2L).inOrder();
+  }
+
+  @Test
+  public void check_chipOutOfView_isCheckedWhenBound() {
+    adapter.setSingleSelection(true);
+    adapter.check(1);
+    layoutManager.scrollToPosition(ITEM_COUNT - 1);
+    layout();
+    assertThat(layoutManager.findViewByPosition(1)).isNull();
+
+    adapter.check(2);
+    layoutManager.scrollToPosition(0);
+    layout();
+
+    assertThat(getChip(1).isChecked()).isFalse();
+    assertThat(getChip(2).isChecked()).isTrue();
+  }
+
+  @Test
+  public void setChecked_singleSelection_updatesCheckedItem() {
+    adapter.setSingleSelection(true);
+    adapter.check(1);
+
+    getChip(0).setChecked(true);
+
+    assertThat(adapter.getCheckedItemId()).isEqualTo(0L);
+    assertThat(adapter.isItemChecked(1)).isFalse();
+    assertThat(getChip(1).isChecked()).isFalse();
+    assertThat(checkedIds).containsExactly(1L, 0L).inOrder();
+  }
+
+  @Test
+  public void clearCheck_multipleSelection_unchecksAllChips() {
+    getChip(0).setChecked(true);
+    getChip(1).setChecked(true);
+    assertThat(adapter.isItemChecked(0)).isTrue();
+    assertThat(adapter.isItemChecked(1)).isTrue();
+    assertThat(adapter.getCheckedItemId()).isEqualTo(RecyclerView.NO_ID);
+
+    adapter.clearCheck();
+
+    assertThat(adapter.isItemChecked(0)).isFalse();
+    assertThat(getChip(0).isChecked()).isFalse();
+    assertThat(getChip(1).isChecked()).isFalse();
+    assertThat(checkedIds).isEmpty();
+  }
+
+  @Test
+  public void scrollUp_afterCheckingFilterChips_laysOutEveryItem() {
+    adapter = createAdapter(/* filterChips= */ true);
+    recyclerView.setAdapter(adapter);
+    layout();
+    recyclerView.scrollBy(0, HEIGHT * 4);
+    int firstVisiblePosition = layoutManager.findFirstVisibleItemPosition();
+
+    // The check icon makes the chips wider, which moves the breaks between lines.
+    for (int i = 0; i < recyclerView.getChildCount(); i++) {
+      ((Chip) recyclerView.getChildAt(i)).setChecked(true);
+    }
+    layout();
+    assertThat(layoutManager.findFirstVisibleItemPosition()).isAtMost(firstVisiblePosition);
+
+    for (int i = 0; i < 100 && layoutManager.findFirstVisibleItemPosition() > 0; i++) {
+      recyclerView.scrollBy(0, -HEIGHT / 4);
+      assertChildrenAreContiguous();
+    }
+    assertThat(layoutManager.findFirstVisibleItemPosition()).isEqualTo(0);
+    assertThat(recyclerView.getChildAt(0).getTop()).isEqualTo(0);
+  }
+
+  private void assertChildrenAreContiguous() {
+    for (int i = 1; i < recyclerView.getChildCount(); i++) {
+      assertThat(layoutManager.getPosition(recyclerView.getChildAt(i)))
+          .isEqualTo(layoutManager.getPosition(recyclerView.getChildAt(i - 1)) + 1);
+    }
+  }
+
+  private Chip getChip(int position) {
+    return (Chip) layoutManager.findViewByPosition(position);
+  }
+}
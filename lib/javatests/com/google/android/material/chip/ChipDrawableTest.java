@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.chip;
+
+import com.google.android.material.R;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.text.TextUtils.TruncateAt;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.testing.AllocationTrackingRule;
+import com.google.android.material.testing.NoOpCanvas;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.chip.ChipDrawable}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ChipDrawableTest {
+
+  @Rule public final AllocationTrackingRule allocations = new AllocationTrackingRule();
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+  private final Canvas canvas = new NoOpCanvas();
+  private ChipDrawable chipDrawable;
+
+  @Before
+  public void createChipDrawable() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    chipDrawable =
+        ChipDrawable.createFromAttributes(
+            context, null, 0, R.style.Widget_MaterialComponents_Chip_Entry);
+    // Icons are drawn by their own drawables, which aren't under test here.
+    chipDrawable.setChipIconVisible(false);
+    chipDrawable.setCheckedIconVisible(false);
+    chipDrawable.setCloseIconVisible(false);
+    chipDrawable.setChipStrokeWidth(2);
+    chipDrawable.setText("Chip");
+  }
+
+  @Test
+  public void draw_doesNotAllocate() {
+    chipDrawable.setBounds(
+        0, 0, chipDrawable.getIntrinsicWidth(), chipDrawable.getIntrinsicHeight());
+
+    assertDrawDoesNotAllocate();
+  }
+
+  @Test
+  public void drawEllipsizedText_doesNotAllocate() {
+    chipDrawable.setText("A chip with text which is too long to fit in its bounds");
+    chipDrawable.setEllipsize(TruncateAt.END);
+    chipDrawable.setBounds(
+        0, 0, chipDrawable.getIntrinsicWidth() / 2, chipDrawable.getIntrinsicHeight());
+
+    assertDrawDoesNotAllocate();
+  }
+
+  private void assertDrawDoesNotAllocate() {
+    allocations.assertDoesNotAllocate(
+        new Runnable() {
+          @Override
+          public void run() {
+            chipDrawable.draw(canvas);
+          }
+        });
+  }
+}
@@ -17,6 +17,7 @@ package com.google.android.material.chip;
 
 import com.google.android.material.R;
 
+import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
@@ -37,13 +38,14 @@ import org.robolectric.annotation.internal.DoNotInstrument;
 public class ChipGroupTest {
 
   private static final int CHIP_GROUP_SPACING = 4;
+  private AppCompatActivity activity;
   private ChipGroup chipgroup;
 
   @Before
   public void themeApplicationContext() {
     ApplicationProvider.getApplicationContext().setTheme(
         R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
-    AppCompatActivity activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
     View inflated = activity.getLayoutInflater().inflate(R.layout.test_reflow_chipgroup, null);
     chipgroup = inflated.findViewById(R.id.chip_group);
   }
@@ -67,4 +69,97 @@ public class ChipGroupTest {
     chipgroup.clearCheck();
     assertEquals(View.NO_ID, chipgroup.getCheckedChipId());
   }
+
+  @Test
+  public void testSingleSelectionUnchecksPreviousChip() {
+    chipgroup.setSingleSelection(true);
+    Chip first = addCheckableChip();
+    Chip second = addCheckableChip();
+
+    chipgroup.check(first.getId());
+    second.setChecked(true);
+
+    assertThat(first.isChecked()).isFalse();
+    assertEquals(second.getId(), chipgroup.getCheckedChipId());
+    assertThat(chipgroup.getCheckedChipIds()).containsExactly(second.getId());
+  }
+
+  @Test
+  public void testGetCheckedChipIds() {
+    Chip first = addCheckableChip();
+    Chip second = addCheckableChip();
+    Chip third = addCheckableChip();
+
+    third.setChecked(true);
+    first.setChecked(true);
+    chipgroup.check(second.getId());
+    first.setChecked(false);
+
+    assertThat(chipgroup.getCheckedChipIds())
+        .containsExactly(third.getId(), second.getId())
+        .inOrder();
+
+    chipgroup.removeView(third);
+    assertThat(chipgroup.getCheckedChipIds()).containsExactly(second.getId());
+
+    chipgroup.clearCheck();
+    assertThat(chipgroup.getCheckedChipIds()).isEmpty();
+    assertThat(second.isChecked()).isFalse();
+  }
+
+  @Test
+  public void testAddCheckedChip() {
+    Chip chip = new Chip(activity);
+    chip.setCheckable(true);
+    chip.setChecked(true);
+
+    chipgroup.addView(chip);
+
+    assertThat(chipgroup.getCheckedChipIds()).containsExactly(chip.getId());
+  }
+
+  @Test
+  public void testGetCheckedChipIds_afterIdChange_returnsNewId() {
+    Chip chip = addCheckableChip();
+    chip.setChecked(true);
+
+    chip.setId(chip.getId() + 1000);
+
+    assertThat(chipgroup.getCheckedChipIds()).containsExactly(chip.getId());
+  }
+
+  @Test
+  public void testCheck_afterIdChange_checksChip() {
+    chipgroup.setSingleSelection(true);
+    Chip first = addCheckableChip();
+    Chip second = addCheckableChip();
+    chipgroup.check(first.getId());
+
+    second.setId(second.getId() + 1000);
+    chipgroup.check(second.getId());
+
+    assertThat(first.isChecked()).isFalse();
+    assertThat(second.isChecked()).isTrue();
+    assertThat(chipgroup.getCheckedChipIds()).containsExactly(second.getId());
+  }
+
+  @Test
+  public void testRemoveView_afterIdChange_forgetsChip() {
+    Chip chip = addCheckableChip();
+    chip.setChecked(true);
+
+    chip.setId(chip.getId() + 1000);
+    chipgroup.removeView(chip);
+
+    assertThat(chipgroup.getCheckedChipIds()).isEmpty();
+    chipgroup.clearCheck();
+    assertThat(chip.isChecked()).isTrue();
+  }
+
+  private Chip addCheckableChip() {
+    Chip chip = new Chip(activity);
+    chip.setCheckable(true);
+    chipgroup.addView(chip);
+    return chip;
+  }
 }
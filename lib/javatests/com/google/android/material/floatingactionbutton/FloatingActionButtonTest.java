@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.floatingactionbutton;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.shape.CutCornerTreatment;
+import com.google.android.material.shape.ShapeAppearanceModel;
+import com.google.android.material.shape.TriangleEdgeTreatment;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.floatingactionbutton.FloatingActionButton}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class FloatingActionButtonTest {
+
+  private FloatingActionButton fab;
+
+  @Before
+  public void createFab() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    AppCompatActivity activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    fab = new FloatingActionButton(activity);
+  }
+
+  @Test
+  public void getShapeAppearance_canBeModified() {
+    ShapeAppearanceModel shapeAppearance = fab.getShapeAppearance();
+
+    shapeAppearance.setCornerRadius(4);
+    shapeAppearance.setTopEdge(new TriangleEdgeTreatment(4, false));
+
+    assertThat(shapeAppearance.isImmutable()).isFalse();
+    assertThat(fab.getShapeAppearance()).isSameAs(shapeAppearance);
+  }
+
+  @Test
+  public void setShapeAppearance_defaultCorner_keepsModelModifiable() {
+    ShapeAppearanceModel shapeAppearance = new ShapeAppearanceModel();
+    shapeAppearance.setCornerRadius(-1);
+
+    fab.setShapeAppearance(shapeAppearance);
+    fab.getShapeAppearance().setAllCorners(new CutCornerTreatment(4));
+
+    assertThat(fab.getShapeAppearance().isImmutable()).isFalse();
+    assertThat(fab.getShapeAppearance().getTopLeftCorner()).isInstanceOf(CutCornerTreatment.class);
+    // The model passed in isn't made circular, since it may be shared with other views.
+    assertThat(shapeAppearance.getTopRightCorner().getCornerSize()).isEqualTo(-1f);
+  }
+
+  @Test
+  public void setShapeAppearance_defaultCornerBuiltModel_staysImmutable() {
+    ShapeAppearanceModel shapeAppearance =
+        ShapeAppearanceModel.builder().setCornerRadius(-1).build();
+
+    fab.setShapeAppearance(shapeAppearance);
+
+    assertThat(fab.getShapeAppearance().isImmutable()).isTrue();
+    assertThat(shapeAppearance.getTopRightCorner().getCornerSize()).isEqualTo(-1f);
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.internal;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.view.Gravity;
+import android.view.View;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.testing.AllocationTrackingRule;
+import com.google.android.material.testing.NoOpCanvas;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.internal.CollapsingTextHelper}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class CollapsingTextHelperTest {
+
+  @Rule public final AllocationTrackingRule allocations = new AllocationTrackingRule();
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+  private final Canvas canvas = new NoOpCanvas();
+  private CollapsingTextHelper collapsingTextHelper;
+
+  @Before
+  public void createCollapsingTextHelper() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    View view = new View(context);
+    // The helper only lays out its text once the view has a size.
+    view.layout(0, 0, 300, 200);
+    collapsingTextHelper = new CollapsingTextHelper(view);
+    collapsingTextHelper.setExpandedTextSize(48);
+    collapsingTextHelper.setCollapsedTextSize(20);
+    collapsingTextHelper.setExpandedBounds(0, 100, 300, 200);
+    collapsingTextHelper.setCollapsedBounds(0, 0, 300, 50);
+    collapsingTextHelper.setText("A title which is too long to fit in the bounds");
+    collapsingTextHelper.recalculate();
+  }
+
+  @Test
+  public void drawExpanded_doesNotAllocate() {
+    collapsingTextHelper.setExpansionFraction(0f);
+
+    assertDrawDoesNotAllocate();
+  }
+
+  @Test
+  public void drawCollapsing_doesNotAllocate() {
+    collapsingTextHelper.setExpansionFraction(0.5f);
+
+    assertDrawDoesNotAllocate();
+  }
+
+  @Test
+  public void drawCollapsingFromCachedTextLayers_doesNotAllocate() {
+    collapsingTextHelper.setTextLayersCached(true);
+    collapsingTextHelper.setExpansionFraction(0.5f);
+
+    assertDrawDoesNotAllocate();
+  }
+
+  @Test
+  public void setExpansionFraction_withCachedTextLayers_doesNotAllocate() {
+    collapsingTextHelper.setTextLayersCached(true);
+    collapsingTextHelper.draw(canvas);
+
+    allocations.assertDoesNotAllocate(
+        new Runnable() {
+          private int step;
+
+          @Override
+          public void run() {
+            step = (step + 1) % 10;
+            collapsingTextHelper.setExpansionFraction(step / 10f);
+            collapsingTextHelper.draw(canvas);
+          }
+        });
+  }
+
+  @Test
+  public void drawCollapsingFromCachedTextLayers_centered_alignsBothLayersToCenter() {
+    collapsingTextHelper.setExpandedTextGravity(Gravity.CENTER);
+    collapsingTextHelper.setCollapsedTextGravity(Gravity.CENTER);
+    collapsingTextHelper.setTextLayersCached(true);
+    collapsingTextHelper.setExpansionFraction(0.5f);
+    RecordingCanvas recordingCanvas = new RecordingCanvas();
+
+    collapsingTextHelper.draw(recordingCanvas);
+
+    assertThat(recordingCanvas.bitmapCenters).hasSize(2);
+    assertThat(recordingCanvas.bitmapCenters.get(0)).isWithin(0.5f).of(150f);
+    assertThat(recordingCanvas.bitmapCenters.get(1)).isWithin(0.5f).of(150f);
+  }
+
+  @Test
+  public void drawCollapsingFromCachedTextLayers_composesLayersInOwnLayer() {
+    collapsingTextHelper.setTextLayersCached(true);
+    collapsingTextHelper.setExpansionFraction(0.5f);
+    RecordingCanvas recordingCanvas = new RecordingCanvas();
+
+    collapsingTextHelper.draw(recordingCanvas);
+
+    assertThat(recordingCanvas.bitmapCenters).hasSize(2);
+    assertThat(recordingCanvas.layerCount).isEqualTo(1);
+  }
+
+  @Test
+  public void drawExpandedFromCachedTextLayers_end_alignsLayerToEnd() {
+    collapsingTextHelper.setText("Title");
+    collapsingTextHelper.setExpandedTextGravity(Gravity.END | Gravity.BOTTOM);
+    collapsingTextHelper.setTextLayersCached(true);
+    collapsingTextHelper.setExpansionFraction(0f);
+    RecordingCanvas recordingCanvas = new RecordingCanvas();
+
+    collapsingTextHelper.draw(recordingCanvas);
+
+    assertThat(recordingCanvas.bitmapCenters).hasSize(1);
+    assertThat(recordingCanvas.bitmapRights.get(0)).isWithin(0.5f).of(300f);
+    assertThat(recordingCanvas.layerCount).isEqualTo(0);
+  }
+
+  private void assertDrawDoesNotAllocate() {
+    allocations.assertDoesNotAllocate(
+        new Runnable() {
+          @Override
+          public void run() {
+            collapsingTextHelper.draw(canvas);
+          }
+        });
+  }
+
+  /** Records where bitmaps are drawn, following the translations and scales of the canvas. */
+  private static class RecordingCanvas extends NoOpCanvas {
+    private final List<Float> bitmapCenters = new ArrayList<>();
+    private final List<Float> bitmapRights = new ArrayList<>();
+    private int layerCount;
+    private float translateX;
+    private float scaleX = 1f;
+
+    @Override
+    public int saveLayer(RectF bounds, Paint paint, int saveFlags) {
+      layerCount++;
+      return super.saveLayer(bounds, paint, saveFlags);
+    }
+
+    @Override
+    public int saveLayer(RectF bounds, Paint paint) {
+      layerCount++;
+      return super.saveLayer(bounds, paint);
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+      super.restoreToCount(saveCount);
+      translateX = 0;
+      scaleX = 1f;
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+      translateX += dx * scaleX;
+    }
+
+    @Override
+    public void scale(float sx, float sy) {
+      scaleX *= sx;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+      bitmapCenters.add(translateX + scaleX * (left + bitmap.getWidth() / 2f));
+      bitmapRights.add(translateX + scaleX * (left + bitmap.getWidth()));
+    }
+  }
+}
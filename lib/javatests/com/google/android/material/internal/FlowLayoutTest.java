@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup.MarginLayoutParams;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link FlowLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class FlowLayoutTest {
+
+  private static final int WIDTH = 100;
+  private static final int CHILD_HEIGHT = 10;
+
+  private FlowLayout flowLayout;
+
+  @Before
+  public void createFlowLayout() {
+    flowLayout = new FlowLayout(ApplicationProvider.getApplicationContext());
+    flowLayout.setItemSpacing(4);
+    flowLayout.setLineSpacing(2);
+  }
+
+  @Test
+  public void layout_wrapsChildrenToNextLine() {
+    View first = addChild(50);
+    View second = addChild(40);
+    View third = addChild(30);
+
+    measureAndLayout();
+
+    assertThat(first.getLeft()).isEqualTo(0);
+    assertThat(second.getLeft()).isEqualTo(54);
+    assertThat(third.getLeft()).isEqualTo(0);
+    assertThat(third.getTop()).isEqualTo(CHILD_HEIGHT + 2);
+    assertThat(flowLayout.getMeasuredHeight()).isEqualTo(2 * CHILD_HEIGHT + 2);
+  }
+
+  @Test
+  public void layout_childWidthChanged_reflowsFollowingChildren() {
+    View first = addChild(50);
+    View second = addChild(30);
+    View third = addChild(30);
+    measureAndLayout();
+    assertThat(third.getTop()).isEqualTo(CHILD_HEIGHT + 2);
+
+    second.getLayoutParams().width = 10;
+    measureAndLayout();
+
+    assertThat(first.getLeft()).isEqualTo(0);
+    assertThat(second.getRight()).isEqualTo(64);
+    assertThat(third.getLeft()).isEqualTo(68);
+    assertThat(third.getTop()).isEqualTo(0);
+    assertThat(flowLayout.getMeasuredHeight()).isEqualTo(CHILD_HEIGHT);
+  }
+
+  @Test
+  public void layout_childGone_reflowsFollowingChildren() {
+    addChild(50);
+    View second = addChild(40);
+    View third = addChild(30);
+    measureAndLayout();
+
+    second.setVisibility(View.GONE);
+    measureAndLayout();
+
+    assertThat(third.getLeft()).isEqualTo(54);
+    assertThat(third.getTop()).isEqualTo(0);
+  }
+
+  @Test
+  public void layout_singleLine_doesNotWrap() {
+    addChild(50);
+    addChild(40);
+    View third = addChild(30);
+    flowLayout.setSingleLine(true);
+
+    measureAndLayout();
+
+    assertThat(third.getLeft()).isEqualTo(98);
+    assertThat(third.getTop()).isEqualTo(0);
+  }
+
+  private View addChild(int width) {
+    View child = new View(ApplicationProvider.getApplicationContext());
+    flowLayout.addView(child, new MarginLayoutParams(width, CHILD_HEIGHT));
+    return child;
+  }
+
+  private void measureAndLayout() {
+    flowLayout.measure(
+        MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+    flowLayout.layout(0, 0, WIDTH, flowLayout.getMeasuredHeight());
+  }
+}
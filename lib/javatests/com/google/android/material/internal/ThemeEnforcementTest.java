@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.internal;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.content.res.Resources;
+import androidx.appcompat.view.ContextThemeWrapper;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link ThemeEnforcement}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ThemeEnforcementTest {
+
+  @After
+  public void clearThemeChecks() {
+    ThemeEnforcement.clearThemeChecks();
+  }
+
+  @Test
+  public void isMaterialTheme_materialTheme_returnsTrue() {
+    Context context = createContext(R.style.Theme_MaterialComponents_Light);
+
+    assertThat(ThemeEnforcement.isMaterialTheme(context)).isTrue();
+    assertThat(ThemeEnforcement.isAppCompatTheme(context)).isTrue();
+  }
+
+  @Test
+  public void checkMaterialTheme_passedTheme_isNotCheckedAgainForNewContext() {
+    Resources.Theme theme = createContext(R.style.Theme_MaterialComponents_Light).getTheme();
+    ThemeLookupCountingContext uncheckedContext = new ThemeLookupCountingContext(theme);
+    ThemeEnforcement.checkMaterialTheme(uncheckedContext);
+
+    ThemeLookupCountingContext checkedContext = new ThemeLookupCountingContext(theme);
+    ThemeEnforcement.checkMaterialTheme(checkedContext);
+
+    // The passed check is found by the theme alone, without resolving its attributes again.
+    assertThat(checkedContext.themeLookups).isLessThan(uncheckedContext.themeLookups);
+    assertThat(checkedContext.themeLookups).isEqualTo(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void checkMaterialTheme_afterClearingChecks_checksThemeAgain() {
+    Context context = createContext(R.style.Theme_MaterialComponents_Light);
+    ThemeEnforcement.checkMaterialTheme(context);
+    context.getTheme().setTo(createContext(R.style.Theme_AppCompat_Light).getTheme());
+
+    ThemeEnforcement.clearThemeChecks();
+
+    ThemeEnforcement.checkMaterialTheme(context);
+  }
+
+  @Test
+  public void isMaterialTheme_appCompatTheme_returnsFalse() {
+    Context context = createContext(R.style.Theme_AppCompat_Light);
+
+    assertThat(ThemeEnforcement.isAppCompatTheme(context)).isTrue();
+    assertThat(ThemeEnforcement.isMaterialTheme(context)).isFalse();
+  }
+
+  @Test
+  public void isMaterialTheme_afterApplyingMaterialTheme_returnsTrue() {
+    Context context = createContext(R.style.Theme_AppCompat_Light);
+    assertThat(ThemeEnforcement.isMaterialTheme(context)).isFalse();
+
+    context.getTheme().applyStyle(R.style.Theme_MaterialComponents_Light, true);
+
+    assertThat(ThemeEnforcement.isMaterialTheme(context)).isTrue();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void checkMaterialTheme_appCompatTheme_throws() {
+    Context context = createContext(R.style.Theme_AppCompat_Light);
+    ThemeEnforcement.isAppCompatTheme(context);
+
+    ThemeEnforcement.checkMaterialTheme(context);
+  }
+
+  private static Context createContext(int themeResId) {
+    return new ContextThemeWrapper(ApplicationProvider.getApplicationContext(), themeResId);
+  }
+
+  /** A context that counts how often its theme is looked up to resolve attributes or checks. */
+  private static class ThemeLookupCountingContext extends ContextThemeWrapper {
+    int themeLookups;
+
+    ThemeLookupCountingContext(Resources.Theme theme) {
+      super(ApplicationProvider.getApplicationContext(), theme);
+    }
+
+    @Override
+    public Resources.Theme getTheme() {
+      themeLookups++;
+      return super.getTheme();
+    }
+  }
+}
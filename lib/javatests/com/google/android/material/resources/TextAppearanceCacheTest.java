@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.resources;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.view.ContextThemeWrapper;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.resources.TextAppearanceCache}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TextAppearanceCacheTest {
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  @Before
+  public void themeApplicationContext() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    TextAppearanceCache.clear();
+  }
+
+  @Test
+  public void sameThemeAndStyle_returnsSameTextAppearance() {
+    TextAppearance textAppearance =
+        TextAppearanceCache.get(context, R.style.TextAppearance_MaterialComponents_Body1);
+
+    assertThat(TextAppearanceCache.get(context, R.style.TextAppearance_MaterialComponents_Body1))
+        .isSameAs(textAppearance);
+  }
+
+  @Test
+  public void differentTheme_returnsNewTextAppearance() {
+    TextAppearance textAppearance =
+        TextAppearanceCache.get(context, R.style.TextAppearance_MaterialComponents_Body1);
+    Context themedContext =
+        new ContextThemeWrapper(context, R.style.Theme_MaterialComponents_Light);
+
+    assertThat(
+            TextAppearanceCache.get(themedContext, R.style.TextAppearance_MaterialComponents_Body1))
+        .isNotSameAs(textAppearance);
+  }
+
+  @Test
+  public void configurationChange_returnsNewTextAppearance() {
+    TextAppearance textAppearance =
+        TextAppearanceCache.get(context, R.style.TextAppearance_MaterialComponents_Body1);
+
+    Configuration configuration = new Configuration(context.getResources().getConfiguration());
+    configuration.fontScale *= 2;
+    context
+        .getResources()
+        .updateConfiguration(configuration, context.getResources().getDisplayMetrics());
+
+    assertThat(TextAppearanceCache.get(context, R.style.TextAppearance_MaterialComponents_Body1))
+        .isNotSameAs(textAppearance);
+  }
+}
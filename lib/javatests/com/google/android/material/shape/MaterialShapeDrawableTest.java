@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.shape;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import com.google.android.material.testing.AllocationTrackingRule;
+import com.google.android.material.testing.NoOpCanvas;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.shape.MaterialShapeDrawable}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class MaterialShapeDrawableTest {
+
+  @Rule public final AllocationTrackingRule allocations = new AllocationTrackingRule();
+
+  private final Canvas canvas = new NoOpCanvas();
+
+  @Test
+  public void drawRoundedShape_doesNotAllocate() {
+    MaterialShapeDrawable drawable =
+        createDrawable(ShapeAppearanceModel.builder().setCornerRadius(10).build());
+
+    assertDrawDoesNotAllocate(drawable);
+  }
+
+  @Test
+  public void drawCutShapeWithStroke_doesNotAllocate() {
+    MaterialShapeDrawable drawable =
+        createDrawable(
+            ShapeAppearanceModel.builder()
+                .setAllCorners(new CutCornerTreatment(10))
+                .setBottomEdge(new TriangleEdgeTreatment(5, false))
+                .build());
+    drawable.setStroke(2, Color.BLACK);
+
+    assertDrawDoesNotAllocate(drawable);
+  }
+
+  @Test
+  public void drawCompatShadow_doesNotAllocate() {
+    MaterialShapeDrawable drawable =
+        createDrawable(ShapeAppearanceModel.builder().setCornerRadius(10).build());
+    drawable.setShadowCompatibilityMode(MaterialShapeDrawable.SHADOW_COMPAT_MODE_ALWAYS);
+    drawable.setElevation(8);
+
+    assertDrawDoesNotAllocate(drawable);
+  }
+
+  @Test
+  public void drawCachedCompatShadow_doesNotAllocate() {
+    MaterialShapeDrawable drawable =
+        createDrawable(
+            ShapeAppearanceModel.builder().setAllCorners(new CutCornerTreatment(10)).build());
+    drawable.setShadowCompatibilityMode(MaterialShapeDrawable.SHADOW_COMPAT_MODE_ALWAYS_CACHED);
+    drawable.setElevation(8);
+
+    assertDrawDoesNotAllocate(drawable);
+  }
+
+  private static MaterialShapeDrawable createDrawable(ShapeAppearanceModel shapeAppearanceModel) {
+    MaterialShapeDrawable drawable = new MaterialShapeDrawable(shapeAppearanceModel);
+    drawable.setTint(Color.RED);
+    drawable.setBounds(0, 0, 200, 100);
+    return drawable;
+  }
+
+  private void assertDrawDoesNotAllocate(final MaterialShapeDrawable drawable) {
+    allocations.assertDoesNotAllocate(
+        new Runnable() {
+          @Override
+          public void run() {
+            drawable.draw(canvas);
+          }
+        });
+  }
+}
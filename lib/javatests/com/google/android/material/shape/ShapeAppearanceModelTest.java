@@ -22,6 +22,8 @@ import static com.google.common.truth.Truth.assertThat;
 import android.content.Context;
 import android.util.AttributeSet;
 import androidx.test.core.app.ApplicationProvider;
+import java.util.HashSet;
+import java.util.Set;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -167,6 +169,114 @@ public class ShapeAppearanceModelTest {
     assertCornerSize(largeCornerShape, LARGE_CORNER_SIZE);
   }
 
+  @Test
+  public void builder_buildsImmutableModel() {
+    shapeAppearance =
+        ShapeAppearanceModel.builder()
+            .setAllCorners(CornerFamily.CUT, (int) LARGE_CORNER_SIZE)
+            .build();
+
+    assertThat(shapeAppearance.isImmutable()).isTrue();
+    assertCornersInstanceOf(CutCornerTreatment.class);
+    assertCornerSize(LARGE_CORNER_SIZE);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutableModel_setCornerRadius_throws() {
+    shapeAppearance = ShapeAppearanceModel.builder().build();
+
+    shapeAppearance.setCornerRadius(LARGE_CORNER_SIZE);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutableModel_setCornerSizeOnTreatment_throws() {
+    shapeAppearance = ShapeAppearanceModel.builder().setCornerRadius(DEFAULT_CORNER_SIZE).build();
+
+    shapeAppearance.getTopLeftCorner().setCornerSize(LARGE_CORNER_SIZE);
+  }
+
+  @Test
+  public void immutableModel_clonedTreatment_isModifiable() {
+    shapeAppearance = ShapeAppearanceModel.builder().setCornerRadius(DEFAULT_CORNER_SIZE).build();
+
+    CornerTreatment cornerTreatment = shapeAppearance.getTopLeftCorner().clone();
+    cornerTreatment.setCornerSize(LARGE_CORNER_SIZE);
+
+    assertThat(cornerTreatment.getCornerSize()).isEqualTo(LARGE_CORNER_SIZE);
+    assertCornerSize(DEFAULT_CORNER_SIZE);
+  }
+
+  @Test
+  public void builder_doesNotModifyOriginalModel() {
+    shapeAppearance = ShapeAppearanceModel.builder().setCornerRadius(DEFAULT_CORNER_SIZE).build();
+
+    ShapeAppearanceModel largeCornerShape =
+        shapeAppearance.toBuilder().setCornerRadius(LARGE_CORNER_SIZE).build();
+
+    assertCornerSize(shapeAppearance, DEFAULT_CORNER_SIZE);
+    assertCornerSize(largeCornerShape, LARGE_CORNER_SIZE);
+  }
+
+  @Test
+  public void equalModels_haveEqualHashCodes() {
+    shapeAppearance =
+        ShapeAppearanceModel.builder()
+            .setAllCorners(new CutCornerTreatment(DEFAULT_CORNER_SIZE))
+            .build();
+    ShapeAppearanceModel builtShape =
+        ShapeAppearanceModel.builder()
+            .setAllCorners(new CutCornerTreatment(DEFAULT_CORNER_SIZE))
+            .build();
+
+    assertThat(builtShape).isEqualTo(shapeAppearance);
+    assertThat(builtShape.hashCode()).isEqualTo(shapeAppearance.hashCode());
+    assertThat(builtShape)
+        .isNotEqualTo(builtShape.toBuilder().setCornerRadius(LARGE_CORNER_SIZE).build());
+  }
+
+  @Test
+  public void mutableModels_areOnlyEqualToThemselves() {
+    shapeAppearance = new ShapeAppearanceModel();
+    ShapeAppearanceModel otherShape = new ShapeAppearanceModel();
+
+    assertThat(shapeAppearance).isEqualTo(shapeAppearance);
+    assertThat(shapeAppearance).isNotEqualTo(otherShape);
+    assertThat(shapeAppearance).isNotEqualTo(shapeAppearance.toBuilder().build());
+  }
+
+  @Test
+  public void mutableModel_modifiedInHashSet_isStillFound() {
+    shapeAppearance = new ShapeAppearanceModel();
+    Set<ShapeAppearanceModel> shapes = new HashSet<>();
+    shapes.add(shapeAppearance);
+
+    shapeAppearance.setCornerRadius(LARGE_CORNER_SIZE);
+
+    assertThat(shapes.contains(shapeAppearance)).isTrue();
+  }
+
+  @Test
+  public void customTreatments_areOnlyEqualToThemselves() {
+    CornerTreatment customCorner = new CornerTreatment(DEFAULT_CORNER_SIZE) {};
+    shapeAppearance = ShapeAppearanceModel.builder().setAllCorners(customCorner).build();
+    ShapeAppearanceModel otherShape =
+        ShapeAppearanceModel.builder().setAllCorners(customCorner).build();
+
+    assertThat(shapeAppearance).isEqualTo(shapeAppearance);
+    assertThat(shapeAppearance).isNotEqualTo(otherShape);
+  }
+
+  @Test
+  public void intern_returnsCanonicalInstance() {
+    ShapeAppearanceModel first =
+        ShapeAppearanceModel.builder().setCornerRadius(DEFAULT_CORNER_SIZE).build().intern();
+    ShapeAppearanceModel second = new ShapeAppearanceModel();
+    second.setCornerRadius(DEFAULT_CORNER_SIZE);
+
+    assertThat(second.intern()).isSameAs(first);
+    assertThat(first.isImmutable()).isTrue();
+  }
+
   private AttributeSetBuilder buildStyleAttributeSet() {
     return Robolectric.buildAttributeSet()
         .addAttribute(R.attr.shapeAppearance, "@style/ShapeAppearance.MaterialComponents.Test");
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.shape;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.graphics.Matrix;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.os.Build.VERSION_CODES;
+import com.google.android.material.shape.ShapeAppearancePathProvider.PathListener;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.shape.ShapeAppearancePathProvider}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ShapeAppearancePathProviderTest {
+
+  private static final float TOLERANCE = 0.01f;
+  /** The error allowed when flattening outlines, and the distance allowed between them. */
+  private static final float OUTLINE_TOLERANCE = 0.1f;
+
+  private final ShapeAppearancePathProvider pathProvider = new ShapeAppearancePathProvider();
+  private final RectF bounds = new RectF(10, 20, 110, 70);
+
+  /** A listener which forces the provider to apply each corner and edge treatment in turn. */
+  private final PathListener noOpListener =
+      new PathListener() {
+        @Override
+        public void onCornerPathCreated(ShapePath cornerPath, Matrix transform, int count) {}
+
+        @Override
+        public void onEdgePathCreated(ShapePath edgePath, Matrix transform, int count) {}
+      };
+
+  @Test
+  @Config(sdk = VERSION_CODES.O)
+  public void roundedCorners_matchGenericPath() {
+    ShapeAppearanceModel shapeAppearance = new ShapeAppearanceModel();
+    shapeAppearance.setAllCorners(new RoundedCornerTreatment(15));
+
+    assertMatchesGenericPath(shapeAppearance, 1f);
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.O)
+  public void mixedCorners_matchGenericPath() {
+    ShapeAppearanceModel shapeAppearance = new ShapeAppearanceModel();
+    shapeAppearance.setTopLeftCorner(new CutCornerTreatment(20));
+    shapeAppearance.setTopRightCorner(new RoundedCornerTreatment(5));
+    shapeAppearance.setBottomRightCorner(new CutCornerTreatment(10));
+    shapeAppearance.setBottomLeftCorner(new RoundedCornerTreatment(25));
+
+    assertMatchesGenericPath(shapeAppearance, 0.5f);
+  }
+
+  @Test
+  public void defaultCorners_haveRectangularBounds() {
+    Path path = new Path();
+    RectF pathBounds = new RectF();
+
+    pathProvider.calculatePath(new ShapeAppearanceModel(), 1f, bounds, path);
+    path.computeBounds(pathBounds, true);
+
+    assertBoundsEqual(pathBounds, bounds);
+  }
+
+  private void assertMatchesGenericPath(ShapeAppearanceModel shapeAppearance, float interpolation) {
+    Path simplePath = new Path();
+    Path genericPath = new Path();
+
+    pathProvider.calculatePath(shapeAppearance, interpolation, bounds, simplePath);
+    pathProvider.calculatePath(shapeAppearance, interpolation, bounds, noOpListener, genericPath);
+
+    // Every point of each outline has to lie on the other outline, so that the paths have the same
+    // geometry rather than only the same bounds.
+    float[] simpleOutline = simplePath.approximate(OUTLINE_TOLERANCE);
+    float[] genericOutline = genericPath.approximate(OUTLINE_TOLERANCE);
+    assertPointsOnOutline(simpleOutline, genericOutline);
+    assertPointsOnOutline(genericOutline, simpleOutline);
+  }
+
+  /**
+   * Asserts that each of the {@code points} lies on the closed {@code outline}, within {@link
+   * #OUTLINE_TOLERANCE}. Both arrays are in the format returned by {@link Path#approximate(float)}.
+   */
+  private static void assertPointsOnOutline(float[] points, float[] outline) {
+    assertThat(points.length).isAtLeast(3);
+    for (int i = 0; i < points.length; i += 3) {
+      float x = points[i + 1];
+      float y = points[i + 2];
+      assertThat(distanceToOutline(x, y, outline)).isWithin(OUTLINE_TOLERANCE).of(0f);
+    }
+  }
+
+  private static float distanceToOutline(float x, float y, float[] outline) {
+    float distance = Float.MAX_VALUE;
+    for (int i = 0; i < outline.length; i += 3) {
+      // The outline is closed, so the last point connects back to the first.
+      int next = (i + 3) % outline.length;
+      distance =
+          Math.min(
+              distance,
+              distanceToSegment(
+                  x, y, outline[i + 1], outline[i + 2], outline[next + 1], outline[next + 2]));
+    }
+    return distance;
+  }
+
+  private static float distanceToSegment(
+      float x, float y, float startX, float startY, float endX, float endY) {
+    float dx = endX - startX;
+    float dy = endY - startY;
+    float lengthSquared = dx * dx + dy * dy;
+    float t =
+        lengthSquared == 0
+            ? 0
+            : Math.max(0, Math.min(1, ((x - startX) * dx + (y - startY) * dy) / lengthSquared));
+    return (float) Math.hypot(x - (startX + t * dx), y - (startY + t * dy));
+  }
+
+  private static void assertBoundsEqual(RectF actual, RectF expected) {
+    assertThat(actual.left).isWithin(TOLERANCE).of(expected.left);
+    assertThat(actual.top).isWithin(TOLERANCE).of(expected.top);
+    assertThat(actual.right).isWithin(TOLERANCE).of(expected.right);
+    assertThat(actual.bottom).isWithin(TOLERANCE).of(expected.bottom);
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.shape;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.android.material.testing.AllocationTrackingRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.shape.ShapePath}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ShapePathTest {
+
+  @Rule public final AllocationTrackingRule allocations = new AllocationTrackingRule();
+
+  private final ShapePath shapePath = new ShapePath();
+  private final CornerTreatment roundedCorner = new RoundedCornerTreatment(10);
+  private final CornerTreatment cutCorner = new CutCornerTreatment(10);
+  private final EdgeTreatment triangleEdge = new TriangleEdgeTreatment(5, false);
+
+  @Test
+  public void lineTo_updatesEndPoint() {
+    shapePath.reset(0, 0);
+    shapePath.lineTo(10, 20);
+
+    assertThat(shapePath.startX).isEqualTo(0f);
+    assertThat(shapePath.startY).isEqualTo(0f);
+    assertThat(shapePath.endX).isEqualTo(10f);
+    assertThat(shapePath.endY).isEqualTo(20f);
+  }
+
+  @Test
+  public void addArc_updatesEndPoint() {
+    shapePath.reset(0, 10);
+    shapePath.addArc(0, 0, 20, 20, 180, 90);
+
+    assertThat(shapePath.endX).isWithin(0.001f).of(10f);
+    assertThat(shapePath.endY).isWithin(0.001f).of(0f);
+  }
+
+  @Test
+  public void rebuildingPath_doesNotAllocate() {
+    allocations.assertDoesNotAllocate(
+        new Runnable() {
+          @Override
+          public void run() {
+            roundedCorner.getCornerPath(90, 1f, shapePath);
+            cutCorner.getCornerPath(90, 0.5f, shapePath);
+            shapePath.reset(0, 0);
+            triangleEdge.getEdgePath(100, 50, 1f, shapePath);
+          }
+        });
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.snackbar;
+
+import static com.google.android.material.snackbar.BaseTransientBottomBar.BaseCallback.DISMISS_EVENT_CONSECUTIVE;
+import static com.google.android.material.snackbar.BaseTransientBottomBar.BaseCallback.DISMISS_EVENT_MANUAL;
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+import org.robolectric.shadows.ShadowLooper;
+
+/** Tests for {@link com.google.android.material.snackbar.SnackbarManager}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class SnackbarManagerTest {
+
+  private final SnackbarManager snackbarManager = new SnackbarManager();
+  private final List<String> events = new ArrayList<>();
+
+  @Test
+  public void enqueue_doesNotDismissCurrentSnackbar() {
+    FakeSnackbar first = new FakeSnackbar("first");
+    FakeSnackbar second = new FakeSnackbar("second");
+
+    first.enqueue(0, null);
+    second.enqueue(0, null);
+    drainQueue();
+
+    assertThat(events).containsExactly("show first");
+    assertThat(snackbarManager.isCurrentOrNext(second)).isTrue();
+
+    first.dismissed();
+
+    assertThat(events).containsExactly("show first", "show second").inOrder();
+  }
+
+  @Test
+  public void enqueue_showsHigherPriorityFirst() {
+    FakeSnackbar current = new FakeSnackbar("current");
+    FakeSnackbar low = new FakeSnackbar("low");
+    FakeSnackbar high = new FakeSnackbar("high");
+    FakeSnackbar alsoLow = new FakeSnackbar("alsoLow");
+
+    current.enqueue(0, null);
+    drainQueue();
+    low.enqueue(0, null);
+    high.enqueue(1, null);
+    alsoLow.enqueue(0, null);
+    drainQueue();
+    current.dismissed();
+    high.dismissed();
+    low.dismissed();
+
+    assertThat(events)
+        .containsExactly("show current", "show high", "show low", "show alsoLow")
+        .inOrder();
+  }
+
+  @Test
+  public void enqueue_sameKey_replacesQueuedSnackbar() {
+    FakeSnackbar current = new FakeSnackbar("current");
+    FakeSnackbar oldProgress = new FakeSnackbar("oldProgress");
+    FakeSnackbar newProgress = new FakeSnackbar("newProgress");
+
+    current.enqueue(0, null);
+    drainQueue();
+    oldProgress.enqueue(0, "sync");
+    newProgress.enqueue(0, "sync");
+    drainQueue();
+
+    assertThat(events)
+        .containsExactly("show current", "dismiss oldProgress " + DISMISS_EVENT_CONSECUTIVE)
+        .inOrder();
+    assertThat(snackbarManager.isCurrentOrNext(oldProgress)).isFalse();
+    assertThat(snackbarManager.isCurrentOrNext(newProgress)).isTrue();
+  }
+
+  @Test
+  public void enqueue_sameKeyAsCurrent_replacesCurrentSnackbar() {
+    FakeSnackbar oldProgress = new FakeSnackbar("oldProgress");
+    FakeSnackbar other = new FakeSnackbar("other");
+    FakeSnackbar newProgress = new FakeSnackbar("newProgress");
+
+    oldProgress.enqueue(0, "sync");
+    other.enqueue(0, null);
+    drainQueue();
+    newProgress.enqueue(0, "sync");
+    drainQueue();
+    oldProgress.dismissed();
+
+    assertThat(events)
+        .containsExactly(
+            "show oldProgress",
+            "dismiss oldProgress " + DISMISS_EVENT_CONSECUTIVE,
+            "show newProgress")
+        .inOrder();
+  }
+
+  @Test
+  public void enqueue_beyondMaxQueueSize_dismissesOldestLowestPriority() {
+    snackbarManager.setMaxQueueSize(2);
+    FakeSnackbar current = new FakeSnackbar("current");
+    FakeSnackbar oldLow = new FakeSnackbar("oldLow");
+    FakeSnackbar newLow = new FakeSnackbar("newLow");
+    FakeSnackbar high = new FakeSnackbar("high");
+
+    current.enqueue(0, null);
+    drainQueue();
+    oldLow.enqueue(0, null);
+    newLow.enqueue(0, null);
+    high.enqueue(1, null);
+    drainQueue();
+
+    assertThat(events)
+        .containsExactly("show current", "dismiss oldLow " + DISMISS_EVENT_CONSECUTIVE)
+        .inOrder();
+    assertThat(snackbarManager.isCurrentOrNext(newLow)).isTrue();
+    assertThat(snackbarManager.isCurrentOrNext(high)).isTrue();
+  }
+
+  @Test
+  public void dismiss_queuedSnackbar_removesItFromQueue() {
+    FakeSnackbar current = new FakeSnackbar("current");
+    FakeSnackbar queued = new FakeSnackbar("queued");
+
+    current.enqueue(0, null);
+    queued.enqueue(0, null);
+    snackbarManager.dismiss(queued, DISMISS_EVENT_MANUAL);
+    drainQueue();
+    current.dismissed();
+
+    assertThat(events)
+        .containsExactly("dismiss queued " + DISMISS_EVENT_MANUAL, "show current")
+        .inOrder();
+    assertThat(snackbarManager.isCurrentOrNext(queued)).isFalse();
+  }
+
+  @Test
+  public void show_whileQueued_showsBeforeQueuedSnackbars() {
+    FakeSnackbar current = new FakeSnackbar("current");
+    FakeSnackbar queued = new FakeSnackbar("queued");
+    FakeSnackbar shown = new FakeSnackbar("shown");
+
+    current.enqueue(0, null);
+    queued.enqueue(0, null);
+    drainQueue();
+    snackbarManager.show(Snackbar.LENGTH_SHORT, shown);
+    current.dismissed();
+    shown.dismissed();
+
+    assertThat(events)
+        .containsExactly(
+            "show current",
+            "dismiss current " + DISMISS_EVENT_CONSECUTIVE,
+            "show shown",
+            "show queued")
+        .inOrder();
+  }
+
+  @Test
+  public void show_queuedSnackbar_isNotShownAgain() {
+    FakeSnackbar current = new FakeSnackbar("current");
+    FakeSnackbar queued = new FakeSnackbar("queued");
+
+    current.enqueue(0, null);
+    queued.enqueue(0, null);
+    drainQueue();
+    snackbarManager.show(Snackbar.LENGTH_SHORT, queued);
+    current.dismissed();
+    queued.dismissed();
+
+    assertThat(events)
+        .containsExactly(
+            "show current", "dismiss current " + DISMISS_EVENT_CONSECUTIVE, "show queued")
+        .inOrder();
+    assertThat(snackbarManager.isCurrentOrNext(queued)).isFalse();
+  }
+
+  @Test
+  public void show_pendingSnackbar_isNotShownAgain() {
+    FakeSnackbar pending = new FakeSnackbar("pending");
+
+    pending.enqueue(0, null);
+    snackbarManager.show(Snackbar.LENGTH_SHORT, pending);
+    pending.dismissed();
+    drainQueue();
+
+    assertThat(events).containsExactly("show pending");
+  }
+
+  private static void drainQueue() {
+    ShadowLooper.runUiThreadTasks();
+  }
+
+  private class FakeSnackbar implements SnackbarManager.Callback {
+
+    private final String name;
+
+    FakeSnackbar(String name) {
+      this.name = name;
+    }
+
+    void enqueue(int priority, Object key) {
+      snackbarManager.enqueue(Snackbar.LENGTH_SHORT, this, priority, key);
+    }
+
+    /** Tells the manager this Snackbar is no longer displayed, as its exit animation would. */
+    void dismissed() {
+      snackbarManager.onDismissed(this);
+    }
+
+    @Override
+    public void show() {
+      events.add("show " + name);
+    }
+
+    @Override
+    public void dismiss(int event) {
+      events.add("dismiss " + name + " " + event);
+    }
+  }
+}
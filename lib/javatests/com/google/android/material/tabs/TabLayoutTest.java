@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.tabs;
+
+import com.google.android.material.R;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.view.View.MeasureSpec;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.testing.AllocationTrackingRule;
+import com.google.android.material.testing.NoOpCanvas;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link TabLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public final class TabLayoutTest {
+
+  private static final int WIDTH = 360;
+  private static final int HEIGHT = 48;
+
+  @Rule public final AllocationTrackingRule allocations = new AllocationTrackingRule();
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+  private final Canvas canvas = new NoOpCanvas();
+  private TabLayout tabLayout;
+
+  @Before
+  public void createTabLayout() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    tabLayout = new TabLayout(context);
+    tabLayout.setTabMode(TabLayout.MODE_FIXED);
+    // Labels and ripples are drawn by framework views and drawables, which aren't under test here.
+    tabLayout.setTabRippleColor(null);
+    tabLayout.addTab(tabLayout.newTab().setContentDescription("First tab"));
+    tabLayout.addTab(tabLayout.newTab().setContentDescription("Second tab"));
+
+    tabLayout.measure(
+        MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+    tabLayout.layout(0, 0, WIDTH, HEIGHT);
+  }
+
+  @Test
+  public void drawSelectedTabIndicator_doesNotAllocate() {
+    allocations.assertDoesNotAllocate(
+        new Runnable() {
+          @Override
+          public void run() {
+            tabLayout.draw(canvas);
+          }
+        });
+  }
+}
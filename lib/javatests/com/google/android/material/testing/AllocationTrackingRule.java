@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.testing;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * A JUnit rule which asserts an upper bound on the memory allocated by an operation, such as a
+ * {@code draw()} or {@code onMeasure()} call which runs every frame:
+ *
+ * <pre>
+ * {@literal @}Rule public final AllocationTrackingRule allocations = new AllocationTrackingRule();
+ *
+ * {@literal @}Test
+ * public void draw_doesNotAllocate() {
+ *   allocations.assertDoesNotAllocate(
+ *       new Runnable() {
+ *         {@literal @}Override
+ *         public void run() {
+ *           drawable.draw(canvas);
+ *         }
+ *       });
+ * }
+ * </pre>
+ *
+ * <p>The operation is run once before allocations are counted, so that lazily created objects and
+ * caches don't count against it. Allocations are counted with the allocated bytes counter of the
+ * current thread, and tests using this rule are skipped on JVMs which don't support it.
+ *
+ * <p>Under Robolectric, some framework methods allocate inside their shadows. Operations which
+ * draw should draw into a {@link NoOpCanvas}, so that only the allocations of the library code are
+ * counted.
+ */
+public final class AllocationTrackingRule implements TestRule {
+
+  /** Number of times the operation is run while allocations are counted. */
+  private static final int ITERATIONS = 1000;
+
+  /** Upper bound for allocations made by the allocation counter itself. */
+  private static final long MAX_COUNTER_ALLOCATED_BYTES = 1024;
+
+  @Override
+  public Statement apply(final Statement base, Description description) {
+    return new Statement() {
+      @Override
+      public void evaluate() throws Throwable {
+        assumeTrue(
+            "Counting allocated bytes isn't supported by this JVM", AllocationCounter.isEnabled());
+        base.evaluate();
+      }
+    };
+  }
+
+  /** Asserts that running {@code operation} doesn't allocate any memory. */
+  public void assertDoesNotAllocate(Runnable operation) {
+    assertAllocatesAtMost(0, operation);
+  }
+
+  /**
+   * Asserts that running {@code operation} allocates at most {@code maxBytesPerOperation} bytes on
+   * average.
+   *
+   * @param operation the operation to run. It's run many times, so it must leave any state it
+   *     changes ready to be run again.
+   */
+  public void assertAllocatesAtMost(long maxBytesPerOperation, Runnable operation) {
+    // Let lazily created objects be created, and buffers grow to their steady state size.
+    operation.run();
+
+    long allocatedBytes = AllocationCounter.getAllocatedBytes();
+    for (int i = 0; i < ITERATIONS; i++) {
+      operation.run();
+    }
+    allocatedBytes = AllocationCounter.getAllocatedBytes() - allocatedBytes;
+
+    assertWithMessage("Bytes allocated by %s runs", ITERATIONS)
+        .that(allocatedBytes)
+        .isAtMost(maxBytesPerOperation * ITERATIONS + MAX_COUNTER_ALLOCATED_BYTES);
+  }
+
+  /** Reads the number of bytes allocated by the current thread. */
+  private static final class AllocationCounter {
+
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    static boolean isEnabled() {
+      if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+        return false;
+      }
+      com.sun.management.ThreadMXBean allocationMXBean =
+          (com.sun.management.ThreadMXBean) threadMXBean;
+      return allocationMXBean.isThreadAllocatedMemorySupported()
+          && allocationMXBean.isThreadAllocatedMemoryEnabled();
+    }
+
+    static long getAllocatedBytes() {
+      return ((com.sun.management.ThreadMXBean) threadMXBean)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.testing;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Region;
+
+/**
+ * A {@link Canvas} which ignores everything drawn into it.
+ *
+ * <p>Robolectric's canvas records what is drawn into it, which allocates. Drawing into this canvas
+ * instead lets {@link AllocationTrackingRule} count only the allocations of the code drawing.
+ */
+public class NoOpCanvas extends Canvas {
+
+  private int saveCount = 1;
+
+  @Override
+  public boolean isHardwareAccelerated() {
+    return false;
+  }
+
+  @Override
+  public int getSaveCount() {
+    return saveCount;
+  }
+
+  @Override
+  public int save() {
+    return saveCount++;
+  }
+
+  @Override
+  public int saveLayer(RectF bounds, Paint paint, int saveFlags) {
+    return saveCount++;
+  }
+
+  @Override
+  public int saveLayer(RectF bounds, Paint paint) {
+    return saveCount++;
+  }
+
+  @Override
+  public int saveLayer(float left, float top, float right, float bottom, Paint paint) {
+    return saveCount++;
+  }
+
+  @Override
+  public int saveLayerAlpha(RectF bounds, int alpha) {
+    return saveCount++;
+  }
+
+  @Override
+  public int saveLayerAlpha(float left, float top, float right, float bottom, int alpha) {
+    return saveCount++;
+  }
+
+  @Override
+  public void restore() {
+    if (saveCount > 1) {
+      saveCount--;
+    }
+  }
+
+  @Override
+  public void restoreToCount(int saveCount) {
+    this.saveCount = Math.max(1, saveCount);
+  }
+
+  @Override
+  public void translate(float dx, float dy) {}
+
+  @Override
+  public void scale(float sx, float sy) {}
+
+  @Override
+  public void rotate(float degrees) {}
+
+  @Override
+  public void skew(float sx, float sy) {}
+
+  @Override
+  public void concat(Matrix matrix) {}
+
+  @Override
+  public void setMatrix(Matrix matrix) {}
+
+  @Override
+  public boolean clipRect(RectF rect) {
+    return true;
+  }
+
+  @Override
+  public boolean clipRect(Rect rect) {
+    return true;
+  }
+
+  @Override
+  public boolean clipRect(float left, float top, float right, float bottom) {
+    return true;
+  }
+
+  @Override
+  public boolean clipRect(int left, int top, int right, int bottom) {
+    return true;
+  }
+
+  @Override
+  public boolean clipRect(RectF rect, Region.Op op) {
+    return true;
+  }
+
+  @Override
+  public boolean clipRect(Rect rect, Region.Op op) {
+    return true;
+  }
+
+  @Override
+  public boolean clipRect(float left, float top, float right, float bottom, Region.Op op) {
+    return true;
+  }
+
+  @Override
+  public boolean clipPath(Path path) {
+    return true;
+  }
+
+  @Override
+  public boolean clipPath(Path path, Region.Op op) {
+    return true;
+  }
+
+  @Override
+  public boolean quickReject(RectF rect, EdgeType type) {
+    return false;
+  }
+
+  @Override
+  public boolean quickReject(float left, float top, float right, float bottom, EdgeType type) {
+    return false;
+  }
+
+  @Override
+  public void drawColor(int color) {}
+
+  @Override
+  public void drawPaint(Paint paint) {}
+
+  @Override
+  public void drawPath(Path path, Paint paint) {}
+
+  @Override
+  public void drawRect(RectF rect, Paint paint) {}
+
+  @Override
+  public void drawRect(Rect rect, Paint paint) {}
+
+  @Override
+  public void drawRect(float left, float top, float right, float bottom, Paint paint) {}
+
+  @Override
+  public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {}
+
+  @Override
+  public void drawRoundRect(
+      float left, float top, float right, float bottom, float rx, float ry, Paint paint) {}
+
+  @Override
+  public void drawOval(RectF oval, Paint paint) {}
+
+  @Override
+  public void drawCircle(float cx, float cy, float radius, Paint paint) {}
+
+  @Override
+  public void drawArc(
+      RectF oval, float startAngle, float sweepAngle, boolean useCenter, Paint paint) {}
+
+  @Override
+  public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {}
+
+  @Override
+  public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {}
+
+  @Override
+  public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {}
+
+  @Override
+  public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {}
+
+  @Override
+  public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint) {}
+
+  @Override
+  public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {}
+
+  @Override
+  public void drawText(String text, float x, float y, Paint paint) {}
+
+  @Override
+  public void drawText(String text, int start, int end, float x, float y, Paint paint) {}
+
+  @Override
+  public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) {}
+
+  @Override
+  public void drawTextRun(
+      char[] text,
+      int index,
+      int count,
+      int contextIndex,
+      int contextCount,
+      float x,
+      float y,
+      boolean isRtl,
+      Paint paint) {}
+
+  @Override
+  public void drawTextRun(
+      CharSequence text,
+      int start,
+      int end,
+      int contextStart,
+      int contextEnd,
+      float x,
+      float y,
+      boolean isRtl,
+      Paint paint) {}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.textfield;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.appcompat.app.AppCompatActivity;
+import android.widget.TextView;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.textfield.TextInputLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TextInputLayoutTest {
+
+  private TextInputLayout textInputLayout;
+  private TextInputEditText editText;
+
+  @Before
+  public void createTextInputLayout() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    AppCompatActivity activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    textInputLayout = new TextInputLayout(activity);
+    editText = new TextInputEditText(textInputLayout.getContext());
+    textInputLayout.addView(editText);
+    textInputLayout.setHint("Hint");
+    textInputLayout.setHintAnimationEnabled(false);
+    textInputLayout.setCounterEnabled(true);
+    textInputLayout.setCounterMaxLength(3);
+    activity.setContentView(textInputLayout);
+  }
+
+  @Test
+  public void typing_updatesCounter() {
+    editText.setText("ab");
+
+    assertThat(getCounterView().getText().toString()).isEqualTo("2 / 3");
+
+    editText.append("cd");
+
+    assertThat(getCounterView().getText().toString()).isEqualTo("4 / 3");
+    assertThat(getCounterView().getContentDescription()).isNotNull();
+  }
+
+  @Test
+  public void typing_sameLength_reusesCounterText() {
+    editText.setText("ab");
+    CharSequence counterText = getCounterView().getText();
+
+    editText.setText("abc");
+    editText.setText("xy");
+
+    assertThat(getCounterView().getText().toString()).isEqualTo("2 / 3");
+    assertThat(getCounterView().getText()).isSameAs(counterText);
+  }
+
+  @Test
+  public void typing_farPastMaxLength_doesNotCacheCounterText() {
+    editText.setText("abcdefghijklmnopqrstuvwxyz");
+    CharSequence counterText = getCounterView().getText();
+
+    editText.setText("abc");
+    editText.setText("zyxwvutsrqponmlkjihgfedcba");
+
+    assertThat(getCounterView().getText().toString()).isEqualTo("26 / 3");
+    assertThat(getCounterView().getText()).isNotSameAs(counterText);
+  }
+
+  @Test
+  public void setCounterMaxLength_updatesCounterText() {
+    editText.setText("ab");
+
+    textInputLayout.setCounterMaxLength(10);
+
+    assertThat(getCounterView().getText().toString()).isEqualTo("2 / 10");
+  }
+
+  @Test
+  public void typing_updatesLabelWhenTextBecomesEmptyOrNonEmpty() {
+    assertThat(textInputLayout.isHintExpanded()).isTrue();
+
+    editText.setText("a");
+    assertThat(textInputLayout.isHintExpanded()).isFalse();
+
+    editText.append("b");
+    assertThat(textInputLayout.isHintExpanded()).isFalse();
+
+    editText.setText("");
+    assertThat(textInputLayout.isHintExpanded()).isTrue();
+  }
+
+  private TextView getCounterView() {
+    return (TextView) textInputLayout.findViewById(R.id.textinput_counter);
+  }
+}